@@ -1,6 +1,8 @@
 package app.config;
 
 import app.controller.GitController;
+import app.repository.ConfigRepository;
+import app.repository.FileConfigRepository;
 import app.repository.FileIndexRepository;
 import app.repository.FileObjectReader;
 import app.repository.FileObjectWriter;
@@ -9,11 +11,16 @@ import app.repository.IndexRepository;
 import app.repository.ObjectReader;
 import app.repository.ObjectWriter;
 import app.repository.RefRepository;
+import app.repository.graph.CommitGraph;
 import app.service.AddService;
 import app.service.BranchService;
 import app.service.CheckoutService;
 import app.service.CommitService;
+import app.service.ConfigService;
+import app.service.DiffService;
 import app.service.FileSystemInitService;
+import app.service.FileWatchService;
+import app.service.GcService;
 import app.service.InitService;
 import app.service.LogService;
 import app.service.MergeService;
@@ -38,7 +45,8 @@ public final class Appconfig {
     public GitController gitController() {
         return new GitController(initService(), addService(), commitService(), statusService(), logService(),
                 branchService(), checkoutService(), mergeService(), pushService(), pullService(), cloneService(),
-                httpPushService(), httpPullService(), outputView());
+                httpPushService(), httpPullService(), gcService(), configService(), fileWatchService(),
+                diffService(), outputView());
     }
 
     private InitService initService() {
@@ -47,8 +55,9 @@ public final class Appconfig {
 
     private AddService addService() {
         IndexRepository indexRepository = new FileIndexRepository(rootDirectoryPath);
-        ObjectWriter objectWriter = new FileObjectWriter(rootDirectoryPath);
-        return new AddService(objectWriter, indexRepository, rootDirectoryPath);
+        ConfigRepository configRepository = new FileConfigRepository(rootDirectoryPath);
+        ObjectWriter objectWriter = new FileObjectWriter(rootDirectoryPath, configRepository);
+        return new AddService(objectWriter, indexRepository, configRepository, rootDirectoryPath);
     }
 
     private CommitService commitService() {
@@ -62,7 +71,8 @@ public final class Appconfig {
         IndexRepository indexRepository = new FileIndexRepository(rootDirectoryPath);
         RefRepository refRepository = new FileRefRepository(rootDirectoryPath);
         ObjectReader objectReader = new FileObjectReader(rootDirectoryPath);
-        return new StatusService(indexRepository, refRepository, objectReader, rootDirectoryPath);
+        ConfigRepository configRepository = new FileConfigRepository(rootDirectoryPath);
+        return new StatusService(indexRepository, refRepository, objectReader, configRepository, rootDirectoryPath);
     }
 
     private LogService logService() {
@@ -82,13 +92,19 @@ public final class Appconfig {
 
     private CheckoutService checkoutService() {
         RefRepository refRepository = new FileRefRepository(rootDirectoryPath);
-        return new CheckoutService(refRepository, statusService());
+        ObjectReader objectReader = new FileObjectReader(rootDirectoryPath);
+        IndexRepository indexRepository = new FileIndexRepository(rootDirectoryPath);
+        ConfigRepository configRepository = new FileConfigRepository(rootDirectoryPath);
+        return new CheckoutService(refRepository, statusService(), objectReader, indexRepository, configRepository,
+                rootDirectoryPath);
     }
 
     private MergeService mergeService() {
         RefRepository refRepository = new FileRefRepository(rootDirectoryPath);
         ObjectReader objectReader = new FileObjectReader(rootDirectoryPath);
-        return new MergeService(refRepository, objectReader);
+        ObjectWriter objectWriter = new FileObjectWriter(rootDirectoryPath);
+        return new MergeService(refRepository, objectReader, objectWriter, checkoutService(),
+                new CommitGraph(objectReader, rootDirectoryPath));
     }
 
     private PushService pushService() {
@@ -113,6 +129,30 @@ public final class Appconfig {
         return new HttpPushService(refRepository, objectReader, rootDirectoryPath);
     }
 
+    private GcService gcService() {
+        ObjectReader objectReader = new FileObjectReader(rootDirectoryPath);
+        RefRepository refRepository = new FileRefRepository(rootDirectoryPath);
+        return new GcService(objectReader, refRepository, rootDirectoryPath);
+    }
+
+    private ConfigService configService() {
+        ConfigRepository configRepository = new FileConfigRepository(rootDirectoryPath);
+        return new ConfigService(configRepository);
+    }
+
+    private FileWatchService fileWatchService() {
+        return new FileWatchService(rootDirectoryPath);
+    }
+
+    private DiffService diffService() {
+        IndexRepository indexRepository = new FileIndexRepository(rootDirectoryPath);
+        RefRepository refRepository = new FileRefRepository(rootDirectoryPath);
+        ObjectReader objectReader = new FileObjectReader(rootDirectoryPath);
+        ConfigRepository configRepository = new FileConfigRepository(rootDirectoryPath);
+        return new DiffService(statusService(), indexRepository, refRepository, objectReader, configRepository,
+                rootDirectoryPath);
+    }
+
     private HttpPullService httpPullService() {
         RefRepository refRepository = new FileRefRepository(rootDirectoryPath);
         ObjectReader objectReader = new FileObjectReader(rootDirectoryPath);
@@ -5,6 +5,9 @@ import app.controller.command.handlers.BranchCmd;
 import app.controller.command.handlers.CheckoutCmd;
 import app.controller.command.handlers.CloneFsCmd;
 import app.controller.command.handlers.CommitCmd;
+import app.controller.command.handlers.ConfigCmd;
+import app.controller.command.handlers.DiffCmd;
+import app.controller.command.handlers.GcCmd;
 import app.controller.command.handlers.InitCmd;
 import app.controller.command.handlers.LogCmd;
 import app.controller.command.handlers.MergeCmd;
@@ -13,11 +16,17 @@ import app.controller.command.handlers.PullHttpCmd;
 import app.controller.command.handlers.PushFsCmd;
 import app.controller.command.handlers.PushHttpCmd;
 import app.controller.command.handlers.ServeHttpCmd;
+import app.controller.command.handlers.SparseCheckoutCmd;
 import app.controller.command.handlers.StatusCmd;
+import app.controller.command.handlers.WatchCmd;
 import app.service.AddService;
 import app.service.BranchService;
 import app.service.CheckoutService;
 import app.service.CommitService;
+import app.service.ConfigService;
+import app.service.DiffService;
+import app.service.FileWatchService;
+import app.service.GcService;
 import app.service.InitService;
 import app.service.LogService;
 import app.service.MergeService;
@@ -56,6 +65,10 @@ public final class GitController {
     private final CloneService cloneService;
     private final HttpPushService httpPushService;
     private final HttpPullService httpPullService;
+    private final GcService gcService;
+    private final ConfigService configService;
+    private final FileWatchService fileWatchService;
+    private final DiffService diffService;
 
     private final InitCmd initCmd;
     private final AddCmd addCmd;
@@ -71,12 +84,18 @@ public final class GitController {
     private final ServeHttpCmd serveHttpCmd;
     private final PushHttpCmd pushHttpCmd;
     private final PullHttpCmd pullHttpCmd;
+    private final GcCmd gcCmd;
+    private final ConfigCmd configCmd;
+    private final WatchCmd watchCmd;
+    private final DiffCmd diffCmd;
+    private final SparseCheckoutCmd sparseCheckoutCmd;
 
     public GitController(InitService initService, AddService addService, CommitService commitService,
                          StatusService statusService, LogService logService, BranchService branchService,
                          CheckoutService checkoutService, MergeService mergeService, PushService pushService,
                          PullService pullService, CloneService cloneService, HttpPushService httpPushService,
-                         HttpPullService httpPullService, OutputView outputView) {
+                         HttpPullService httpPullService, GcService gcService, ConfigService configService,
+                         FileWatchService fileWatchService, DiffService diffService, OutputView outputView) {
         this.initService = Objects.requireNonNull(initService, "initService");
         this.addService = Objects.requireNonNull(addService, "addService");
         this.commitService = Objects.requireNonNull(commitService, "commitService");
@@ -90,6 +109,10 @@ public final class GitController {
         this.cloneService = Objects.requireNonNull(cloneService, "cloneService");
         this.httpPushService = Objects.requireNonNull(httpPushService, "httpPushService");
         this.httpPullService = Objects.requireNonNull(httpPullService, "httpPullService");
+        this.gcService = Objects.requireNonNull(gcService, "gcService");
+        this.configService = Objects.requireNonNull(configService, "configService");
+        this.fileWatchService = Objects.requireNonNull(fileWatchService, "fileWatchService");
+        this.diffService = Objects.requireNonNull(diffService, "diffService");
         this.outputView = Objects.requireNonNull(outputView, "outputView");
 
         this.initCmd = new InitCmd(initService, outputView);
@@ -106,6 +129,11 @@ public final class GitController {
         this.serveHttpCmd = new ServeHttpCmd(outputView);
         this.pushHttpCmd = new PushHttpCmd(httpPushService, outputView);
         this.pullHttpCmd = new PullHttpCmd(httpPullService, outputView);
+        this.gcCmd = new GcCmd(gcService, outputView);
+        this.configCmd = new ConfigCmd(configService, outputView);
+        this.watchCmd = new WatchCmd(fileWatchService, outputView);
+        this.diffCmd = new DiffCmd(diffService, outputView);
+        this.sparseCheckoutCmd = new SparseCheckoutCmd(checkoutService, outputView);
     }
 
     private static boolean equalsIgnoreCaseAny(String input, String a, String b) {
@@ -198,6 +226,11 @@ public final class GitController {
             case "serve-http" -> serveHttpCmd.execute(args);
             case "push-http" -> pushHttpCmd.execute(args);
             case "pull-http" -> pullHttpCmd.execute(args);
+            case "gc" -> gcCmd.execute(args);
+            case "config" -> configCmd.execute(args);
+            case "watch" -> watchCmd.execute(args);
+            case "diff" -> diffCmd.execute(args);
+            case "sparse-checkout" -> sparseCheckoutCmd.execute(args);
             default -> showUsage();
         }
     }
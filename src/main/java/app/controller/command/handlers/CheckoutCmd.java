@@ -34,6 +34,10 @@ public final class CheckoutCmd {
         }
         if (result == CheckoutService.CheckoutResult.WORKING_TREE_NOT_CLEAN) {
             outputView.showCheckoutDirty();
+            return;
+        }
+        if (result == CheckoutService.CheckoutResult.UNTRACKED_WOULD_BE_OVERWRITTEN) {
+            outputView.showCheckoutUntrackedOverwritten();
         }
     }
 }
@@ -0,0 +1,39 @@
+package app.controller.command.handlers;
+
+import app.service.ConfigService;
+import app.view.OutputView;
+import java.util.Objects;
+
+public final class ConfigCmd {
+    private static final int GET_ARGUMENTS = 2;
+    private static final int SET_ARGUMENTS = 3;
+    private static final int KEY_INDEX = 1;
+    private static final int VALUE_INDEX = 2;
+
+    private final ConfigService configService;
+    private final OutputView outputView;
+
+    public ConfigCmd(ConfigService configService, OutputView outputView) {
+        this.configService = Objects.requireNonNull(configService);
+        this.outputView = Objects.requireNonNull(outputView);
+    }
+
+    public void execute(String[] args) {
+        if (args.length == GET_ARGUMENTS) {
+            String key = args[KEY_INDEX];
+            String value = configService.get(key);
+            if (value == null) {
+                outputView.showConfigNotFound(key);
+                return;
+            }
+            outputView.showConfigValue(value);
+            return;
+        }
+        if (args.length == SET_ARGUMENTS) {
+            configService.set(args[KEY_INDEX], args[VALUE_INDEX]);
+            outputView.showConfigUpdated(args[KEY_INDEX]);
+            return;
+        }
+        outputView.showConfigUsage();
+    }
+}
@@ -0,0 +1,70 @@
+package app.controller.command.handlers;
+
+import app.service.DiffService;
+import app.service.diff.DiffAlgorithm;
+import app.service.diff.FileDiff;
+import app.view.OutputView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class DiffCmd {
+    private static final String CACHED_OPTION = "--cached";
+    private static final String STAGED_OPTION = "--staged";
+    private static final String STAT_OPTION = "--stat";
+    private static final String HISTOGRAM_OPTION = "--histogram";
+    private static final String MYERS_OPTION = "--myers";
+    private static final String FIND_RENAMES_OPTION = "--find-renames";
+    private static final String FIND_RENAMES_SHORT_OPTION = "-M";
+    private static final String OPTION_PREFIX = "-";
+    private static final int REVISION_COUNT = 2;
+
+    private final DiffService diffService;
+    private final OutputView outputView;
+
+    public DiffCmd(DiffService diffService, OutputView outputView) {
+        this.diffService = Objects.requireNonNull(diffService);
+        this.outputView = Objects.requireNonNull(outputView);
+    }
+
+    public void execute(String[] args) {
+        boolean cached = false;
+        boolean stat = false;
+        boolean findRenames = false;
+        DiffAlgorithm algorithm = null;
+        List<String> revisions = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case CACHED_OPTION, STAGED_OPTION -> cached = true;
+                case STAT_OPTION -> stat = true;
+                case HISTOGRAM_OPTION -> algorithm = DiffAlgorithm.HISTOGRAM;
+                case MYERS_OPTION -> algorithm = DiffAlgorithm.MYERS;
+                case FIND_RENAMES_OPTION, FIND_RENAMES_SHORT_OPTION -> findRenames = true;
+                default -> {
+                    if (args[i].startsWith(OPTION_PREFIX)) {
+                        outputView.showDiffUsage();
+                        return;
+                    }
+                    revisions.add(args[i]);
+                }
+            }
+        }
+        if (!revisions.isEmpty() && (cached || revisions.size() != REVISION_COUNT)) {
+            outputView.showDiffUsage();
+            return;
+        }
+        List<FileDiff> diffs;
+        if (!revisions.isEmpty()) {
+            diffs = diffService.diffCommits(revisions.get(0), revisions.get(1), algorithm, findRenames);
+        } else if (cached) {
+            diffs = diffService.diffCached(algorithm, findRenames);
+        } else {
+            diffs = diffService.diffWorkingTree(algorithm);
+        }
+        if (stat) {
+            outputView.showDiffStat(diffs);
+            return;
+        }
+        outputView.showDiff(diffs);
+    }
+}
@@ -0,0 +1,20 @@
+package app.controller.command.handlers;
+
+import app.service.GcService;
+import app.view.OutputView;
+import java.util.Objects;
+
+public final class GcCmd {
+    private final GcService gcService;
+    private final OutputView outputView;
+
+    public GcCmd(GcService gcService, OutputView outputView) {
+        this.gcService = Objects.requireNonNull(gcService);
+        this.outputView = Objects.requireNonNull(outputView);
+    }
+
+    public void execute(String[] args) {
+        int packedCount = gcService.gc();
+        outputView.showGcPacked(packedCount);
+    }
+}
@@ -1,12 +1,15 @@
 package app.controller.command.handlers;
 
 import app.service.MergeService;
+import app.util.CommandLineParser;
 import app.view.OutputView;
 import java.util.Objects;
 
 public final class MergeCmd {
     private static final int EXPECTED_ARGUMENTS = 2;
+    private static final int EXPECTED_ARGUMENTS_WITH_AUTHOR = 4;
     private static final int TARGET_BRANCH_INDEX = 1;
+    private static final String AUTHOR_OPTION = "-a";
 
     private final MergeService mergeService;
     private final OutputView outputView;
@@ -17,12 +20,17 @@ public final class MergeCmd {
     }
 
     public void execute(String[] args) {
-        if (args.length != EXPECTED_ARGUMENTS) {
+        String author = CommandLineParser.findOptionValue(args, AUTHOR_OPTION);
+        boolean validArguments = args.length == EXPECTED_ARGUMENTS
+                || (args.length == EXPECTED_ARGUMENTS_WITH_AUTHOR && author != null
+                && !AUTHOR_OPTION.equals(args[TARGET_BRANCH_INDEX]));
+        if (!validArguments) {
             outputView.showMergeUsage();
             return;
         }
         String targetBranch = args[TARGET_BRANCH_INDEX];
-        MergeService.MergeResult result = mergeService.merge(targetBranch);
+        MergeService.MergeOutcome outcome = mergeService.merge(targetBranch, author);
+        MergeService.MergeResult result = outcome.result();
 
         if (result == MergeService.MergeResult.ALREADY_UP_TO_DATE) {
             outputView.showMergeAlreadyUpToDate();
@@ -32,12 +40,32 @@ public final class MergeCmd {
             outputView.showMergeFastForward(targetBranch);
             return;
         }
+        if (result == MergeService.MergeResult.MERGED) {
+            outputView.showMergeMerged(targetBranch);
+            return;
+        }
         if (result == MergeService.MergeResult.BRANCH_NOT_FOUND) {
             outputView.showMergeBranchNotFound(targetBranch);
             return;
         }
         if (result == MergeService.MergeResult.NOT_FAST_FORWARD) {
             outputView.showMergeNotFastForward();
+            return;
+        }
+        if (result == MergeService.MergeResult.NO_MERGE_BASE) {
+            outputView.showMergeNoMergeBase(targetBranch);
+            return;
+        }
+        if (result == MergeService.MergeResult.CONFLICT) {
+            outputView.showMergeConflict(outcome.conflicts());
+            return;
+        }
+        if (result == MergeService.MergeResult.WORKING_TREE_NOT_CLEAN) {
+            outputView.showMergeDirty();
+            return;
+        }
+        if (result == MergeService.MergeResult.UNTRACKED_WOULD_BE_OVERWRITTEN) {
+            outputView.showMergeUntrackedOverwritten();
         }
     }
 }
@@ -0,0 +1,50 @@
+package app.controller.command.handlers;
+
+import app.repository.sparse.SparseCheckout;
+import app.service.CheckoutService;
+import app.view.OutputView;
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class SparseCheckoutCmd {
+    private static final int SUBCOMMAND_INDEX = 1;
+    private static final int DIRECTORIES_INDEX = 2;
+
+    private final CheckoutService checkoutService;
+    private final OutputView outputView;
+
+    public SparseCheckoutCmd(CheckoutService checkoutService, OutputView outputView) {
+        this.checkoutService = Objects.requireNonNull(checkoutService);
+        this.outputView = Objects.requireNonNull(outputView);
+    }
+
+    public void execute(String[] args) {
+        if (args.length <= SUBCOMMAND_INDEX) {
+            outputView.showSparseCheckoutUsage();
+            return;
+        }
+        String subcommand = args[SUBCOMMAND_INDEX];
+        if ("list".equals(subcommand) && args.length == DIRECTORIES_INDEX) {
+            outputView.showSparseCheckoutDirectories(checkoutService.sparseCheckoutDirectories());
+            return;
+        }
+        if ("set".equals(subcommand)) {
+            apply(SparseCheckout.cone(Arrays.asList(args).subList(DIRECTORIES_INDEX, args.length)));
+            return;
+        }
+        if ("disable".equals(subcommand) && args.length == DIRECTORIES_INDEX) {
+            apply(SparseCheckout.ALL);
+            return;
+        }
+        outputView.showSparseCheckoutUsage();
+    }
+
+    private void apply(SparseCheckout sparseCheckout) {
+        CheckoutService.CheckoutResult result = checkoutService.applySparseCheckout(sparseCheckout);
+        if (result == CheckoutService.CheckoutResult.WORKING_TREE_NOT_CLEAN) {
+            outputView.showCheckoutDirty();
+            return;
+        }
+        outputView.showSparseCheckoutUpdated(sparseCheckout.directories().size());
+    }
+}
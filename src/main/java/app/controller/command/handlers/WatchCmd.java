@@ -0,0 +1,19 @@
+package app.controller.command.handlers;
+
+import app.service.FileWatchService;
+import app.view.OutputView;
+import java.util.Objects;
+
+public final class WatchCmd {
+    private final FileWatchService fileWatchService;
+    private final OutputView outputView;
+
+    public WatchCmd(FileWatchService fileWatchService, OutputView outputView) {
+        this.fileWatchService = Objects.requireNonNull(fileWatchService);
+        this.outputView = Objects.requireNonNull(outputView);
+    }
+
+    public void execute(String[] args) {
+        fileWatchService.watch(outputView::showWatchStarted);
+    }
+}
@@ -0,0 +1,32 @@
+package app.domain;
+
+import java.util.List;
+import java.util.Objects;
+
+public final class CachedDirectory {
+    private final FileStat stat;
+    private final List<String> files;
+    private final List<String> directories;
+
+    public CachedDirectory(FileStat stat, List<String> files, List<String> directories) {
+        this.stat = Objects.requireNonNull(stat, "stat");
+        this.files = List.copyOf(files);
+        this.directories = List.copyOf(directories);
+    }
+
+    public boolean isFresh(FileStat current) {
+        return stat.matches(current);
+    }
+
+    public FileStat stat() {
+        return stat;
+    }
+
+    public List<String> files() {
+        return files;
+    }
+
+    public List<String> directories() {
+        return directories;
+    }
+}
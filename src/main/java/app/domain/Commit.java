@@ -1,19 +1,24 @@
 package app.domain;
 
 import app.exception.ErrorCode;
+import java.util.List;
 
 public final class Commit {
     private final String message;
     private final String treeOid;
-    private final String parentOid;
+    private final List<String> parentOids;
     private final String author;
     private final long createdAtMillis;
 
     public Commit(String message, String treeOid, String parentOid, String author) {
+        this(message, treeOid, parentOid == null ? List.of() : List.of(parentOid), author);
+    }
+
+    public Commit(String message, String treeOid, List<String> parentOids, String author) {
         validate(message, treeOid, author);
         this.message = message;
         this.treeOid = treeOid;
-        this.parentOid = parentOid;
+        this.parentOids = List.copyOf(parentOids);
         this.author = author;
         this.createdAtMillis = System.currentTimeMillis();
     }
@@ -57,7 +62,11 @@ public final class Commit {
     }
 
     public String parentOid() {
-        return parentOid;
+        return parentOids.isEmpty() ? null : parentOids.get(0);
+    }
+
+    public List<String> parentOids() {
+        return parentOids;
     }
 
     public String author() {
@@ -0,0 +1,41 @@
+package app.domain;
+
+public final class FileStat {
+    private final long modifiedTimeMillis;
+    private final long changedTimeMillis;
+    private final long size;
+    private final long fileKey;
+
+    public FileStat(long modifiedTimeMillis, long changedTimeMillis, long size, long fileKey) {
+        this.modifiedTimeMillis = modifiedTimeMillis;
+        this.changedTimeMillis = changedTimeMillis;
+        this.size = size;
+        this.fileKey = fileKey;
+    }
+
+    public boolean matches(FileStat other) {
+        if (other == null) {
+            return false;
+        }
+        return modifiedTimeMillis == other.modifiedTimeMillis
+                && changedTimeMillis == other.changedTimeMillis
+                && size == other.size
+                && fileKey == other.fileKey;
+    }
+
+    public long modifiedTimeMillis() {
+        return modifiedTimeMillis;
+    }
+
+    public long changedTimeMillis() {
+        return changedTimeMillis;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long fileKey() {
+        return fileKey;
+    }
+}
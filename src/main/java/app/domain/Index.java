@@ -3,15 +3,36 @@ package app.domain;
 import app.exception.ErrorCode;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public final class Index {
     private final Map<String, String> stagedFiles;
+    private final Map<String, FileStat> fileStats;
+    private final Map<String, String> cachedTrees;
+    private final Map<String, CachedDirectory> untrackedCache;
 
     public Index(Map<String, String> stagedFiles) {
+        this(stagedFiles, Map.of());
+    }
+
+    public Index(Map<String, String> stagedFiles, Map<String, FileStat> fileStats) {
+        this(stagedFiles, fileStats, Map.of());
+    }
+
+    public Index(Map<String, String> stagedFiles, Map<String, FileStat> fileStats, Map<String, String> cachedTrees) {
+        this(stagedFiles, fileStats, cachedTrees, Map.of());
+    }
+
+    public Index(Map<String, String> stagedFiles, Map<String, FileStat> fileStats, Map<String, String> cachedTrees,
+                 Map<String, CachedDirectory> untrackedCache) {
         validate(stagedFiles);
+        this.untrackedCache = copyUntrackedCache(untrackedCache);
         if (stagedFiles.isEmpty()) {
             this.stagedFiles = Collections.emptyMap();
+            this.fileStats = Collections.emptyMap();
+            this.cachedTrees = Collections.emptyMap();
             return;
         }
         Map<String, String> copy = new HashMap<>();
@@ -22,6 +43,64 @@ public final class Index {
             copy.put(path, objectId);
         }
         this.stagedFiles = Collections.unmodifiableMap(copy);
+        this.fileStats = copyFileStats(fileStats, copy);
+        this.cachedTrees = copyCachedTrees(cachedTrees);
+    }
+
+    private Index(ValidatedEntries validated) {
+        this.stagedFiles = validated.stagedFiles();
+        this.fileStats = validated.fileStats();
+        this.cachedTrees = validated.cachedTrees();
+        this.untrackedCache = validated.untrackedCache();
+    }
+
+    public static Index ofReadOnly(Map<String, String> stagedFiles, Map<String, FileStat> fileStats,
+                                   Map<String, String> cachedTrees, Map<String, CachedDirectory> untrackedCache) {
+        if (stagedFiles == null) {
+            throw new IllegalArgumentException(ErrorCode.INDEX_STAGED_FILES_NULL.message());
+        }
+        return new Index(new ValidatedEntries(stagedFiles, fileStats == null ? Map.of() : fileStats,
+                cachedTrees == null ? Map.of() : cachedTrees,
+                untrackedCache == null ? Map.of() : untrackedCache));
+    }
+
+    private Map<String, FileStat> copyFileStats(Map<String, FileStat> fileStats, Map<String, String> stagedFiles) {
+        if (fileStats == null || fileStats.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, FileStat> copy = new HashMap<>();
+        for (Map.Entry<String, FileStat> fileStat : fileStats.entrySet()) {
+            if (fileStat.getValue() != null && stagedFiles.containsKey(fileStat.getKey())) {
+                copy.put(fileStat.getKey(), fileStat.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private Map<String, String> copyCachedTrees(Map<String, String> cachedTrees) {
+        if (cachedTrees == null || cachedTrees.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> copy = new HashMap<>();
+        for (Map.Entry<String, String> cachedTree : cachedTrees.entrySet()) {
+            if (cachedTree.getKey() != null && cachedTree.getValue() != null) {
+                copy.put(cachedTree.getKey(), cachedTree.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private Map<String, CachedDirectory> copyUntrackedCache(Map<String, CachedDirectory> untrackedCache) {
+        if (untrackedCache == null || untrackedCache.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, CachedDirectory> copy = new HashMap<>();
+        for (Map.Entry<String, CachedDirectory> cachedDirectory : untrackedCache.entrySet()) {
+            if (cachedDirectory.getKey() != null && cachedDirectory.getValue() != null) {
+                copy.put(cachedDirectory.getKey(), cachedDirectory.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(copy);
     }
 
     private void validate(Map<String, String> stagedFiles) {
@@ -46,4 +125,35 @@ public final class Index {
     public Map<String, String> stagedFiles() {
         return stagedFiles;
     }
+
+    public Map<String, FileStat> fileStats() {
+        return fileStats;
+    }
+
+    public FileStat fileStat(String path) {
+        return fileStats.get(path);
+    }
+
+    public Map<String, String> cachedTrees() {
+        return cachedTrees;
+    }
+
+    public Map<String, CachedDirectory> untrackedCache() {
+        return untrackedCache;
+    }
+
+    public Set<String> trackedDirectories() {
+        Set<String> directories = new HashSet<>();
+        for (String path : stagedFiles.keySet()) {
+            int separator = path.lastIndexOf('/');
+            while (separator > 0 && directories.add(path.substring(0, separator))) {
+                separator = path.lastIndexOf('/', separator - 1);
+            }
+        }
+        return directories;
+    }
+
+    private record ValidatedEntries(Map<String, String> stagedFiles, Map<String, FileStat> fileStats,
+                                    Map<String, String> cachedTrees, Map<String, CachedDirectory> untrackedCache) {
+    }
 }
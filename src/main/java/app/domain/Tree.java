@@ -7,12 +7,22 @@ import java.util.Map;
 
 public final class Tree {
     private final Map<String, String> entries;
+    private final Map<String, String> subtrees;
 
     public Tree(Map<String, String> entries) {
+        this(entries, Map.of());
+    }
+
+    public Tree(Map<String, String> entries, Map<String, String> subtrees) {
         validate(entries);
+        validate(subtrees);
+        this.entries = copy(entries);
+        this.subtrees = copy(subtrees);
+    }
+
+    private Map<String, String> copy(Map<String, String> entries) {
         if (entries.isEmpty()) {
-            this.entries = Collections.emptyMap();
-            return;
+            return Collections.emptyMap();
         }
         Map<String, String> copy = new HashMap<>();
         for (Map.Entry<String, String> entry : entries.entrySet()) {
@@ -21,7 +31,7 @@ public final class Tree {
             checkEntry(path, objectId);
             copy.put(path, objectId);
         }
-        this.entries = Collections.unmodifiableMap(copy);
+        return Collections.unmodifiableMap(copy);
     }
 
     private void validate(Map<String, String> entries) {
@@ -42,4 +52,8 @@ public final class Tree {
     public Map<String, String> entries() {
         return entries;
     }
+
+    public Map<String, String> subtrees() {
+        return subtrees;
+    }
 }
@@ -0,0 +1,54 @@
+package app.domain;
+
+import app.exception.ErrorCode;
+
+public final class TreeEntry implements Comparable<TreeEntry> {
+    private static final char TREE_TERMINATOR = '/';
+
+    private final String name;
+    private final String objectId;
+    private final boolean tree;
+
+    public TreeEntry(String name, String objectId, boolean tree) {
+        if (name == null) {
+            throw new IllegalArgumentException(ErrorCode.TREE_ENTRY_PATH_NULL.message());
+        }
+        if (objectId == null) {
+            throw new IllegalArgumentException(ErrorCode.TREE_ENTRY_OID_NULL.message());
+        }
+        this.name = name;
+        this.objectId = objectId;
+        this.tree = tree;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String objectId() {
+        return objectId;
+    }
+
+    public boolean isTree() {
+        return tree;
+    }
+
+    @Override
+    public int compareTo(TreeEntry other) {
+        int length = Math.min(name.length(), other.name.length());
+        for (int i = 0; i < length; i++) {
+            int order = name.charAt(i) - other.name.charAt(i);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return charAfter(length) - other.charAfter(length);
+    }
+
+    private int charAfter(int index) {
+        if (index < name.length()) {
+            return name.charAt(index);
+        }
+        return index == name.length() && tree ? TREE_TERMINATOR : 0;
+    }
+}
@@ -16,6 +16,7 @@ public enum ErrorCode {
     INDEX_FILE_NOT_FOUND("[ERROR] Index 파일을 찾을 수 없습니다."),
     INDEX_FILE_READ_FAILED("[ERROR] Index 파일 읽기에 실패했습니다."),
     INDEX_FILE_WRITE_FAILED("[ERROR] Index 파일 쓰기에 실패했습니다."),
+    MALFORMED_INDEX_FILE("[ERROR] 손상되었거나 잘못된 Index 파일 포맷입니다."),
     OBJECT_DIRECTORY_CREATE_FAILED("[ERROR] 객체 디렉토리 생성에 실패했습니다."),
     OBJECT_FILE_WRITE_FAILED("[ERROR] 객체 파일 쓰기에 실패했습니다."),
     REPOSITORY_INIT_FAILED("[ERROR] 저장소 초기화에 실패했습니다."),
@@ -31,7 +32,25 @@ public enum ErrorCode {
     HEAD_REF_NULL("[ERROR] HEAD 참조는 null일 수 없습니다."),
     HEAD_REF_EMPTY("[ERROR] HEAD 참조는 비어있을 수 없습니다."),
     MALFORMED_TREE_OBJECT("[ERROR] 손상되었거나 잘못된 Tree 객체 포맷입니다."),
-    MALFORMED_COMMIT_OBJECT("[ERROR] 손상되었거나 잘못된 Commit 객체 포맷입니다.");
+    MALFORMED_COMMIT_OBJECT("[ERROR] 손상되었거나 잘못된 Commit 객체 포맷입니다."),
+    MALFORMED_PACK_FILE("[ERROR] 손상되었거나 잘못된 pack 파일 포맷입니다."),
+    MALFORMED_PACK_INDEX("[ERROR] 손상되었거나 잘못된 pack 인덱스 포맷입니다."),
+    MALFORMED_PACK_DELTA("[ERROR] 손상되었거나 잘못된 pack delta 포맷입니다."),
+    PACK_DELTA_CHAIN_TOO_DEEP("[ERROR] pack delta 체인이 허용 깊이를 초과했습니다."),
+    PACK_OBJECT_TOO_LARGE("[ERROR] pack 객체 크기가 허용 한도를 초과했습니다."),
+    PACK_READ_FAILED("[ERROR] pack 파일 읽기에 실패했습니다."),
+    PACK_WRITE_FAILED("[ERROR] pack 파일 쓰기에 실패했습니다."),
+    MALFORMED_COMMIT_GRAPH("[ERROR] 손상되었거나 잘못된 commit-graph 파일 포맷입니다."),
+    COMMIT_GRAPH_READ_FAILED("[ERROR] commit-graph 파일 읽기에 실패했습니다."),
+    COMMIT_GRAPH_WRITE_FAILED("[ERROR] commit-graph 파일 쓰기에 실패했습니다."),
+    FETCHED_OBJECT_MISMATCH("[ERROR] 원격에서 받은 객체의 내용이 OID와 일치하지 않습니다."),
+    CONFIG_READ_FAILED("[ERROR] 설정 파일 읽기에 실패했습니다."),
+    CONFIG_WRITE_FAILED("[ERROR] 설정 파일 쓰기에 실패했습니다."),
+    CONFIG_KEY_EMPTY("[ERROR] 설정 키는 비어있을 수 없습니다."),
+    WATCHER_ALREADY_RUNNING("[ERROR] 이 저장소를 감시하는 watcher 가 이미 실행 중입니다."),
+    WATCH_JOURNAL_WRITE_FAILED("[ERROR] 변경 저널 쓰기에 실패했습니다."),
+    WATCH_FAILED("[ERROR] 파일 시스템 감시에 실패했습니다."),
+    REVISION_NOT_FOUND("[ERROR] 존재하지 않는 브랜치 또는 커밋입니다.");
 
     private final String message;
 
@@ -1,6 +1,9 @@
 package app.remote;
 
 import app.exception.ErrorCode;
+import app.repository.FileObjectWriter;
+import app.repository.ObjectReader;
+import app.repository.ObjectWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitOption;
@@ -9,6 +12,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Objects;
 
@@ -71,10 +75,11 @@ public final class FileRemoteClient {
         }
     }
 
-    public void copyAllLocalObjectsToRemote(Path localRoot) {
-        Path localObjects = localRoot.resolve(DOT_JAVA_GIT).resolve(OBJECTS);
-        Path remoteObjects = remoteRoot.resolve(DOT_JAVA_GIT).resolve(OBJECTS);
-        copyAllFiles(localObjects, remoteObjects);
+    public void copyObjectsToRemote(Collection<String> objectIds, ObjectReader localObjectReader) {
+        ObjectWriter remoteObjectWriter = new FileObjectWriter(remoteRoot);
+        for (String objectId : objectIds) {
+            remoteObjectWriter.write(localObjectReader.readRaw(objectId));
+        }
     }
 
     public void copyAllRemoteObjectsToLocal(Path localRoot) {
@@ -1,20 +1,31 @@
 package app.remote.http;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 
 
 public final class HttpRemoteClient {
     private static final String CONTENT_TYPE_TEXT = "text/plain; charset=utf-8";
     private static final String CONTENT_TYPE_OCTET = "application/octet-stream";
+    private static final int OID_LENGTH = 20;
+    private static final int HAS_OBJECTS_BATCH_SIZE = 4096;
 
     private final HttpClient client;
     private final URI baseUri;
@@ -43,27 +54,35 @@ public final class HttpRemoteClient {
         }
     }
 
-    public java.util.Set<String> listObjects() {
-        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/objects"))
-                .header("Accept", CONTENT_TYPE_TEXT)
-                .GET()
+    public BitSet hasObjects(List<String> oids) {
+        BitSet existing = new BitSet(oids.size());
+        for (int start = 0; start < oids.size(); start += HAS_OBJECTS_BATCH_SIZE) {
+            List<String> batch = oids.subList(start, Math.min(oids.size(), start + HAS_OBJECTS_BATCH_SIZE));
+            BitSet found = hasObjectsBatch(batch);
+            for (int i = found.nextSetBit(0); i >= 0 && i < batch.size(); i = found.nextSetBit(i + 1)) {
+                existing.set(start + i);
+            }
+        }
+        return existing;
+    }
+
+    private BitSet hasObjectsBatch(List<String> oids) {
+        byte[] body = new byte[oids.size() * OID_LENGTH];
+        for (int i = 0; i < oids.size(); i++) {
+            System.arraycopy(HexFormat.of().parseHex(oids.get(i)), 0, body, i * OID_LENGTH, OID_LENGTH);
+        }
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/has-objects"))
+                .header("Content-Type", CONTENT_TYPE_OCTET)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
                 .build();
         try {
             HttpResponse<byte[]> res = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
             if (res.statusCode() != 200) {
-                return java.util.Set.of();
-            }
-            String text = new String(res.body(), StandardCharsets.UTF_8);
-            java.util.Set<String> set = new java.util.HashSet<>();
-            for (String line : text.split("\n")) {
-                String oid = line.trim();
-                if (!oid.isEmpty()) {
-                    set.add(oid);
-                }
+                throw new IllegalArgumentException("[ERROR] 원격 객체 존재 확인 실패");
             }
-            return java.util.Collections.unmodifiableSet(set);
+            return BitSet.valueOf(res.body());
         } catch (IOException | InterruptedException e) {
-            throw new IllegalArgumentException("[ERROR] 원격 objects 목록 조회 실패", e);
+            throw new IllegalArgumentException("[ERROR] 원격 객체 존재 확인 실패", e);
         }
     }
 
@@ -94,6 +113,48 @@ public final class HttpRemoteClient {
         }
     }
 
+    public boolean fetchObjects(Collection<String> wants, Collection<String> haves, BiConsumer<String, byte[]> sink) {
+        StringBuilder body = new StringBuilder();
+        for (String want : wants) {
+            body.append("want ").append(want).append('\n');
+        }
+        for (String have : haves) {
+            body.append("have ").append(have).append('\n');
+        }
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/fetch-pack"))
+                .header("Content-Type", CONTENT_TYPE_TEXT)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                .build();
+        try {
+            HttpResponse<InputStream> res = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream in = new BufferedInputStream(res.body())) {
+                if (res.statusCode() == 404) {
+                    return false;
+                }
+                if (res.statusCode() != 200) {
+                    throw new IllegalArgumentException("[ERROR] 원격 객체 협상 실패");
+                }
+                int count = Integer.parseInt(readField(in, "objects "));
+                for (int i = 0; i < count; i++) {
+                    String header = readLine(in);
+                    int space = header.indexOf(' ');
+                    if (space <= 0) {
+                        throw new IllegalArgumentException("[ERROR] 원격 객체 협상 실패");
+                    }
+                    int length = Integer.parseInt(header.substring(space + 1));
+                    byte[] bytes = in.readNBytes(length);
+                    if (bytes.length != length) {
+                        throw new IllegalArgumentException("[ERROR] 원격 객체 협상 실패");
+                    }
+                    sink.accept(header.substring(0, space), bytes);
+                }
+                return true;
+            }
+        } catch (IOException | InterruptedException | NumberFormatException e) {
+            throw new IllegalArgumentException("[ERROR] 원격 객체 협상 실패", e);
+        }
+    }
+
     public void putObject(String oid, byte[] bytes) {
         HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/objects/" + oid))
                 .header("Content-Type", CONTENT_TYPE_OCTET)
@@ -109,6 +170,25 @@ public final class HttpRemoteClient {
         }
     }
 
+    public boolean sendPack(Path packFilePath) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/receive-pack"))
+                    .header("Content-Type", CONTENT_TYPE_OCTET)
+                    .POST(HttpRequest.BodyPublishers.ofFile(packFilePath))
+                    .build();
+            HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (res.statusCode() == 404) {
+                return false;
+            }
+            if (res.statusCode() != 200) {
+                throw new IllegalArgumentException("[ERROR] 원격 pack 업로드 실패");
+            }
+            return true;
+        } catch (IOException | InterruptedException e) {
+            throw new IllegalArgumentException("[ERROR] 원격 pack 업로드 실패", e);
+        }
+    }
+
     public void updateRef(String branch, String oldSha, String newSha) {
         String body = "branch " + branch + "\nold " + (oldSha == null ? "" : oldSha) + "\nnew " + newSha + "\n";
         HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/update-ref"))
@@ -129,6 +209,26 @@ public final class HttpRemoteClient {
         }
     }
 
+    private String readField(InputStream in, String prefix) throws IOException {
+        String line = readLine(in);
+        if (!line.startsWith(prefix)) {
+            throw new IllegalArgumentException("[ERROR] 원격 객체 협상 실패");
+        }
+        return line.substring(prefix.length());
+    }
+
+    private String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new IllegalArgumentException("[ERROR] 원격 객체 협상 실패");
+            }
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
     private Map<String, String> parseRefs(String text) {
         Map<String, String> map = new LinkedHashMap<>();
         if (text == null || text.isBlank()) {
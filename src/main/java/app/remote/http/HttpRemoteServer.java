@@ -1,25 +1,38 @@
 package app.remote.http;
 
 import app.exception.ErrorCode;
+import app.repository.ConfigRepository;
+import app.repository.FileConfigRepository;
 import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
 import app.repository.FileRefRepository;
 import app.repository.ObjectReader;
+import app.repository.ObjectStream;
+import app.repository.ObjectWriter;
 import app.repository.RefRepository;
+import app.repository.graph.CommitGraph;
+import app.repository.graph.ObjectWalk;
+import app.repository.pack.PackDirectory;
+import app.repository.pack.PackReceiver;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public final class HttpRemoteServer {
@@ -31,23 +44,46 @@ public final class HttpRemoteServer {
     private static final String CONTENT_TYPE_TEXT = "text/plain; charset=utf-8";
     private static final String CONTENT_TYPE_OCTET = "application/octet-stream";
 
+    private static final String EXECUTOR_KEY = "http.executor";
+    private static final String EXECUTOR_CACHED = "cached";
+    private static final String MAX_ACTIVE_REQUESTS_KEY = "http.maxActiveRequests";
+    private static final String MAX_QUEUED_REQUESTS_KEY = "http.maxQueuedRequests";
+    private static final String BACKLOG_KEY = "http.backlog";
+    private static final String MAX_OBJECT_SIZE_KEY = "receive.maxObjectSize";
+    private static final int DEFAULT_MAX_ACTIVE_REQUESTS = 64;
+    private static final int DEFAULT_MAX_QUEUED_REQUESTS = 8192;
+    private static final int DEFAULT_BACKLOG = 1024;
+
     private final Path root;
+    private final ConfigRepository configRepository;
     private HttpServer server;
+    private ExecutorService executor;
+    private RequestLimiter requestLimiter;
 
     public HttpRemoteServer(Path root) {
         this.root = Objects.requireNonNull(root, "root");
+        this.configRepository = new FileConfigRepository(root);
     }
 
     public void start(int port) {
         try {
-            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+            this.server = HttpServer.create(new InetSocketAddress(port),
+                    configRepository.getInt(BACKLOG_KEY, DEFAULT_BACKLOG));
         } catch (IOException e) {
             throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message(), e);
         }
-        this.server.createContext("/refs", new RefsHandler(root));
-        this.server.createContext("/objects", new ObjectsHandler(root));
-        this.server.createContext("/update-ref", new UpdateRefHandler(root));
-        this.server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        this.requestLimiter = new RequestLimiter(
+                configRepository.getInt(MAX_ACTIVE_REQUESTS_KEY, DEFAULT_MAX_ACTIVE_REQUESTS),
+                configRepository.getInt(MAX_QUEUED_REQUESTS_KEY, DEFAULT_MAX_QUEUED_REQUESTS));
+        createLimitedContext("/refs", new RefsHandler(root));
+        createLimitedContext("/objects", new ObjectsHandler(root));
+        createLimitedContext("/update-ref", new UpdateRefHandler(root));
+        createLimitedContext("/has-objects", new HasObjectsHandler(root));
+        createLimitedContext("/fetch-pack", new FetchPackHandler(root));
+        createLimitedContext("/receive-pack", new ReceivePackHandler(root));
+        this.server.createContext("/server-status", new ServerStatusHandler(requestLimiter));
+        this.executor = newExecutor();
+        this.server.setExecutor(executor);
         this.server.start();
     }
 
@@ -56,6 +92,50 @@ public final class HttpRemoteServer {
             return;
         }
         server.stop(0);
+        executor.shutdown();
+    }
+
+    public int activeRequests() {
+        return requestLimiter == null ? 0 : requestLimiter.activeRequests();
+    }
+
+    public int queuedRequests() {
+        return requestLimiter == null ? 0 : requestLimiter.queuedRequests();
+    }
+
+    private void createLimitedContext(String path, HttpHandler handler) {
+        server.createContext(path, handler).getFilters().add(requestLimiter);
+    }
+
+    private ExecutorService newExecutor() {
+        if (EXECUTOR_CACHED.equalsIgnoreCase(configRepository.get(EXECUTOR_KEY))) {
+            return Executors.newCachedThreadPool();
+        }
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    private static final class ServerStatusHandler implements HttpHandler {
+        private final RequestLimiter requestLimiter;
+
+        public ServerStatusHandler(RequestLimiter requestLimiter) {
+            this.requestLimiter = requestLimiter;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String status = "active " + requestLimiter.activeRequests() + "\n"
+                    + "queued " + requestLimiter.queuedRequests() + "\n";
+            byte[] body = status.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_TEXT);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
     }
 
     private static final class RefsHandler implements HttpHandler {
@@ -90,12 +170,12 @@ public final class HttpRemoteServer {
     }
 
     private static final class ObjectsHandler implements HttpHandler {
-        private final Path root;
         private final ObjectReader objectReader;
+        private final ObjectWriter objectWriter;
 
         public ObjectsHandler(Path root) {
-            this.root = root;
             this.objectReader = new FileObjectReader(root);
+            this.objectWriter = new FileObjectWriter(root);
         }
 
         @Override
@@ -103,12 +183,8 @@ public final class HttpRemoteServer {
             String method = exchange.getRequestMethod().toUpperCase();
             String path = exchange.getRequestURI().getPath();
             String[] parts = path.split("/");
-            if (parts.length == 2) {
-                if (!"GET".equals(method)) {
-                    exchange.sendResponseHeaders(405, -1);
-                    return;
-                }
-                handleList(exchange);
+            if (parts.length < 3) {
+                exchange.sendResponseHeaders(404, -1);
                 return;
             }
             String oid = parts[2];
@@ -127,35 +203,8 @@ public final class HttpRemoteServer {
             exchange.sendResponseHeaders(405, -1);
         }
 
-        private void handleList(HttpExchange exchange) throws IOException {
-            Path objs = root.resolve(DOT_JAVA_GIT).resolve(OBJECTS);
-            StringBuilder sb = new StringBuilder();
-            if (Files.exists(objs)) {
-                try (var dirs = Files.list(objs)) {
-                    dirs.filter(Files::isDirectory).forEach(dir -> {
-                        try (var files = Files.list(dir)) {
-                            files.filter(Files::isRegularFile).forEach(f -> {
-                                String prefix = dir.getFileName().toString();
-                                String suffix = f.getFileName().toString();
-                                sb.append(prefix).append(suffix).append('\n');
-                            });
-                        } catch (IOException ignored) {
-                        }
-                    });
-                }
-            }
-            byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
-            Headers hdr = exchange.getResponseHeaders();
-            hdr.set("Content-Type", CONTENT_TYPE_TEXT);
-            exchange.sendResponseHeaders(200, body.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(body);
-            }
-        }
-
         private void handleHead(HttpExchange exchange, String oid) throws IOException {
-            Path file = buildObjectPath(oid);
-            if (!Files.exists(file)) {
+            if (!objectReader.contains(oid)) {
                 exchange.sendResponseHeaders(404, -1);
                 return;
             }
@@ -163,16 +212,20 @@ public final class HttpRemoteServer {
         }
 
         private void handleGet(HttpExchange exchange, String oid) throws IOException {
+            ObjectStream object;
             try {
-                byte[] bytes = objectReader.readRaw(oid);
+                object = objectReader.openRawStream(oid);
+            } catch (IllegalArgumentException e) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            try (object) {
                 Headers hdr = exchange.getResponseHeaders();
                 hdr.set("Content-Type", CONTENT_TYPE_OCTET);
-                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.sendResponseHeaders(200, object.size() == 0 ? -1 : object.size());
                 try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(bytes);
+                    object.transferTo(os);
                 }
-            } catch (IllegalArgumentException e) {
-                exchange.sendResponseHeaders(404, -1);
             }
         }
 
@@ -183,23 +236,10 @@ public final class HttpRemoteServer {
                 exchange.sendResponseHeaders(400, -1);
                 return;
             }
-            Path file = buildObjectPath(oid);
-            Path parent = file.getParent();
-            if (parent != null) {
-                Files.createDirectories(parent);
-            }
-            if (!Files.exists(file)) {
-                Files.write(file, bytes);
-            }
+            objectWriter.write(bytes);
             exchange.sendResponseHeaders(200, -1);
         }
 
-        private Path buildObjectPath(String oid) {
-            String prefix = oid.substring(0, 2);
-            String suffix = oid.substring(2);
-            return root.resolve(DOT_JAVA_GIT).resolve(OBJECTS).resolve(prefix).resolve(suffix);
-        }
-
         private boolean oidEqualsContentHash(String oid, byte[] bytes) {
             try {
                 MessageDigest digest = MessageDigest.getInstance("SHA-1");
@@ -212,6 +252,126 @@ public final class HttpRemoteServer {
         }
     }
 
+    private static final class HasObjectsHandler implements HttpHandler {
+        private static final int OID_LENGTH = 20;
+
+        private final ObjectReader objectReader;
+
+        public HasObjectsHandler(Path root) {
+            this.objectReader = new FileObjectReader(root);
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] rawOids = exchange.getRequestBody().readAllBytes();
+            if (rawOids.length % OID_LENGTH != 0) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            int count = rawOids.length / OID_LENGTH;
+            BitSet existing = new BitSet(count);
+            for (int i = 0; i < count; i++) {
+                String oid = HexFormat.of().formatHex(rawOids, i * OID_LENGTH, (i + 1) * OID_LENGTH);
+                if (objectReader.contains(oid)) {
+                    existing.set(i);
+                }
+            }
+            byte[] body = existing.toByteArray();
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_OCTET);
+            exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private static final class FetchPackHandler implements HttpHandler {
+        private final ObjectReader objectReader;
+        private final Path root;
+
+        public FetchPackHandler(Path root) {
+            this.objectReader = new FileObjectReader(root);
+            this.root = root;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            List<String> wants = new ArrayList<>();
+            List<String> haves = new ArrayList<>();
+            for (String line : body.split("\n")) {
+                if (line.startsWith("want ")) {
+                    wants.add(line.substring("want ".length()).trim());
+                } else if (line.startsWith("have ")) {
+                    haves.add(line.substring("have ".length()).trim());
+                }
+            }
+            for (String want : wants) {
+                if (!objectReader.contains(want)) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+            }
+            ObjectWalk objectWalk = new ObjectWalk(objectReader, new CommitGraph(objectReader, root));
+            List<String> objectIds = objectWalk.missingObjects(wants, haves);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_OCTET);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = new BufferedOutputStream(exchange.getResponseBody())) {
+                os.write(("objects " + objectIds.size() + "\n").getBytes(StandardCharsets.UTF_8));
+                for (String oid : objectIds) {
+                    try (ObjectStream object = objectReader.openRawStream(oid)) {
+                        os.write((oid + " " + object.size() + "\n").getBytes(StandardCharsets.UTF_8));
+                        object.transferTo(os);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class ReceivePackHandler implements HttpHandler {
+        private final PackReceiver packReceiver;
+
+        public ReceivePackHandler(Path root) {
+            this.packReceiver = new PackReceiver(new PackDirectory(root).packDirectoryPath(),
+                    new FileConfigRepository(root).getInt(MAX_OBJECT_SIZE_KEY, PackReceiver.DEFAULT_MAX_OBJECT_SIZE));
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            try {
+                packReceiver.receive(exchange.getRequestBody(), contentLength(exchange));
+            } catch (IllegalArgumentException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, -1);
+        }
+
+        private long contentLength(HttpExchange exchange) {
+            String value = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (value == null) {
+                return -1L;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return -1L;
+            }
+        }
+    }
+
     private static final class UpdateRefHandler implements HttpHandler {
         private final RefRepository refRepository;
         private final ObjectReader objectReader;
@@ -0,0 +1,70 @@
+package app.remote.http;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class RequestLimiter extends Filter {
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final int maxQueuedRequests;
+    private final Semaphore permits;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+
+    RequestLimiter(int maxActiveRequests, int maxQueuedRequests) {
+        this.maxQueuedRequests = Math.max(0, maxQueuedRequests);
+        this.permits = new Semaphore(Math.max(1, maxActiveRequests), true);
+    }
+
+    int activeRequests() {
+        return activeRequests.get();
+    }
+
+    int queuedRequests() {
+        return queuedRequests.get();
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!admit()) {
+            exchange.getRequestBody().close();
+            exchange.sendResponseHeaders(SERVICE_UNAVAILABLE, -1);
+            exchange.close();
+            return;
+        }
+        activeRequests.incrementAndGet();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            activeRequests.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private boolean admit() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queuedRequests.incrementAndGet() > maxQueuedRequests) {
+            queuedRequests.decrementAndGet();
+            return false;
+        }
+        try {
+            permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queuedRequests.decrementAndGet();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "active/queued request limiter";
+    }
+}
@@ -0,0 +1,11 @@
+package app.repository;
+
+public interface ConfigRepository {
+    String get(String key);
+
+    boolean getBoolean(String key, boolean defaultValue);
+
+    int getInt(String key, int defaultValue);
+
+    void set(String key, String value);
+}
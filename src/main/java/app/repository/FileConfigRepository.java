@@ -0,0 +1,139 @@
+package app.repository;
+
+import app.exception.ErrorCode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+
+public final class FileConfigRepository implements ConfigRepository {
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String CONFIG = "config";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final char SEPARATOR = '=';
+    private static final String COMMENT_PREFIX = "#";
+
+    private final Path rootDirectoryPath;
+    private volatile CachedConfig cachedConfig;
+
+    public FileConfigRepository(Path rootDirectoryPath) {
+        this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+    }
+
+    @Override
+    public String get(String key) {
+        return readEntries().get(key);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public synchronized void set(String key, String value) {
+        Map<String, String> entries = new LinkedHashMap<>(readEntries());
+        entries.put(key, value);
+        StringBuilder contentBuilder = new StringBuilder();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            contentBuilder.append(entry.getKey()).append(" = ").append(entry.getValue()).append('\n');
+        }
+        Path configFilePath = getConfigFilePath();
+        try {
+            Files.createDirectories(configFilePath.getParent());
+            Path tmp = configFilePath.resolveSibling(CONFIG + TEMP_SUFFIX);
+            Files.writeString(tmp, contentBuilder.toString(), StandardCharsets.UTF_8);
+            Files.move(tmp, configFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.CONFIG_WRITE_FAILED.message());
+        }
+        cachedConfig = null;
+    }
+
+    private Path getConfigFilePath() {
+        return rootDirectoryPath.resolve(DOT_JAVA_GIT).resolve(CONFIG);
+    }
+
+    private Map<String, String> readEntries() {
+        Path configFilePath = getConfigFilePath();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(configFilePath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Map.of();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.CONFIG_READ_FAILED.message());
+        }
+        CachedConfig cached = cachedConfig;
+        if (cached != null && cached.matches(attributes)) {
+            return cached.entries;
+        }
+        try {
+            List<String> lines = Files.readAllLines(configFilePath, StandardCharsets.UTF_8);
+            Map<String, String> entries = parseLines(lines);
+            cachedConfig = new CachedConfig(attributes.lastModifiedTime(), attributes.size(), entries);
+            return entries;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.CONFIG_READ_FAILED.message());
+        }
+    }
+
+    private Map<String, String> parseLines(List<String> lines) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            int separatorIndex = trimmed.indexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                continue;
+            }
+            entries.put(trimmed.substring(0, separatorIndex).trim(), trimmed.substring(separatorIndex + 1).trim());
+        }
+        return Collections.unmodifiableMap(entries);
+    }
+
+    private static final class CachedConfig {
+        final FileTime modifiedTime;
+        final long size;
+        final Map<String, String> entries;
+
+        CachedConfig(FileTime modifiedTime, long size, Map<String, String> entries) {
+            this.modifiedTime = modifiedTime;
+            this.size = size;
+            this.entries = entries;
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return modifiedTime.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+}
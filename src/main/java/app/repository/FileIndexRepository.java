@@ -1,11 +1,14 @@
 package app.repository;
 
+import app.domain.FileStat;
 import app.domain.Index;
 import app.exception.ErrorCode;
+import app.repository.index.IndexFile;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +18,9 @@ import java.util.Objects;
 public final class FileIndexRepository implements IndexRepository {
     private static final String DOT_JAVA_GIT = ".javaGit";
     private static final String INDEX = "index";
+    private static final String HEADER_V2 = "DIRC 2";
+    private static final String NO_STAT = "-";
+    private static final int V2_FIELD_COUNT = 6;
 
     private final Path rootDirectoryPath;
 
@@ -38,8 +44,7 @@ public final class FileIndexRepository implements IndexRepository {
         Path indexFilePath = getIndexFilePath();
         Path indexDirectoryPath = indexFilePath.getParent();
         createDirectoryIfNotExists(indexDirectoryPath);
-        String indexContent = buildIndexContent(index);
-        writeIndexFile(indexFilePath, indexContent);
+        IndexFile.write(indexFilePath, index);
     }
 
 
@@ -50,7 +55,13 @@ public final class FileIndexRepository implements IndexRepository {
 
     private Index readIndexFile(Path indexFilePath) {
         try {
+            if (IndexFile.isIndexFile(indexFilePath)) {
+                return IndexFile.read(indexFilePath);
+            }
             List<String> indexFileLines = Files.readAllLines(indexFilePath, StandardCharsets.UTF_8);
+            if (!indexFileLines.isEmpty() && HEADER_V2.equals(indexFileLines.get(0))) {
+                return parseIndexV2Lines(indexFileLines);
+            }
             Map<String, String> stagedFilesMap = parseIndexLines(indexFileLines);
             return new Index(stagedFilesMap);
         } catch (IOException e) {
@@ -71,6 +82,38 @@ public final class FileIndexRepository implements IndexRepository {
     }
 
 
+    private Index parseIndexV2Lines(List<String> indexFileLines) {
+        Map<String, String> stagedFilesMap = new LinkedHashMap<>();
+        Map<String, FileStat> fileStats = new HashMap<>();
+        for (String line : indexFileLines.subList(1, indexFileLines.size())) {
+            if (isBlankLine(line)) {
+                continue;
+            }
+            String[] fields = line.split(" ", V2_FIELD_COUNT);
+            if (fields.length < V2_FIELD_COUNT) {
+                throw new IllegalArgumentException(ErrorCode.INDEX_FILE_READ_FAILED.message());
+            }
+            stagedFilesMap.put(fields[5], fields[0]);
+            FileStat fileStat = parseFileStat(fields);
+            if (fileStat != null) {
+                fileStats.put(fields[5], fileStat);
+            }
+        }
+        return new Index(stagedFilesMap, fileStats);
+    }
+
+    private FileStat parseFileStat(String[] fields) {
+        if (NO_STAT.equals(fields[1])) {
+            return null;
+        }
+        try {
+            return new FileStat(Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                    Long.parseLong(fields[3]), Long.parseLong(fields[4]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(ErrorCode.INDEX_FILE_READ_FAILED.message());
+        }
+    }
+
     private boolean isBlankLine(String line) {
         return line == null || line.isBlank();
     }
@@ -101,24 +144,4 @@ public final class FileIndexRepository implements IndexRepository {
             throw new IllegalArgumentException(ErrorCode.INDEX_FILE_WRITE_FAILED.message());
         }
     }
-
-    private String buildIndexContent(Index index) {
-        StringBuilder contentBuilder = new StringBuilder();
-        for (Map.Entry<String, String> entry : index.stagedFiles().entrySet()) {
-            appendIndexEntry(contentBuilder, entry);
-        }
-        return contentBuilder.toString();
-    }
-
-    private void appendIndexEntry(StringBuilder contentBuilder, Map.Entry<String, String> entry) {
-        contentBuilder.append(entry.getValue()).append(' ').append(entry.getKey()).append('\n');
-    }
-
-    private void writeIndexFile(Path indexFilePath, String indexContent) {
-        try {
-            Files.writeString(indexFilePath, indexContent, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new IllegalArgumentException(ErrorCode.INDEX_FILE_WRITE_FAILED.message());
-        }
-    }
 }
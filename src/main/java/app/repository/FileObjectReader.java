@@ -3,38 +3,116 @@ package app.repository;
 import app.domain.Blob;
 import app.domain.Commit;
 import app.domain.Tree;
+import app.domain.TreeEntry;
 import app.exception.ErrorCode;
+import app.repository.pack.PackDirectory;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.zip.InflaterInputStream;
 
 public final class FileObjectReader implements ObjectReader {
     private static final String DOT_JAVA_GIT = ".javaGit";
     private static final String OBJECTS = "objects";
     private static final int SHA_PREFIX_LENGTH = 2;
     private final Path rootDirectoryPath;
+    private final PackDirectory packDirectory;
+    private final ConfigRepository configRepository;
 
     public FileObjectReader(Path rootDirectoryPath) {
+        this(rootDirectoryPath, new FileConfigRepository(rootDirectoryPath));
+    }
+
+    public FileObjectReader(Path rootDirectoryPath, ConfigRepository configRepository) {
         this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+        this.configRepository = Objects.requireNonNull(configRepository, "configRepository");
+        this.packDirectory = new PackDirectory(rootDirectoryPath);
     }
 
     @Override
     public byte[] readRaw(String objectId) {
+        byte[] packed = packDirectory.read(objectId);
+        if (packed != null) {
+            return packed;
+        }
         Path objectFilePath = buildObjectFilePath(objectId);
         if (!Files.exists(objectFilePath)) {
             throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_NOT_FOUND.message());
         }
         try {
-            return Files.readAllBytes(objectFilePath);
+            if (!ObjectCompression.isConfigured(configRepository)) {
+                return Files.readAllBytes(objectFilePath);
+            }
+            long storedSize = ObjectCompression.storedSize(objectFilePath, objectId);
+            if (storedSize >= 0) {
+                return ObjectCompression.readStoredObject(objectFilePath, storedSize);
+            }
+            return ObjectCompression.readLooseObject(objectFilePath, objectId);
         } catch (IOException e) {
             throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
         }
     }
 
+    @Override
+    public ObjectStream openRawStream(String objectId) {
+        ObjectStream packed = packDirectory.openStream(objectId);
+        if (packed != null) {
+            return packed;
+        }
+        Path objectFilePath = buildObjectFilePath(objectId);
+        if (!Files.exists(objectFilePath)) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_NOT_FOUND.message());
+        }
+        try {
+            long inflatedSize = looseInflatedSize(objectFilePath, objectId);
+            if (inflatedSize < 0) {
+                return ObjectStream.ofFile(FileChannel.open(objectFilePath, StandardOpenOption.READ));
+            }
+            return ObjectStream.ofStream(new InflaterInputStream(Files.newInputStream(objectFilePath)), inflatedSize);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
+        }
+    }
+
+    @Override
+    public long size(String objectId) {
+        long packed = packDirectory.size(objectId);
+        if (packed >= 0) {
+            return packed;
+        }
+        Path objectFilePath = buildObjectFilePath(objectId);
+        if (!Files.exists(objectFilePath)) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_NOT_FOUND.message());
+        }
+        try {
+            long inflatedSize = looseInflatedSize(objectFilePath, objectId);
+            return inflatedSize < 0 ? Files.size(objectFilePath) : inflatedSize;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
+        }
+    }
+
+    private long looseInflatedSize(Path objectFilePath, String objectId) throws IOException {
+        if (!ObjectCompression.isConfigured(configRepository)) {
+            return -1;
+        }
+        long storedSize = ObjectCompression.storedSize(objectFilePath, objectId);
+        if (storedSize >= 0) {
+            return storedSize;
+        }
+        return ObjectCompression.inflatedSize(objectFilePath, objectId);
+    }
+
     @Override
     public Blob readBlob(String objectId) {
         return new Blob(readRaw(objectId));
@@ -44,8 +122,75 @@ public final class FileObjectReader implements ObjectReader {
     public Tree readTree(String objectId) {
         byte[] bytes = readRaw(objectId);
         String content = new String(bytes, StandardCharsets.UTF_8);
-        Map<String, String> entries = parseTreeContent(content);
-        return new Tree(entries);
+        Map<String, String> entries = new LinkedHashMap<>();
+        Map<String, String> subtrees = new LinkedHashMap<>();
+        parseTreeContent(content, entries, subtrees);
+        return new Tree(entries, subtrees);
+    }
+
+    @Override
+    public List<TreeEntry> readTreeEntries(String objectId) {
+        byte[] bytes = readRaw(objectId);
+        List<TreeEntry> entries = new ArrayList<>();
+        boolean sorted = true;
+        int lineStart = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = indexOf(bytes, (byte) '\n', lineStart, bytes.length);
+            if (lineEnd < 0) {
+                lineEnd = bytes.length;
+            }
+            if (lineEnd > lineStart) {
+                TreeEntry entry = parseTreeEntry(bytes, lineStart, lineEnd);
+                sorted &= entries.isEmpty() || entries.get(entries.size() - 1).compareTo(entry) < 0;
+                entries.add(entry);
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (!sorted) {
+            entries.sort(null);
+        }
+        return entries;
+    }
+
+    private TreeEntry parseTreeEntry(byte[] bytes, int lineStart, int lineEnd) {
+        int firstSpace = indexOf(bytes, (byte) ' ', lineStart, lineEnd);
+        int secondSpace = firstSpace < 0 ? -1 : indexOf(bytes, (byte) ' ', firstSpace + 1, lineEnd);
+        if (firstSpace <= lineStart || secondSpace <= firstSpace + 1) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_TREE_OBJECT.message());
+        }
+        String kind = new String(bytes, lineStart, firstSpace - lineStart, StandardCharsets.US_ASCII);
+        if (!"blob".equals(kind) && !"tree".equals(kind)) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_TREE_OBJECT.message());
+        }
+        String sha = new String(bytes, firstSpace + 1, secondSpace - firstSpace - 1, StandardCharsets.US_ASCII);
+        String name = new String(bytes, secondSpace + 1, lineEnd - secondSpace - 1, StandardCharsets.UTF_8);
+        return new TreeEntry(name, sha, "tree".equals(kind));
+    }
+
+    private static int indexOf(byte[] bytes, byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Map<String, String> readTreeRecursively(String objectId) {
+        Map<String, String> files = new LinkedHashMap<>();
+        collectTreeEntries(objectId, "", files);
+        return files;
+    }
+
+    private void collectTreeEntries(String treeObjectId, String prefix, Map<String, String> files) {
+        Tree tree = readTree(treeObjectId);
+        for (Map.Entry<String, String> entry : tree.entries().entrySet()) {
+            files.put(prefix + entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, String> subtree : tree.subtrees().entrySet()) {
+            collectTreeEntries(subtree.getValue(), prefix + subtree.getKey() + "/", files);
+        }
     }
 
     @Override
@@ -53,7 +198,45 @@ public final class FileObjectReader implements ObjectReader {
         byte[] bytes = readRaw(objectId);
         String content = new String(bytes, StandardCharsets.UTF_8);
         ParsedCommit parsed = parseCommitContent(content);
-        return new Commit(parsed.message, parsed.treeSha, parsed.parentHash, parsed.author);
+        return new Commit(parsed.message, parsed.treeSha, parsed.parentHashes, parsed.author);
+    }
+
+    @Override
+    public boolean contains(String objectId) {
+        if (objectId == null || objectId.length() <= SHA_PREFIX_LENGTH) {
+            return false;
+        }
+        return Files.exists(buildObjectFilePath(objectId)) || packDirectory.contains(objectId);
+    }
+
+    @Override
+    public Set<String> listObjectIds() {
+        Set<String> objectIds = new LinkedHashSet<>(listLooseObjectIds());
+        objectIds.addAll(packDirectory.listObjectIds());
+        return objectIds;
+    }
+
+    private Set<String> listLooseObjectIds() {
+        Path objectsDirectoryPath = rootDirectoryPath.resolve(DOT_JAVA_GIT).resolve(OBJECTS);
+        Set<String> objectIds = new LinkedHashSet<>();
+        if (!Files.exists(objectsDirectoryPath)) {
+            return objectIds;
+        }
+        try (var directories = Files.list(objectsDirectoryPath)) {
+            for (Path directory : (Iterable<Path>) directories::iterator) {
+                String hashPrefix = directory.getFileName().toString();
+                if (hashPrefix.length() != SHA_PREFIX_LENGTH || !Files.isDirectory(directory)) {
+                    continue;
+                }
+                try (var files = Files.list(directory)) {
+                    files.filter(Files::isRegularFile)
+                            .forEach(file -> objectIds.add(hashPrefix + file.getFileName().toString()));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
+        }
+        return objectIds;
     }
 
     private Path buildObjectFilePath(String objectHash) {
@@ -64,10 +247,9 @@ public final class FileObjectReader implements ObjectReader {
         return objectSubDirectoryPath.resolve(hashSuffix);
     }
 
-    private Map<String, String> parseTreeContent(String content) {
-        Map<String, String> map = new LinkedHashMap<>();
+    private void parseTreeContent(String content, Map<String, String> entries, Map<String, String> subtrees) {
         if (content == null || content.isBlank()) {
-            return map;
+            return;
         }
         String[] lines = content.split("\n");
         for (String line : lines) {
@@ -80,7 +262,7 @@ public final class FileObjectReader implements ObjectReader {
                 throw new IllegalArgumentException(ErrorCode.MALFORMED_TREE_OBJECT.message());
             }
             String kind = line.substring(0, firstSpace);
-            if (!"blob".equals(kind)) {
+            if (!"blob".equals(kind) && !"tree".equals(kind)) {
                 throw new IllegalArgumentException(ErrorCode.MALFORMED_TREE_OBJECT.message());
             }
             int secondSpace = line.indexOf(' ', firstSpace + 1);
@@ -89,9 +271,12 @@ public final class FileObjectReader implements ObjectReader {
             }
             String sha = line.substring(firstSpace + 1, secondSpace);
             String path = line.substring(secondSpace + 1);
-            map.put(path, sha);
+            if ("tree".equals(kind)) {
+                subtrees.put(path, sha);
+            } else {
+                entries.put(path, sha);
+            }
         }
-        return map;
     }
 
     private ParsedCommit parseCommitContent(String content) {
@@ -100,7 +285,7 @@ public final class FileObjectReader implements ObjectReader {
         }
         String[] lines = content.split("\n");
         String treeSha = null;
-        String parentHash = null;
+        List<String> parentHashes = new ArrayList<>(1);
         String author = null;
         int i = 0;
         for (; i < lines.length; i++) {
@@ -114,7 +299,10 @@ public final class FileObjectReader implements ObjectReader {
                 continue;
             }
             if (line.startsWith("parent ")) {
-                parentHash = line.substring("parent ".length()).trim();
+                String parentHash = line.substring("parent ".length()).trim();
+                if (!parentHash.isEmpty()) {
+                    parentHashes.add(parentHash);
+                }
                 continue;
             }
             if (line.startsWith("author ")) {
@@ -136,18 +324,18 @@ public final class FileObjectReader implements ObjectReader {
         if (treeSha == null || author == null) {
             throw new IllegalArgumentException(ErrorCode.MALFORMED_COMMIT_OBJECT.message());
         }
-        return new ParsedCommit(treeSha, parentHash, author, messageBuilder.toString());
+        return new ParsedCommit(treeSha, parentHashes, author, messageBuilder.toString());
     }
 
     private static final class ParsedCommit {
         final String treeSha;
-        final String parentHash;
+        final List<String> parentHashes;
         final String author;
         final String message;
 
-        ParsedCommit(String treeSha, String parentHash, String author, String message) {
+        ParsedCommit(String treeSha, List<String> parentHashes, String author, String message) {
             this.treeSha = treeSha;
-            this.parentHash = parentHash;
+            this.parentHashes = parentHashes;
             this.author = author;
             this.message = message;
         }
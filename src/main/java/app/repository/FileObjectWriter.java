@@ -1,34 +1,127 @@
 package app.repository;
 
 import app.exception.ErrorCode;
+import app.repository.pack.PackDirectory;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
 import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 public final class FileObjectWriter implements ObjectWriter {
     private static final String DOT_JAVA_GIT = ".javaGit";
     private static final String OBJECTS = "objects";
     private static final int SHA_PREFIX_LENGTH = 2;
+    private static final String TEMP_PREFIX = "tmp_obj_";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
     private final Path rootDirectoryPath;
+    private final PackDirectory packDirectory;
+    private final ConfigRepository configRepository;
 
     public FileObjectWriter(Path rootDirectoryPath) {
+        this(rootDirectoryPath, new FileConfigRepository(rootDirectoryPath));
+    }
+
+    public FileObjectWriter(Path rootDirectoryPath, ConfigRepository configRepository) {
         this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+        this.configRepository = Objects.requireNonNull(configRepository, "configRepository");
+        this.packDirectory = new PackDirectory(rootDirectoryPath);
     }
 
     @Override
     public String write(byte[] objectContent) {
         String objectHash = calculateSha1(objectContent);
+        if (packDirectory.contains(objectHash)) {
+            return objectHash;
+        }
         Path objectFilePath = buildObjectFilePath(objectHash);
         Path objectDirectoryPath = objectFilePath.getParent();
         createObjectDirectory(objectDirectoryPath);
-        writeObjectFile(objectFilePath, objectContent);
+        writeObjectFile(objectFilePath, objectHash, objectContent);
         return objectHash;
     }
 
+    @Override
+    public String write(InputStream objectContent) {
+        Path objectsDirectoryPath = rootDirectoryPath.resolve(DOT_JAVA_GIT).resolve(OBJECTS);
+        createObjectDirectory(objectsDirectoryPath);
+        Path tempFilePath = null;
+        try {
+            tempFilePath = Files.createTempFile(objectsDirectoryPath, TEMP_PREFIX, null);
+            String objectHash = copyToTempFile(objectContent, tempFilePath);
+            Path objectFilePath = buildObjectFilePath(objectHash);
+            if (packDirectory.contains(objectHash) || Files.exists(objectFilePath)) {
+                return objectHash;
+            }
+            createObjectDirectory(objectFilePath.getParent());
+            try {
+                Files.move(tempFilePath, objectFilePath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ignored) {
+            }
+            return objectHash;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_WRITE_FAILED.message());
+        } finally {
+            deleteQuietly(tempFilePath);
+        }
+    }
+
+    private String copyToTempFile(InputStream objectContent, Path tempFilePath) throws IOException {
+        MessageDigest messageDigest = newSha1();
+        Deflater deflater = ObjectCompression.isEnabled(configRepository)
+                ? new Deflater(Deflater.DEFAULT_COMPRESSION) : null;
+        byte[] digest;
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(tempFilePath), STREAM_BUFFER_SIZE)) {
+            DeflaterOutputStream deflating = deflater == null
+                    ? null : new DeflaterOutputStream(file, deflater, STREAM_BUFFER_SIZE);
+            OutputStream out = deflating == null ? file : deflating;
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            long size = 0;
+            int read;
+            while ((read = objectContent.read(buffer)) >= 0) {
+                messageDigest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                size += read;
+            }
+            digest = messageDigest.digest();
+            if (deflating != null) {
+                deflating.finish();
+                ObjectCompression.writeTrailer(file, digest, size);
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ErrorCode.SHA1_NOT_AVAILABLE.message());
+        }
+    }
 
     private String calculateSha1(byte[] objectContent) {
         try {
@@ -59,14 +152,26 @@ public final class FileObjectWriter implements ObjectWriter {
     }
 
 
-    private void writeObjectFile(Path objectFilePath, byte[] objectContent) {
+    private void writeObjectFile(Path objectFilePath, String objectHash, byte[] objectContent) {
         if (Files.exists(objectFilePath)) {
             return;
         }
+        byte[] storedContent = objectContent;
+        if (ObjectCompression.isEnabled(configRepository)) {
+            storedContent = ObjectCompression.deflateLooseObject(objectContent, objectHash);
+        }
+        Path tempFilePath = null;
         try {
-            Files.write(objectFilePath, objectContent);
+            tempFilePath = Files.createTempFile(objectFilePath.getParent().getParent(), TEMP_PREFIX, null);
+            Files.write(tempFilePath, storedContent);
+            try {
+                Files.move(tempFilePath, objectFilePath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ignored) {
+            }
         } catch (IOException e) {
             throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_WRITE_FAILED.message());
+        } finally {
+            deleteQuietly(tempFilePath);
         }
     }
 }
@@ -0,0 +1,227 @@
+package app.repository;
+
+import app.exception.ErrorCode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public final class ObjectCompression {
+    public static final String CONFIG_KEY = "core.compression";
+    public static final String ZLIB = "zlib";
+    public static final String NONE = "none";
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int ZLIB_METHOD_DEFLATE = 8;
+    private static final int ZLIB_HEADER_CHECK = 31;
+    private static final int ZLIB_HEADER_LENGTH = 2;
+    private static final int OBJECT_ID_LENGTH = 20;
+    private static final byte[] TRAILER_MAGIC = {'J', 'G', 'Z', '1'};
+    private static final int TRAILER_LENGTH = OBJECT_ID_LENGTH + Long.BYTES + TRAILER_MAGIC.length;
+
+    private ObjectCompression() {
+    }
+
+    public static boolean isEnabled(ConfigRepository configRepository) {
+        return ZLIB.equalsIgnoreCase(configRepository.get(CONFIG_KEY));
+    }
+
+    public static boolean isConfigured(ConfigRepository configRepository) {
+        return configRepository.get(CONFIG_KEY) != null;
+    }
+
+    public static byte[] deflateLooseObject(byte[] content, String objectId) {
+        byte[] compressed = deflate(content);
+        byte[] stored = Arrays.copyOf(compressed, compressed.length + TRAILER_LENGTH);
+        byte[] trailer = trailer(HexFormat.of().parseHex(objectId), content.length);
+        System.arraycopy(trailer, 0, stored, compressed.length, TRAILER_LENGTH);
+        return stored;
+    }
+
+    public static void writeTrailer(OutputStream out, byte[] objectId, long inflatedSize) throws IOException {
+        out.write(trailer(objectId, inflatedSize));
+    }
+
+    private static byte[] trailer(byte[] objectId, long inflatedSize) {
+        return ByteBuffer.allocate(TRAILER_LENGTH)
+                .put(objectId)
+                .putLong(inflatedSize)
+                .put(TRAILER_MAGIC)
+                .array();
+    }
+
+    public static long storedSize(Path objectFilePath, String objectId) throws IOException {
+        if (objectId.length() != OBJECT_ID_LENGTH * 2) {
+            return -1;
+        }
+        try (FileChannel channel = FileChannel.open(objectFilePath, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < ZLIB_HEADER_LENGTH + TRAILER_LENGTH) {
+                return -1;
+            }
+            ByteBuffer header = readFully(channel, 0, ZLIB_HEADER_LENGTH);
+            if (!isZlibHeader(header.get(0), header.get(1))) {
+                return -1;
+            }
+            ByteBuffer trailer = readFully(channel, fileSize - TRAILER_LENGTH, TRAILER_LENGTH);
+            byte[] storedObjectId = new byte[OBJECT_ID_LENGTH];
+            byte[] magic = new byte[TRAILER_MAGIC.length];
+            trailer.get(storedObjectId);
+            long inflatedSize = trailer.getLong();
+            trailer.get(magic);
+            if (!Arrays.equals(magic, TRAILER_MAGIC) || inflatedSize < 0
+                    || !HexFormat.of().formatHex(storedObjectId).equalsIgnoreCase(objectId)) {
+                return -1;
+            }
+            return inflatedSize;
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
+            }
+        }
+        return buffer.flip();
+    }
+
+    public static byte[] deflate(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static byte[] inflate(byte[] compressed, int inflatedSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] content = new byte[inflatedSize];
+            int written = 0;
+            while (written < inflatedSize && !inflater.finished()) {
+                int length = inflater.inflate(content, written, inflatedSize - written);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                written += length;
+            }
+            if (written != inflatedSize) {
+                throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
+            }
+            return content;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public static byte[] readStoredObject(Path objectFilePath, long inflatedSize) throws IOException {
+        if (inflatedSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ErrorCode.OBJECT_FILE_READ_FAILED.message());
+        }
+        return inflate(Files.readAllBytes(objectFilePath), (int) inflatedSize);
+    }
+
+    public static byte[] readLooseObject(Path objectFilePath, String objectId) throws IOException {
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        if (tryInflate(objectFilePath, objectId, inflated)) {
+            return inflated.toByteArray();
+        }
+        return Files.readAllBytes(objectFilePath);
+    }
+
+    public static long inflatedSize(Path objectFilePath, String objectId) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        if (tryInflate(objectFilePath, objectId, counter)) {
+            return counter.count;
+        }
+        return -1;
+    }
+
+    private static boolean tryInflate(Path objectFilePath, String objectId, OutputStream out) throws IOException {
+        MessageDigest digest = newSha1();
+        Inflater inflater = new Inflater();
+        try (InputStream in = Files.newInputStream(objectFilePath)) {
+            byte[] input = new byte[BUFFER_SIZE];
+            int read = in.readNBytes(input, 0, input.length);
+            if (read < 2 || !isZlibHeader(input[0], input[1])) {
+                return false;
+            }
+            byte[] output = new byte[BUFFER_SIZE];
+            while (read > 0) {
+                inflater.setInput(input, 0, read);
+                while (!inflater.finished() && !inflater.needsInput()) {
+                    int length = inflater.inflate(output);
+                    if (length == 0 && inflater.needsDictionary()) {
+                        return false;
+                    }
+                    digest.update(output, 0, length);
+                    out.write(output, 0, length);
+                }
+                if (inflater.finished()) {
+                    return inflater.getRemaining() == 0 && in.read() < 0
+                            && HexFormat.of().formatHex(digest.digest()).equals(objectId);
+                }
+                read = in.read(input);
+            }
+            return false;
+        } catch (DataFormatException e) {
+            return false;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ErrorCode.SHA1_NOT_AVAILABLE.message());
+        }
+    }
+
+    private static boolean isZlibHeader(byte first, byte second) {
+        int cmf = first & 0xff;
+        int flg = second & 0xff;
+        return (cmf & 0x0f) == ZLIB_METHOD_DEFLATE && (cmf * 256 + flg) % ZLIB_HEADER_CHECK == 0;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
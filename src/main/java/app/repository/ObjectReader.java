@@ -3,13 +3,29 @@ package app.repository;
 import app.domain.Blob;
 import app.domain.Commit;
 import app.domain.Tree;
+import app.domain.TreeEntry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface ObjectReader {
     byte[] readRaw(String objectId);
 
+    ObjectStream openRawStream(String objectId);
+
+    long size(String objectId);
+
     Blob readBlob(String objectId);
 
     Tree readTree(String objectId);
 
+    List<TreeEntry> readTreeEntries(String objectId);
+
+    Map<String, String> readTreeRecursively(String objectId);
+
     Commit readCommit(String objectId);
+
+    boolean contains(String objectId);
+
+    Set<String> listObjectIds();
 }
@@ -0,0 +1,77 @@
+package app.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+public final class ObjectStream implements Closeable {
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final long position;
+    private final long size;
+
+    private ObjectStream(ReadableByteChannel channel, long position, long size) {
+        this.channel = channel;
+        this.position = position;
+        this.size = size;
+    }
+
+    public static ObjectStream ofFile(FileChannel channel) throws IOException {
+        return ofFileRange(channel, 0, channel.size());
+    }
+
+    public static ObjectStream ofFileRange(FileChannel channel, long position, long size) {
+        return new ObjectStream(channel, position, size);
+    }
+
+    public static ObjectStream ofStream(InputStream in, long size) {
+        return new ObjectStream(Channels.newChannel(in), 0, size);
+    }
+
+    public static ObjectStream ofBytes(byte[] content) {
+        return ofStream(new ByteArrayInputStream(content), content.length);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long transferTo(OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        if (channel instanceof FileChannel fileChannel) {
+            long transferred = 0;
+            while (transferred < size) {
+                long count = fileChannel.transferTo(position + transferred, size - transferred, target);
+                if (count <= 0) {
+                    throw new EOFException();
+                }
+                transferred += count;
+            }
+            return transferred;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+        long transferred = 0;
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                transferred += target.write(buffer);
+            }
+            buffer.clear();
+        }
+        return transferred;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
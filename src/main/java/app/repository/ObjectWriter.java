@@ -1,5 +1,9 @@
 package app.repository;
 
+import java.io.InputStream;
+
 public interface ObjectWriter {
     String write(byte[] bytes);
+
+    String write(InputStream content);
 }
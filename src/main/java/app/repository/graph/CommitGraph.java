@@ -0,0 +1,239 @@
+package app.repository.graph;
+
+import app.repository.ObjectReader;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+public final class CommitGraph {
+    private static final int PARENT1 = 1;
+    private static final int PARENT2 = 1 << 1;
+    private static final int STALE = 1 << 2;
+    private static final int RESULT = 1 << 3;
+    private static final int BOTH_PARENTS = PARENT1 | PARENT2;
+    static final Comparator<DatedCommit> NEWEST_FIRST =
+            Comparator.comparingLong(DatedCommit::commitTimeMillis).reversed();
+
+    private final ObjectReader objectReader;
+    private final Path rootDirectoryPath;
+    private CommitGraphFile graphFile;
+    private boolean graphFileLoaded;
+
+    public CommitGraph(ObjectReader objectReader) {
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.rootDirectoryPath = null;
+    }
+
+    public CommitGraph(ObjectReader objectReader, Path rootDirectoryPath) {
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+    }
+
+    public boolean isAncestor(String ancestor, String descendant) {
+        if (isBlank(ancestor) || isBlank(descendant)) {
+            return false;
+        }
+        if (ancestor.equals(descendant)) {
+            return true;
+        }
+        CommitGraphFile graph = graphFile();
+        int ancestorPosition = graph == null ? -1 : graph.position(ancestor);
+        PositionStack pendingPositions = new PositionStack();
+        Deque<String> pendingCommits = new ArrayDeque<>();
+        Set<String> visitedCommits = new HashSet<>();
+        enqueue(descendant, graph, pendingCommits, pendingPositions);
+
+        while (!pendingCommits.isEmpty()) {
+            String commit = pendingCommits.pop();
+            if (!visitedCommits.add(commit)) {
+                continue;
+            }
+            for (String parent : CommitHeader.parse(objectReader.readRaw(commit)).parents) {
+                if (parent.equals(ancestor)) {
+                    return true;
+                }
+                enqueue(parent, graph, pendingCommits, pendingPositions);
+            }
+        }
+        if (ancestorPosition < 0) {
+            return false;
+        }
+
+        int ancestorGeneration = graph.generationAt(ancestorPosition);
+        BitSet visitedPositions = new BitSet(graph.size());
+        while (!pendingPositions.isEmpty()) {
+            int position = pendingPositions.pop();
+            if (position == ancestorPosition) {
+                return true;
+            }
+            if (visitedPositions.get(position) || graph.generationAt(position) <= ancestorGeneration) {
+                continue;
+            }
+            visitedPositions.set(position);
+            for (int i = 0; i < graph.parentCountAt(position); i++) {
+                pendingPositions.push(graph.parentAt(position, i));
+            }
+        }
+        return false;
+    }
+
+    public List<String> parents(String commit) {
+        CommitGraphFile graph = graphFile();
+        int position = graph == null ? -1 : graph.position(commit);
+        if (position < 0) {
+            return CommitHeader.parse(objectReader.readRaw(commit)).parents;
+        }
+        List<String> parents = new ArrayList<>(graph.parentCountAt(position));
+        for (int i = 0; i < graph.parentCountAt(position); i++) {
+            parents.add(graph.objectIdAt(graph.parentAt(position, i)));
+        }
+        return parents;
+    }
+
+    public List<String> mergeBases(String one, String two) {
+        if (isBlank(one) || isBlank(two)) {
+            return List.of();
+        }
+        if (one.equals(two)) {
+            return List.of(one);
+        }
+        Map<String, Integer> flags = new HashMap<>();
+        PriorityQueue<DatedCommit> queue = new PriorityQueue<>(NEWEST_FIRST);
+        flags.put(one, PARENT1);
+        flags.put(two, PARENT2);
+        queue.add(datedCommit(one));
+        queue.add(datedCommit(two));
+        Map<String, Integer> queuedCounts = new HashMap<>();
+        queuedCounts.put(one, 1);
+        queuedCounts.put(two, 1);
+        int nonStaleCount = 2;
+
+        List<String> bases = new ArrayList<>();
+        while (nonStaleCount > 0) {
+            DatedCommit commit = queue.poll();
+            queuedCounts.merge(commit.objectId(), -1, Integer::sum);
+            int commitFlags = flags.get(commit.objectId());
+            if ((commitFlags & STALE) == 0) {
+                nonStaleCount--;
+            }
+            int paint = commitFlags & (BOTH_PARENTS | STALE);
+            if ((paint & BOTH_PARENTS) == BOTH_PARENTS) {
+                if ((commitFlags & RESULT) == 0) {
+                    flags.put(commit.objectId(), commitFlags | RESULT);
+                    bases.add(commit.objectId());
+                }
+                paint |= STALE;
+            }
+            for (String parent : commit.parents()) {
+                int parentFlags = flags.getOrDefault(parent, 0);
+                if ((parentFlags & paint) == paint) {
+                    continue;
+                }
+                flags.put(parent, parentFlags | paint);
+                int queued = queuedCounts.getOrDefault(parent, 0);
+                if ((parentFlags & STALE) == 0) {
+                    nonStaleCount += (paint & STALE) == 0 ? 1 : -queued;
+                }
+                queuedCounts.put(parent, queued + 1);
+                queue.add(datedCommit(parent));
+            }
+        }
+        return removeRedundant(bases);
+    }
+
+    private List<String> removeRedundant(List<String> bases) {
+        if (bases.size() < 2) {
+            return bases;
+        }
+        List<String> independent = new ArrayList<>();
+        for (String base : bases) {
+            boolean redundant = false;
+            for (String other : bases) {
+                if (!other.equals(base) && isAncestor(base, other)) {
+                    redundant = true;
+                    break;
+                }
+            }
+            if (!redundant) {
+                independent.add(base);
+            }
+        }
+        return independent;
+    }
+
+    DatedCommit datedCommit(String commit) {
+        CommitGraphFile graph = graphFile();
+        int position = graph == null ? -1 : graph.position(commit);
+        if (position < 0) {
+            CommitHeader header = CommitHeader.parse(objectReader.readRaw(commit));
+            return new DatedCommit(commit, header.commitTimeMillis, header.parents);
+        }
+        return new DatedCommit(commit, graph.commitTimeAt(position), parents(commit));
+    }
+
+    private void enqueue(String commit, CommitGraphFile graph, Deque<String> pendingCommits,
+                         PositionStack pendingPositions) {
+        int position = graph == null ? -1 : graph.position(commit);
+        if (position >= 0) {
+            pendingPositions.push(position);
+        } else {
+            pendingCommits.push(commit);
+        }
+    }
+
+    private CommitGraphFile graphFile() {
+        if (!graphFileLoaded) {
+            graphFileLoaded = true;
+            if (rootDirectoryPath != null) {
+                graphFile = openQuietly();
+            }
+        }
+        return graphFile;
+    }
+
+    private CommitGraphFile openQuietly() {
+        try {
+            return CommitGraphFile.open(rootDirectoryPath);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    record DatedCommit(String objectId, long commitTimeMillis, List<String> parents) {
+    }
+
+    private static final class PositionStack {
+        private int[] positions = new int[16];
+        private int size;
+
+        void push(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int pop() {
+            return positions[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
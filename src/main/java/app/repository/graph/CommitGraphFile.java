@@ -0,0 +1,166 @@
+package app.repository.graph;
+
+import app.exception.ErrorCode;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+public final class CommitGraphFile {
+    static final byte[] MAGIC = {'C', 'G', 'P', 'H'};
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 16;
+    static final int FANOUT_SIZE = 256;
+    static final int FANOUT_LENGTH = FANOUT_SIZE * Integer.BYTES;
+    static final int OID_LENGTH = 20;
+    static final int RECORD_LENGTH = 40;
+    static final int TRAILER_LENGTH = 20;
+    static final int GENERATION_OFFSET = 20;
+    static final int PARENT_COUNT_OFFSET = 24;
+    static final int PARENT_INDEX_OFFSET = 28;
+    static final int COMMIT_TIME_OFFSET = 32;
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String OBJECTS = "objects";
+    private static final String INFO = "info";
+    private static final String COMMIT_GRAPH = "commit-graph";
+
+    private final MappedByteBuffer buffer;
+    private final int commitCount;
+    private final int parentCount;
+    private final int oidTableOffset;
+    private final int recordTableOffset;
+    private final int parentTableOffset;
+
+    private CommitGraphFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_LENGTH + FANOUT_LENGTH + TRAILER_LENGTH) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_COMMIT_GRAPH.message());
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC) || buffer.getInt(MAGIC.length) != VERSION) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_COMMIT_GRAPH.message());
+        }
+        this.commitCount = buffer.getInt(8);
+        this.parentCount = buffer.getInt(12);
+        this.oidTableOffset = HEADER_LENGTH + FANOUT_LENGTH;
+        long records = oidTableOffset + (long) commitCount * OID_LENGTH;
+        long parents = records + (long) commitCount * RECORD_LENGTH;
+        long expectedLength = parents + (long) parentCount * Integer.BYTES + TRAILER_LENGTH;
+        if (commitCount < 0 || parentCount < 0 || expectedLength != buffer.capacity()
+                || fanout(FANOUT_SIZE - 1) != commitCount) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_COMMIT_GRAPH.message());
+        }
+        this.recordTableOffset = (int) records;
+        this.parentTableOffset = (int) parents;
+    }
+
+    public static Path path(Path rootDirectoryPath) {
+        return rootDirectoryPath.resolve(DOT_JAVA_GIT).resolve(OBJECTS).resolve(INFO).resolve(COMMIT_GRAPH);
+    }
+
+    public static CommitGraphFile open(Path rootDirectoryPath) {
+        Path graphPath = path(rootDirectoryPath);
+        if (!Files.exists(graphPath)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(graphPath, StandardOpenOption.READ)) {
+            return new CommitGraphFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.COMMIT_GRAPH_READ_FAILED.message());
+        }
+    }
+
+    public int size() {
+        return commitCount;
+    }
+
+    public int position(String objectId) {
+        if (objectId == null || objectId.length() != OID_LENGTH * 2) {
+            return -1;
+        }
+        byte[] rawOid;
+        try {
+            rawOid = HexFormat.of().parseHex(objectId);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        int bucket = rawOid[0] & 0xff;
+        int low = bucket == 0 ? 0 : fanout(bucket - 1);
+        int high = fanout(bucket) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareOidAt(mid, rawOid);
+            if (cmp == 0) {
+                return mid;
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    public String objectIdAt(int position) {
+        byte[] rawOid = new byte[OID_LENGTH];
+        buffer.get(oidTableOffset + position * OID_LENGTH, rawOid);
+        return HexFormat.of().formatHex(rawOid);
+    }
+
+    public String treeOidAt(int position) {
+        byte[] rawOid = new byte[OID_LENGTH];
+        buffer.get(recordOffset(position), rawOid);
+        return HexFormat.of().formatHex(rawOid);
+    }
+
+    public int generationAt(int position) {
+        return buffer.getInt(recordOffset(position) + GENERATION_OFFSET);
+    }
+
+    public int parentCountAt(int position) {
+        return buffer.getInt(recordOffset(position) + PARENT_COUNT_OFFSET);
+    }
+
+    public int parentAt(int position, int parentNumber) {
+        int parentIndex = buffer.getInt(recordOffset(position) + PARENT_INDEX_OFFSET) + parentNumber;
+        if (parentIndex < 0 || parentIndex >= parentCount) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_COMMIT_GRAPH.message());
+        }
+        return buffer.getInt(parentTableOffset + parentIndex * Integer.BYTES);
+    }
+
+    public long commitTimeAt(int position) {
+        return buffer.getLong(recordOffset(position) + COMMIT_TIME_OFFSET);
+    }
+
+    private int recordOffset(int position) {
+        if (position < 0 || position >= commitCount) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_COMMIT_GRAPH.message());
+        }
+        return recordTableOffset + position * RECORD_LENGTH;
+    }
+
+    private int fanout(int bucket) {
+        return buffer.getInt(HEADER_LENGTH + bucket * Integer.BYTES);
+    }
+
+    private int compareOidAt(int position, byte[] rawOid) {
+        int base = oidTableOffset + position * OID_LENGTH;
+        for (int i = 0; i < OID_LENGTH; i++) {
+            int cmp = Integer.compare(buffer.get(base + i) & 0xff, rawOid[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+}
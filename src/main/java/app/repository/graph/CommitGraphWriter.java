@@ -0,0 +1,212 @@
+package app.repository.graph;
+
+import app.exception.ErrorCode;
+import app.repository.ObjectReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class CommitGraphWriter {
+    private static final String TEMP_PREFIX = "tmp_commit_graph_";
+
+    private final Path rootDirectoryPath;
+
+    public CommitGraphWriter(Path rootDirectoryPath) {
+        this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+    }
+
+    public int write(Collection<String> tips, ObjectReader objectReader) {
+        Objects.requireNonNull(tips, "tips");
+        Objects.requireNonNull(objectReader, "objectReader");
+        Map<String, Node> nodes = collectCommits(tips, objectReader, openPrevious());
+        List<String> objectIds = new ArrayList<>(nodes.keySet());
+        Collections.sort(objectIds);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < objectIds.size(); i++) {
+            positions.put(objectIds.get(i), i);
+        }
+        for (String objectId : objectIds) {
+            computeGeneration(objectId, nodes);
+        }
+        writeFile(encode(objectIds, nodes, positions));
+        return objectIds.size();
+    }
+
+    private CommitGraphFile openPrevious() {
+        try {
+            return CommitGraphFile.open(rootDirectoryPath);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Node> collectCommits(Collection<String> tips, ObjectReader objectReader,
+                                             CommitGraphFile previous) {
+        Map<String, Node> nodes = new HashMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        for (String tip : tips) {
+            if (tip != null && !tip.isBlank()) {
+                pending.push(tip);
+            }
+        }
+        while (!pending.isEmpty()) {
+            String objectId = pending.pop();
+            if (nodes.containsKey(objectId)) {
+                continue;
+            }
+            Node node = load(objectId, objectReader, previous);
+            nodes.put(objectId, node);
+            for (String parent : node.parents) {
+                pending.push(parent);
+            }
+        }
+        return nodes;
+    }
+
+    private Node load(String objectId, ObjectReader objectReader, CommitGraphFile previous) {
+        int position = previous == null ? -1 : previous.position(objectId);
+        if (position >= 0) {
+            List<String> parents = new ArrayList<>(previous.parentCountAt(position));
+            for (int i = 0; i < previous.parentCountAt(position); i++) {
+                parents.add(previous.objectIdAt(previous.parentAt(position, i)));
+            }
+            return new Node(previous.treeOidAt(position), parents, previous.commitTimeAt(position));
+        }
+        CommitHeader header = CommitHeader.parse(objectReader.readRaw(objectId));
+        if (header.treeOid == null) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_COMMIT_OBJECT.message());
+        }
+        return new Node(header.treeOid, header.parents, header.commitTimeMillis);
+    }
+
+    private void computeGeneration(String objectId, Map<String, Node> nodes) {
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(objectId);
+        while (!stack.isEmpty()) {
+            Node node = nodes.get(stack.peek());
+            if (node.generation > 0) {
+                stack.pop();
+                continue;
+            }
+            int generation = 1;
+            boolean ready = true;
+            for (String parent : node.parents) {
+                Node parentNode = nodes.get(parent);
+                if (parentNode.generation == 0) {
+                    stack.push(parent);
+                    ready = false;
+                } else {
+                    generation = Math.max(generation, parentNode.generation + 1);
+                }
+            }
+            if (ready) {
+                node.generation = generation;
+                stack.pop();
+            }
+        }
+    }
+
+    private byte[] encode(List<String> objectIds, Map<String, Node> nodes, Map<String, Integer> positions) {
+        int parentCount = 0;
+        for (Node node : nodes.values()) {
+            parentCount += node.parents.size();
+        }
+        long length = CommitGraphFile.HEADER_LENGTH + CommitGraphFile.FANOUT_LENGTH
+                + (long) objectIds.size() * (CommitGraphFile.OID_LENGTH + CommitGraphFile.RECORD_LENGTH)
+                + (long) parentCount * Integer.BYTES + CommitGraphFile.TRAILER_LENGTH;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ErrorCode.COMMIT_GRAPH_WRITE_FAILED.message());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        buffer.put(CommitGraphFile.MAGIC).putInt(CommitGraphFile.VERSION).putInt(objectIds.size()).putInt(parentCount);
+
+        int[] fanout = new int[CommitGraphFile.FANOUT_SIZE];
+        for (String objectId : objectIds) {
+            fanout[Integer.parseInt(objectId.substring(0, 2), 16)]++;
+        }
+        int cumulative = 0;
+        for (int count : fanout) {
+            cumulative += count;
+            buffer.putInt(cumulative);
+        }
+        for (String objectId : objectIds) {
+            buffer.put(HexFormat.of().parseHex(objectId));
+        }
+        int parentIndex = 0;
+        for (String objectId : objectIds) {
+            Node node = nodes.get(objectId);
+            buffer.put(HexFormat.of().parseHex(node.treeOid));
+            buffer.putInt(node.generation).putInt(node.parents.size()).putInt(parentIndex).putLong(node.commitTimeMillis);
+            parentIndex += node.parents.size();
+        }
+        for (String objectId : objectIds) {
+            for (String parent : nodes.get(objectId).parents) {
+                buffer.putInt(positions.get(parent));
+            }
+        }
+        MessageDigest digest = newSha1();
+        digest.update(buffer.array(), 0, buffer.position());
+        buffer.put(digest.digest());
+        return buffer.array();
+    }
+
+    private void writeFile(byte[] content) {
+        Path graphPath = CommitGraphFile.path(rootDirectoryPath);
+        Path tempPath = null;
+        try {
+            Files.createDirectories(graphPath.getParent());
+            tempPath = Files.createTempFile(graphPath.getParent(), TEMP_PREFIX, null);
+            Files.write(tempPath, content);
+            Files.move(tempPath, graphPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.COMMIT_GRAPH_WRITE_FAILED.message());
+        } finally {
+            deleteQuietly(tempPath);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ErrorCode.SHA1_NOT_AVAILABLE.message());
+        }
+    }
+
+    private static final class Node {
+        final String treeOid;
+        final List<String> parents;
+        final long commitTimeMillis;
+        int generation;
+
+        Node(String treeOid, List<String> parents, long commitTimeMillis) {
+            this.treeOid = treeOid;
+            this.parents = parents;
+            this.commitTimeMillis = commitTimeMillis;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package app.repository.graph;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+final class CommitHeader {
+    private static final String TREE_PREFIX = "tree ";
+    private static final String PARENT_PREFIX = "parent ";
+    private static final String DATE_PREFIX = "date ";
+
+    final String treeOid;
+    final List<String> parents;
+    final long commitTimeMillis;
+
+    private CommitHeader(String treeOid, List<String> parents, long commitTimeMillis) {
+        this.treeOid = treeOid;
+        this.parents = parents;
+        this.commitTimeMillis = commitTimeMillis;
+    }
+
+    static CommitHeader parse(byte[] commitContent) {
+        String content = new String(commitContent, StandardCharsets.UTF_8);
+        String treeOid = null;
+        List<String> parents = new ArrayList<>(1);
+        long commitTimeMillis = 0L;
+        for (String line : content.split("\n")) {
+            if (line.isBlank()) {
+                break;
+            }
+            if (line.startsWith(TREE_PREFIX)) {
+                treeOid = line.substring(TREE_PREFIX.length()).trim();
+            } else if (line.startsWith(PARENT_PREFIX)) {
+                String parent = line.substring(PARENT_PREFIX.length()).trim();
+                if (!parent.isEmpty()) {
+                    parents.add(parent);
+                }
+            } else if (line.startsWith(DATE_PREFIX)) {
+                commitTimeMillis = parseTime(line.substring(DATE_PREFIX.length()).trim());
+            }
+        }
+        return new CommitHeader(treeOid, parents, commitTimeMillis);
+    }
+
+    private static long parseTime(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package app.repository.graph;
+
+import app.domain.Tree;
+import app.repository.ObjectReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+public final class ObjectWalk {
+    private static final int UNINTERESTING = 1;
+    private static final int QUEUED = 1 << 1;
+    private static final int POPPED = 1 << 2;
+
+    private final ObjectReader objectReader;
+    private final CommitGraph commitGraph;
+
+    public ObjectWalk(ObjectReader objectReader, CommitGraph commitGraph) {
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.commitGraph = Objects.requireNonNull(commitGraph, "commitGraph");
+    }
+
+    public List<String> missingObjects(Collection<String> wants, Collection<String> haves) {
+        Set<String> commonHaves = new LinkedHashSet<>();
+        for (String have : haves) {
+            if (have != null && !have.isBlank() && objectReader.contains(have)) {
+                commonHaves.add(have);
+            }
+        }
+        List<String> objectIds = new ArrayList<>();
+        Set<String> emitted = new HashSet<>();
+        for (String commit : newCommitsOldestFirst(wants, commonHaves)) {
+            String treeOid = objectReader.readCommit(commit).treeOid();
+            List<String> baseTreeOids = new ArrayList<>();
+            for (String parent : commitGraph.parents(commit)) {
+                baseTreeOids.add(objectReader.readCommit(parent).treeOid());
+            }
+            collectTree(treeOid, baseTreeOids, emitted, objectIds);
+            objectIds.add(commit);
+        }
+        return objectIds;
+    }
+
+    private List<String> newCommitsOldestFirst(Collection<String> wants, Set<String> haves) {
+        Map<String, Integer> flags = new HashMap<>();
+        Map<String, List<String>> parentsByCommit = new HashMap<>();
+        PriorityQueue<CommitGraph.DatedCommit> queue = new PriorityQueue<>(CommitGraph.NEWEST_FIRST);
+        for (String have : haves) {
+            flags.put(have, UNINTERESTING | QUEUED);
+            queue.add(commitGraph.datedCommit(have));
+        }
+        int interestingCount = 0;
+        for (String want : wants) {
+            if (!flags.containsKey(want)) {
+                flags.put(want, QUEUED);
+                queue.add(commitGraph.datedCommit(want));
+                interestingCount++;
+            }
+        }
+
+        List<String> popped = new ArrayList<>();
+        while (interestingCount > 0) {
+            CommitGraph.DatedCommit commit = queue.poll();
+            int commitFlags = flags.get(commit.objectId());
+            flags.put(commit.objectId(), commitFlags | POPPED);
+            parentsByCommit.put(commit.objectId(), commit.parents());
+            boolean uninteresting = (commitFlags & UNINTERESTING) != 0;
+            if (!uninteresting) {
+                interestingCount--;
+                popped.add(commit.objectId());
+            }
+            for (String parent : commit.parents()) {
+                if (uninteresting) {
+                    interestingCount -= markUninteresting(parent, flags, parentsByCommit);
+                }
+                int parentFlags = flags.getOrDefault(parent, 0);
+                if ((parentFlags & QUEUED) == 0) {
+                    flags.put(parent, parentFlags | QUEUED);
+                    queue.add(commitGraph.datedCommit(parent));
+                    if ((parentFlags & UNINTERESTING) == 0) {
+                        interestingCount++;
+                    }
+                }
+            }
+        }
+
+        Set<String> newCommits = new LinkedHashSet<>();
+        for (int i = popped.size() - 1; i >= 0; i--) {
+            if ((flags.get(popped.get(i)) & UNINTERESTING) == 0) {
+                newCommits.add(popped.get(i));
+            }
+        }
+        return parentsFirst(newCommits, parentsByCommit);
+    }
+
+    private int markUninteresting(String commit, Map<String, Integer> flags,
+                                  Map<String, List<String>> parentsByCommit) {
+        int leftQueue = 0;
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(commit);
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            int currentFlags = flags.getOrDefault(current, 0);
+            if ((currentFlags & UNINTERESTING) != 0) {
+                continue;
+            }
+            flags.put(current, currentFlags | UNINTERESTING);
+            if ((currentFlags & POPPED) != 0) {
+                parentsByCommit.get(current).forEach(pending::push);
+            } else if ((currentFlags & QUEUED) != 0) {
+                leftQueue++;
+            }
+        }
+        return leftQueue;
+    }
+
+    private List<String> parentsFirst(Set<String> commits, Map<String, List<String>> parentsByCommit) {
+        List<String> ordered = new ArrayList<>(commits.size());
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        Deque<Boolean> expanded = new ArrayDeque<>();
+        for (String commit : commits) {
+            pending.push(commit);
+            expanded.push(false);
+            while (!pending.isEmpty()) {
+                String current = pending.pop();
+                if (expanded.pop()) {
+                    ordered.add(current);
+                    continue;
+                }
+                if (!visited.add(current)) {
+                    continue;
+                }
+                pending.push(current);
+                expanded.push(true);
+                for (String parent : parentsByCommit.get(current)) {
+                    if (commits.contains(parent) && !visited.contains(parent)) {
+                        pending.push(parent);
+                        expanded.push(false);
+                    }
+                }
+            }
+        }
+        return ordered;
+    }
+
+    private void collectTree(String treeOid, List<String> baseTreeOids, Set<String> emitted,
+                             List<String> objectIds) {
+        if (baseTreeOids.contains(treeOid) || emitted.contains(treeOid)) {
+            return;
+        }
+        Tree tree = objectReader.readTree(treeOid);
+        List<Tree> bases = new ArrayList<>(baseTreeOids.size());
+        for (String baseTreeOid : baseTreeOids) {
+            bases.add(objectReader.readTree(baseTreeOid));
+        }
+        for (Map.Entry<String, String> entry : tree.entries().entrySet()) {
+            String blobOid = entry.getValue();
+            if (!emitted.contains(blobOid) && !existsInBase(bases, entry.getKey(), blobOid)) {
+                emitted.add(blobOid);
+                objectIds.add(blobOid);
+            }
+        }
+        for (Map.Entry<String, String> subtree : tree.subtrees().entrySet()) {
+            List<String> baseSubtreeOids = new ArrayList<>();
+            for (Tree base : bases) {
+                String baseSubtreeOid = base.subtrees().get(subtree.getKey());
+                if (baseSubtreeOid != null) {
+                    baseSubtreeOids.add(baseSubtreeOid);
+                }
+            }
+            collectTree(subtree.getValue(), baseSubtreeOids, emitted, objectIds);
+        }
+        emitted.add(treeOid);
+        objectIds.add(treeOid);
+    }
+
+    private boolean existsInBase(List<Tree> bases, String name, String blobOid) {
+        for (Tree base : bases) {
+            if (blobOid.equals(base.entries().get(name))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,251 @@
+package app.repository.ignore;
+
+import app.exception.ErrorCode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+public final class IgnoreRules {
+    public static final String IGNORE_FILE = ".javaGitignore";
+
+    private static final IgnoreRules EMPTY = new IgnoreRules(List.of());
+    private static final String GLOB_CHARACTERS = "*?[";
+
+    private final Map<String, List<Rule>> nameRules = new HashMap<>();
+    private final List<Rule> nameGlobRules = new ArrayList<>();
+    private final TrieNode pathRules = new TrieNode();
+    private final boolean empty;
+
+    private IgnoreRules(List<String> lines) {
+        int order = 0;
+        for (String line : lines) {
+            Rule rule = Rule.parse(line, order);
+            if (rule != null) {
+                register(rule);
+                order++;
+            }
+        }
+        this.empty = order == 0;
+    }
+
+    public static IgnoreRules load(Path rootDirectoryPath) {
+        Path ignoreFilePath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath").resolve(IGNORE_FILE);
+        if (!Files.isRegularFile(ignoreFilePath)) {
+            return EMPTY;
+        }
+        try {
+            return compile(Files.readAllLines(ignoreFilePath, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
+    }
+
+    public static IgnoreRules compile(List<String> lines) {
+        return new IgnoreRules(Objects.requireNonNull(lines, "lines"));
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public boolean isIgnored(String relPath, boolean directory) {
+        if (empty || relPath.isEmpty()) {
+            return false;
+        }
+        String[] segments = relPath.split("/");
+        String name = segments[segments.length - 1];
+        Rule matched = null;
+        for (Rule rule : nameRules.getOrDefault(name, List.of())) {
+            matched = later(matched, rule, directory);
+        }
+        for (Rule rule : nameGlobRules) {
+            if (rule.matches(name)) {
+                matched = later(matched, rule, directory);
+            }
+        }
+        TrieNode node = pathRules;
+        int offset = 0;
+        for (int depth = 0; node != null; depth++) {
+            for (Rule rule : node.rules) {
+                if (rule.matchesRemainder(relPath, offset, depth == segments.length)) {
+                    matched = later(matched, rule, directory);
+                }
+            }
+            if (depth == segments.length) {
+                break;
+            }
+            node = node.children.get(segments[depth]);
+            offset += segments[depth].length() + 1;
+        }
+        return matched != null && !matched.negated;
+    }
+
+    public boolean isPathIgnored(String relPath) {
+        if (empty) {
+            return false;
+        }
+        int separator = relPath.indexOf('/');
+        while (separator >= 0) {
+            if (isIgnored(relPath.substring(0, separator), true)) {
+                return true;
+            }
+            separator = relPath.indexOf('/', separator + 1);
+        }
+        return isIgnored(relPath, false);
+    }
+
+    private Rule later(Rule current, Rule candidate, boolean directory) {
+        if (candidate.directoryOnly && !directory) {
+            return current;
+        }
+        if (current == null || candidate.order > current.order) {
+            return candidate;
+        }
+        return current;
+    }
+
+    private void register(Rule rule) {
+        if (!rule.anchored) {
+            if (rule.glob == null) {
+                nameRules.computeIfAbsent(rule.literal, key -> new ArrayList<>()).add(rule);
+            } else {
+                nameGlobRules.add(rule);
+            }
+            return;
+        }
+        TrieNode node = pathRules;
+        for (String segment : rule.literalSegments) {
+            node = node.children.computeIfAbsent(segment, key -> new TrieNode());
+        }
+        node.rules.add(rule);
+    }
+
+    private static boolean hasGlob(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(segment.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Pattern toPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int length = glob.length();
+        for (int i = 0; i < length; i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                boolean doubleStar = i + 1 < length && glob.charAt(i + 1) == '*';
+                if (!doubleStar) {
+                    regex.append("[^/]*");
+                } else if (i + 2 < length && glob.charAt(i + 2) == '/') {
+                    regex.append("(?:.*/)?");
+                    i += 2;
+                } else {
+                    regex.append(".*");
+                    i++;
+                }
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else if (c == '[') {
+                int end = glob.indexOf(']', i + 2);
+                if (end < 0) {
+                    regex.append("\\[");
+                    continue;
+                }
+                String body = glob.substring(i + 1, end);
+                if (body.startsWith("!")) {
+                    body = "^" + body.substring(1);
+                }
+                regex.append('[').append(body.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                i = end;
+            } else if (c == '\\' && i + 1 < length) {
+                regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static final class TrieNode {
+        private final Map<String, TrieNode> children = new HashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+    }
+
+    private static final class Rule {
+        private final int order;
+        private final boolean negated;
+        private final boolean directoryOnly;
+        private final boolean anchored;
+        private final String literal;
+        private final List<String> literalSegments;
+        private final Pattern glob;
+
+        private Rule(int order, boolean negated, boolean directoryOnly, boolean anchored, String literal,
+                     List<String> literalSegments, Pattern glob) {
+            this.order = order;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+            this.literal = literal;
+            this.literalSegments = literalSegments;
+            this.glob = glob;
+        }
+
+        static Rule parse(String line, int order) {
+            String pattern = line.strip();
+            if (pattern.isEmpty() || pattern.startsWith("#")) {
+                return null;
+            }
+            boolean negated = pattern.startsWith("!");
+            if (negated) {
+                pattern = pattern.substring(1);
+            }
+            boolean directoryOnly = pattern.endsWith("/");
+            while (pattern.endsWith("/")) {
+                pattern = pattern.substring(0, pattern.length() - 1);
+            }
+            boolean anchored = pattern.indexOf('/') >= 0;
+            while (pattern.startsWith("/")) {
+                pattern = pattern.substring(1);
+            }
+            if (pattern.isEmpty()) {
+                return null;
+            }
+            if (!anchored) {
+                Pattern glob = hasGlob(pattern) ? toPattern(pattern) : null;
+                return new Rule(order, negated, directoryOnly, false, pattern, List.of(), glob);
+            }
+            String[] segments = pattern.split("/");
+            List<String> literalSegments = new ArrayList<>();
+            int index = 0;
+            while (index < segments.length && !hasGlob(segments[index])) {
+                literalSegments.add(segments[index]);
+                index++;
+            }
+            Pattern glob = index == segments.length
+                    ? null
+                    : toPattern(String.join("/", List.of(segments).subList(index, segments.length)));
+            return new Rule(order, negated, directoryOnly, true, pattern, List.copyOf(literalSegments), glob);
+        }
+
+        boolean matches(String name) {
+            return glob.matcher(name).matches();
+        }
+
+        boolean matchesRemainder(String relPath, int offset, boolean exhausted) {
+            if (glob == null) {
+                return exhausted;
+            }
+            return !exhausted && glob.matcher(relPath).region(offset, relPath.length()).matches();
+        }
+    }
+}
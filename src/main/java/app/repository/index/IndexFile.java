@@ -0,0 +1,230 @@
+package app.repository.index;
+
+import app.domain.CachedDirectory;
+import app.domain.FileStat;
+import app.domain.Index;
+import app.exception.ErrorCode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class IndexFile {
+    static final byte[] MAGIC = {'D', 'I', 'R', 'C'};
+    static final int VERSION = 3;
+    static final int HEADER_LENGTH = 16;
+    static final int ENTRY_LENGTH = 64;
+    static final int OID_LENGTH = 20;
+    static final int FLAGS_OFFSET = 20;
+    static final int MODIFIED_TIME_OFFSET = 24;
+    static final int CHANGED_TIME_OFFSET = 32;
+    static final int SIZE_OFFSET = 40;
+    static final int FILE_KEY_OFFSET = 48;
+    static final int PATH_OFFSET_OFFSET = 56;
+    static final int PATH_LENGTH_OFFSET = 60;
+    static final int FLAG_HAS_STAT = 1;
+    static final int TRAILER_LENGTH = 20;
+    static final byte[] CACHED_TREES_SIGNATURE = {'T', 'R', 'E', 'E'};
+    static final byte[] UNTRACKED_CACHE_SIGNATURE = {'U', 'N', 'T', 'R'};
+    static final int EXTENSION_HEADER_LENGTH = 8;
+    static final int UNTRACKED_FIXED_LENGTH = 4 * Long.BYTES + 2 * Integer.BYTES;
+    private static final String TEMP_PREFIX = "index_";
+    private static final String TEMP_SUFFIX = ".lock";
+
+    private IndexFile() {
+    }
+
+    public static boolean isIndexFile(Path indexFilePath) throws IOException {
+        try (InputStream in = Files.newInputStream(indexFilePath)) {
+            byte[] header = in.readNBytes(MAGIC.length + Integer.BYTES);
+            if (header.length != MAGIC.length + Integer.BYTES) {
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            return Arrays.equals(magic, MAGIC) && buffer.getInt() == VERSION;
+        }
+    }
+
+    public static Index read(Path indexFilePath) {
+        try (FileChannel channel = FileChannel.open(indexFilePath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            MappedIndexEntries entries = new MappedIndexEntries(buffer);
+            return Index.ofReadOnly(entries.stagedFiles(), entries.fileStats(), entries.cachedTrees(),
+                    entries.untrackedCache());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.INDEX_FILE_READ_FAILED.message());
+        }
+    }
+
+    public static void write(Path indexFilePath, Index index) {
+        List<SortedEntry> entries = sortEntries(index);
+        Path tempFilePath = null;
+        try {
+            tempFilePath = Files.createTempFile(indexFilePath.getParent(), TEMP_PREFIX, TEMP_SUFFIX);
+            ByteArrayOutputStream extensions = new ByteArrayOutputStream();
+            extensions.writeBytes(encodeCachedTrees(index.cachedTrees()));
+            extensions.writeBytes(encodeUntrackedCache(index.untrackedCache()));
+            writeEntries(tempFilePath, entries, extensions.toByteArray());
+            Files.move(tempFilePath, indexFilePath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.INDEX_FILE_WRITE_FAILED.message());
+        } finally {
+            deleteQuietly(tempFilePath);
+        }
+    }
+
+    private static List<SortedEntry> sortEntries(Index index) {
+        List<SortedEntry> entries = new ArrayList<>(index.stagedFiles().size());
+        for (Map.Entry<String, String> stagedFile : index.stagedFiles().entrySet()) {
+            String path = stagedFile.getKey();
+            entries.add(new SortedEntry(path.getBytes(StandardCharsets.UTF_8), stagedFile.getValue(),
+                    index.fileStat(path)));
+        }
+        entries.sort((left, right) -> Arrays.compareUnsigned(left.path, right.path));
+        return entries;
+    }
+
+    private static byte[] encodeCachedTrees(Map<String, String> cachedTrees) {
+        if (cachedTrees.isEmpty()) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (Map.Entry<String, String> cachedTree : new TreeMap<>(cachedTrees).entrySet()) {
+            data.writeBytes(cachedTree.getKey().getBytes(StandardCharsets.UTF_8));
+            data.write(0);
+            data.writeBytes(parseObjectId(cachedTree.getValue()));
+        }
+        ByteBuffer extension = ByteBuffer.allocate(EXTENSION_HEADER_LENGTH + data.size());
+        extension.put(CACHED_TREES_SIGNATURE).putInt(data.size()).put(data.toByteArray());
+        return extension.array();
+    }
+
+    private static byte[] encodeUntrackedCache(Map<String, CachedDirectory> untrackedCache) {
+        if (untrackedCache.isEmpty()) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteBuffer fixed = ByteBuffer.allocate(UNTRACKED_FIXED_LENGTH);
+        for (Map.Entry<String, CachedDirectory> entry : new TreeMap<>(untrackedCache).entrySet()) {
+            CachedDirectory cachedDirectory = entry.getValue();
+            FileStat stat = cachedDirectory.stat();
+            data.writeBytes(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            data.write(0);
+            fixed.clear();
+            fixed.putLong(stat.modifiedTimeMillis()).putLong(stat.changedTimeMillis())
+                    .putLong(stat.size()).putLong(stat.fileKey())
+                    .putInt(cachedDirectory.files().size()).putInt(cachedDirectory.directories().size());
+            data.writeBytes(fixed.array());
+            for (String name : cachedDirectory.files()) {
+                data.writeBytes(name.getBytes(StandardCharsets.UTF_8));
+                data.write(0);
+            }
+            for (String name : cachedDirectory.directories()) {
+                data.writeBytes(name.getBytes(StandardCharsets.UTF_8));
+                data.write(0);
+            }
+        }
+        ByteBuffer extension = ByteBuffer.allocate(EXTENSION_HEADER_LENGTH + data.size());
+        extension.put(UNTRACKED_CACHE_SIGNATURE).putInt(data.size()).put(data.toByteArray());
+        return extension.array();
+    }
+
+    private static void writeEntries(Path path, List<SortedEntry> entries, byte[] extensions) throws IOException {
+        long pathTableLength = 0;
+        for (SortedEntry entry : entries) {
+            pathTableLength += entry.path.length;
+        }
+        long fileLength = HEADER_LENGTH + (long) entries.size() * ENTRY_LENGTH + pathTableLength
+                + extensions.length + TRAILER_LENGTH;
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ErrorCode.INDEX_FILE_WRITE_FAILED.message());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileLength);
+        buffer.put(MAGIC).putInt(VERSION).putInt(entries.size()).putInt((int) pathTableLength);
+        int pathOffset = 0;
+        for (SortedEntry entry : entries) {
+            int entryOffset = buffer.position();
+            buffer.put(parseObjectId(entry.objectId));
+            FileStat fileStat = entry.fileStat;
+            if (fileStat != null) {
+                buffer.put(entryOffset + FLAGS_OFFSET, (byte) FLAG_HAS_STAT);
+                buffer.putLong(entryOffset + MODIFIED_TIME_OFFSET, fileStat.modifiedTimeMillis());
+                buffer.putLong(entryOffset + CHANGED_TIME_OFFSET, fileStat.changedTimeMillis());
+                buffer.putLong(entryOffset + SIZE_OFFSET, fileStat.size());
+                buffer.putLong(entryOffset + FILE_KEY_OFFSET, fileStat.fileKey());
+            }
+            buffer.putInt(entryOffset + PATH_OFFSET_OFFSET, pathOffset);
+            buffer.putInt(entryOffset + PATH_LENGTH_OFFSET, entry.path.length);
+            buffer.position(entryOffset + ENTRY_LENGTH);
+            pathOffset += entry.path.length;
+        }
+        for (SortedEntry entry : entries) {
+            buffer.put(entry.path);
+        }
+        buffer.put(extensions);
+        MessageDigest digest = newSha1();
+        digest.update(buffer.array(), 0, buffer.position());
+        buffer.put(digest.digest());
+        Files.write(path, buffer.array());
+    }
+
+    private static byte[] parseObjectId(String objectId) {
+        try {
+            byte[] rawOid = HexFormat.of().parseHex(objectId);
+            if (rawOid.length != OID_LENGTH) {
+                throw new IllegalArgumentException(ErrorCode.INDEX_FILE_WRITE_FAILED.message());
+            }
+            return rawOid;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(ErrorCode.INDEX_FILE_WRITE_FAILED.message());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    static MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ErrorCode.SHA1_NOT_AVAILABLE.message());
+        }
+    }
+
+    private static final class SortedEntry {
+        final byte[] path;
+        final String objectId;
+        final FileStat fileStat;
+
+        SortedEntry(byte[] path, String objectId, FileStat fileStat) {
+            this.path = path;
+            this.objectId = objectId;
+            this.fileStat = fileStat;
+        }
+    }
+}
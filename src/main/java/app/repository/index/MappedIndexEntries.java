@@ -0,0 +1,350 @@
+package app.repository.index;
+
+import app.domain.CachedDirectory;
+import app.domain.FileStat;
+import app.exception.ErrorCode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+final class MappedIndexEntries {
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int pathTableOffset;
+    private final int pathTableLength;
+    private Map<String, String> cachedTrees = Map.of();
+    private Map<String, CachedDirectory> untrackedCache = Map.of();
+
+    MappedIndexEntries(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < IndexFile.HEADER_LENGTH + IndexFile.TRAILER_LENGTH) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+        }
+        byte[] magic = new byte[IndexFile.MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, IndexFile.MAGIC) || buffer.getInt(IndexFile.MAGIC.length) != IndexFile.VERSION) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+        }
+        this.entryCount = buffer.getInt(8);
+        this.pathTableLength = buffer.getInt(12);
+        if (entryCount < 0 || pathTableLength < 0) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+        }
+        long tableOffset = IndexFile.HEADER_LENGTH + (long) entryCount * IndexFile.ENTRY_LENGTH;
+        if (tableOffset + pathTableLength + IndexFile.TRAILER_LENGTH > buffer.capacity()) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+        }
+        this.pathTableOffset = (int) tableOffset;
+        verifyChecksum();
+        readExtensions();
+    }
+
+    private void readExtensions() {
+        int offset = pathTableOffset + pathTableLength;
+        int end = buffer.capacity() - IndexFile.TRAILER_LENGTH;
+        while (offset < end) {
+            if (offset + IndexFile.EXTENSION_HEADER_LENGTH > end) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+            }
+            byte[] signature = new byte[IndexFile.CACHED_TREES_SIGNATURE.length];
+            buffer.get(offset, signature);
+            int length = buffer.getInt(offset + signature.length);
+            int dataOffset = offset + IndexFile.EXTENSION_HEADER_LENGTH;
+            if (length < 0 || (long) dataOffset + length > end) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+            }
+            if (Arrays.equals(signature, IndexFile.CACHED_TREES_SIGNATURE)) {
+                cachedTrees = readCachedTrees(dataOffset, dataOffset + length);
+            } else if (Arrays.equals(signature, IndexFile.UNTRACKED_CACHE_SIGNATURE)) {
+                untrackedCache = readUntrackedCache(dataOffset, dataOffset + length);
+            }
+            offset = dataOffset + length;
+        }
+    }
+
+    private Map<String, CachedDirectory> readUntrackedCache(int from, int to) {
+        Map<String, CachedDirectory> directories = new HashMap<>();
+        int[] cursor = {from};
+        while (cursor[0] < to) {
+            String path = readName(cursor, to);
+            if (cursor[0] + IndexFile.UNTRACKED_FIXED_LENGTH > to) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+            }
+            int position = cursor[0];
+            FileStat stat = new FileStat(buffer.getLong(position), buffer.getLong(position + 8),
+                    buffer.getLong(position + 16), buffer.getLong(position + 24));
+            int fileCount = buffer.getInt(position + 32);
+            int directoryCount = buffer.getInt(position + 36);
+            if (fileCount < 0 || directoryCount < 0) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+            }
+            cursor[0] = position + IndexFile.UNTRACKED_FIXED_LENGTH;
+            List<String> files = new ArrayList<>(Math.min(fileCount, to - cursor[0]));
+            for (int i = 0; i < fileCount; i++) {
+                files.add(readName(cursor, to));
+            }
+            List<String> subdirectories = new ArrayList<>(Math.min(directoryCount, to - cursor[0]));
+            for (int i = 0; i < directoryCount; i++) {
+                subdirectories.add(readName(cursor, to));
+            }
+            directories.put(path, new CachedDirectory(stat, files, subdirectories));
+        }
+        return Collections.unmodifiableMap(directories);
+    }
+
+    private String readName(int[] cursor, int to) {
+        int terminator = cursor[0];
+        while (terminator < to && buffer.get(terminator) != 0) {
+            terminator++;
+        }
+        if (terminator >= to) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+        }
+        byte[] name = new byte[terminator - cursor[0]];
+        buffer.get(cursor[0], name);
+        cursor[0] = terminator + 1;
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private Map<String, String> readCachedTrees(int from, int to) {
+        Map<String, String> trees = new HashMap<>();
+        int cursor = from;
+        while (cursor < to) {
+            int terminator = cursor;
+            while (terminator < to && buffer.get(terminator) != 0) {
+                terminator++;
+            }
+            if (terminator + 1 + IndexFile.OID_LENGTH > to) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+            }
+            byte[] path = new byte[terminator - cursor];
+            buffer.get(cursor, path);
+            byte[] rawOid = new byte[IndexFile.OID_LENGTH];
+            buffer.get(terminator + 1, rawOid);
+            trees.put(new String(path, StandardCharsets.UTF_8), HexFormat.of().formatHex(rawOid));
+            cursor = terminator + 1 + IndexFile.OID_LENGTH;
+        }
+        return Collections.unmodifiableMap(trees);
+    }
+
+    private void verifyChecksum() {
+        int contentLength = buffer.capacity() - IndexFile.TRAILER_LENGTH;
+        MessageDigest digest = IndexFile.newSha1();
+        digest.update(buffer.duplicate().position(0).limit(contentLength));
+        byte[] expected = new byte[IndexFile.TRAILER_LENGTH];
+        buffer.get(contentLength, expected);
+        if (!MessageDigest.isEqual(digest.digest(), expected)) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+        }
+    }
+
+    Map<String, String> stagedFiles() {
+        return new StagedFilesView();
+    }
+
+    Map<String, FileStat> fileStats() {
+        return new FileStatsView();
+    }
+
+    Map<String, String> cachedTrees() {
+        return cachedTrees;
+    }
+
+    Map<String, CachedDirectory> untrackedCache() {
+        return untrackedCache;
+    }
+
+    int find(String path) {
+        byte[] key = path.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePathAt(mid, key);
+            if (cmp == 0) {
+                return mid;
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int comparePathAt(int position, byte[] key) {
+        int entryOffset = entryOffset(position);
+        int pathOffset = pathTableOffset + buffer.getInt(entryOffset + IndexFile.PATH_OFFSET_OFFSET);
+        int pathLength = buffer.getInt(entryOffset + IndexFile.PATH_LENGTH_OFFSET);
+        int length = Math.min(pathLength, key.length);
+        for (int i = 0; i < length; i++) {
+            int cmp = Integer.compare(buffer.get(pathOffset + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(pathLength, key.length);
+    }
+
+    String pathAt(int position) {
+        int entryOffset = entryOffset(position);
+        int pathOffset = buffer.getInt(entryOffset + IndexFile.PATH_OFFSET_OFFSET);
+        int pathLength = buffer.getInt(entryOffset + IndexFile.PATH_LENGTH_OFFSET);
+        if (pathOffset < 0 || pathLength < 0 || (long) pathOffset + pathLength > pathTableLength) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_INDEX_FILE.message());
+        }
+        byte[] path = new byte[pathLength];
+        buffer.get(pathTableOffset + pathOffset, path);
+        return new String(path, StandardCharsets.UTF_8);
+    }
+
+    String objectIdAt(int position) {
+        byte[] rawOid = new byte[IndexFile.OID_LENGTH];
+        buffer.get(entryOffset(position), rawOid);
+        return HexFormat.of().formatHex(rawOid);
+    }
+
+    FileStat fileStatAt(int position) {
+        int entryOffset = entryOffset(position);
+        if ((buffer.get(entryOffset + IndexFile.FLAGS_OFFSET) & IndexFile.FLAG_HAS_STAT) == 0) {
+            return null;
+        }
+        return new FileStat(
+                buffer.getLong(entryOffset + IndexFile.MODIFIED_TIME_OFFSET),
+                buffer.getLong(entryOffset + IndexFile.CHANGED_TIME_OFFSET),
+                buffer.getLong(entryOffset + IndexFile.SIZE_OFFSET),
+                buffer.getLong(entryOffset + IndexFile.FILE_KEY_OFFSET));
+    }
+
+    private int entryOffset(int position) {
+        return IndexFile.HEADER_LENGTH + position * IndexFile.ENTRY_LENGTH;
+    }
+
+    private final class StagedFilesView extends AbstractMap<String, String> {
+        @Override
+        public int size() {
+            return entryCount;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String path && find(path) >= 0;
+        }
+
+        @Override
+        public String get(Object key) {
+            if (!(key instanceof String path)) {
+                return null;
+            }
+            int position = find(path);
+            return position < 0 ? null : objectIdAt(position);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return entryCount;
+                }
+
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int position;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < entryCount;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int current = position++;
+                            return new SimpleImmutableEntry<>(pathAt(current), objectIdAt(current));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private final class FileStatsView extends AbstractMap<String, FileStat> {
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public FileStat get(Object key) {
+            if (!(key instanceof String path)) {
+                return null;
+            }
+            int position = find(path);
+            return position < 0 ? null : fileStatAt(position);
+        }
+
+        @Override
+        public Set<Entry<String, FileStat>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    int count = 0;
+                    for (int position = 0; position < entryCount; position++) {
+                        if ((buffer.get(entryOffset(position) + IndexFile.FLAGS_OFFSET)
+                                & IndexFile.FLAG_HAS_STAT) != 0) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }
+
+                @Override
+                public Iterator<Entry<String, FileStat>> iterator() {
+                    return new Iterator<>() {
+                        private int position = advance(0);
+
+                        private int advance(int from) {
+                            int next = from;
+                            while (next < entryCount && fileStatAt(next) == null) {
+                                next++;
+                            }
+                            return next;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < entryCount;
+                        }
+
+                        @Override
+                        public Entry<String, FileStat> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int current = position;
+                            position = advance(position + 1);
+                            return new SimpleImmutableEntry<>(pathAt(current), fileStatAt(current));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
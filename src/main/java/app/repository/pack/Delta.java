@@ -0,0 +1,223 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class Delta {
+    static final int BLOCK_SIZE = 16;
+    private static final int MAX_INSERT_LENGTH = 0x7f;
+    private static final int MAX_COPY_LENGTH = 0xffffff;
+    private static final int MAX_CANDIDATES = 16;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int COPY_COMMAND = 0x80;
+
+    private Delta() {
+    }
+
+    static byte[] encode(byte[] base, byte[] target) {
+        if (base.length < BLOCK_SIZE || target.length < BLOCK_SIZE) {
+            return null;
+        }
+        BlockIndex blockIndex = new BlockIndex(base);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(target.length / 4 + 16);
+        VarInt.write(out, base.length);
+        VarInt.write(out, target.length);
+
+        int insertStart = 0;
+        int position = 0;
+        int hash = BlockIndex.hash(target, 0);
+        while (position + BLOCK_SIZE <= target.length) {
+            long match = blockIndex.findLongestMatch(base, target, position, hash);
+            int matchLength = (int) match;
+            if (matchLength < BLOCK_SIZE) {
+                if (position + BLOCK_SIZE < target.length) {
+                    hash = BlockIndex.roll(hash, target[position], target[position + BLOCK_SIZE]);
+                }
+                position++;
+                continue;
+            }
+            int baseOffset = (int) (match >>> 32);
+            while (position > insertStart && baseOffset > 0 && base[baseOffset - 1] == target[position - 1]) {
+                baseOffset--;
+                position--;
+                matchLength++;
+            }
+            writeInserts(out, target, insertStart, position);
+            writeCopy(out, baseOffset, matchLength);
+            position += matchLength;
+            insertStart = position;
+            if (position + BLOCK_SIZE <= target.length) {
+                hash = BlockIndex.hash(target, position);
+            }
+            if (out.size() >= target.length) {
+                return null;
+            }
+        }
+        writeInserts(out, target, insertStart, target.length);
+        if (out.size() >= target.length) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    static long resultLength(byte[] delta) {
+        ByteBuffer buffer = ByteBuffer.wrap(delta);
+        VarInt.read(buffer);
+        return VarInt.read(buffer);
+    }
+
+    static byte[] apply(byte[] base, byte[] delta) {
+        ByteBuffer buffer = ByteBuffer.wrap(delta);
+        long baseLength = VarInt.read(buffer);
+        long resultLength = VarInt.read(buffer);
+        if (baseLength != base.length || resultLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_DELTA.message());
+        }
+        byte[] result = new byte[(int) resultLength];
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            int command = buffer.get() & 0xff;
+            if ((command & COPY_COMMAND) != 0) {
+                int offset = readPackedInt(buffer, command, 0, 4);
+                int length = readPackedInt(buffer, command >>> 4, 0, 3);
+                if (length == 0 || offset < 0 || (long) offset + length > base.length
+                        || written + length > result.length) {
+                    throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_DELTA.message());
+                }
+                System.arraycopy(base, offset, result, written, length);
+                written += length;
+                continue;
+            }
+            if (command == 0 || command > buffer.remaining() || written + command > result.length) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_DELTA.message());
+            }
+            buffer.get(result, written, command);
+            written += command;
+        }
+        if (written != result.length) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_DELTA.message());
+        }
+        return result;
+    }
+
+    private static void writeInserts(ByteArrayOutputStream out, byte[] target, int from, int to) {
+        int cursor = from;
+        while (cursor < to) {
+            int length = Math.min(MAX_INSERT_LENGTH, to - cursor);
+            out.write(length);
+            out.write(target, cursor, length);
+            cursor += length;
+        }
+    }
+
+    private static void writeCopy(ByteArrayOutputStream out, int baseOffset, int length) {
+        int offset = baseOffset;
+        int remaining = length;
+        while (remaining > 0) {
+            int chunk = Math.min(MAX_COPY_LENGTH, remaining);
+            int command = COPY_COMMAND;
+            ByteArrayOutputStream operands = new ByteArrayOutputStream(7);
+            for (int i = 0; i < 4; i++) {
+                int b = (offset >>> (8 * i)) & 0xff;
+                if (b != 0) {
+                    command |= 1 << i;
+                    operands.write(b);
+                }
+            }
+            for (int i = 0; i < 3; i++) {
+                int b = (chunk >>> (8 * i)) & 0xff;
+                if (b != 0) {
+                    command |= 1 << (4 + i);
+                    operands.write(b);
+                }
+            }
+            out.write(command);
+            out.writeBytes(operands.toByteArray());
+            offset += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    private static int readPackedInt(ByteBuffer buffer, int flags, int value, int byteCount) {
+        int result = value;
+        for (int i = 0; i < byteCount; i++) {
+            if ((flags & (1 << i)) == 0) {
+                continue;
+            }
+            if (!buffer.hasRemaining()) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_DELTA.message());
+            }
+            result |= (buffer.get() & 0xff) << (8 * i);
+        }
+        return result;
+    }
+
+    private static final class BlockIndex {
+        private static final int HIGH_POWER = power(HASH_MULTIPLIER, BLOCK_SIZE - 1);
+
+        private final int[] heads;
+        private final int[] next;
+        private final int mask;
+
+        BlockIndex(byte[] base) {
+            int blockCount = base.length / BLOCK_SIZE;
+            int tableSize = Integer.highestOneBit(Math.max(1, blockCount) * 2 - 1) << 1;
+            this.heads = new int[tableSize];
+            this.next = new int[blockCount];
+            this.mask = tableSize - 1;
+            Arrays.fill(heads, -1);
+            for (int block = blockCount - 1; block >= 0; block--) {
+                int bucket = hash(base, block * BLOCK_SIZE) & mask;
+                next[block] = heads[bucket];
+                heads[bucket] = block;
+            }
+        }
+
+        long findLongestMatch(byte[] base, byte[] target, int position, int hash) {
+            int bestOffset = 0;
+            int bestLength = 0;
+            int candidates = 0;
+            for (int block = heads[hash & mask]; block >= 0 && candidates < MAX_CANDIDATES; block = next[block]) {
+                candidates++;
+                int baseOffset = block * BLOCK_SIZE;
+                int length = matchLength(base, baseOffset, target, position);
+                if (length > bestLength) {
+                    bestLength = length;
+                    bestOffset = baseOffset;
+                }
+            }
+            return ((long) bestOffset << 32) | bestLength;
+        }
+
+        private static int matchLength(byte[] base, int baseOffset, byte[] target, int position) {
+            int limit = Math.min(base.length - baseOffset, target.length - position);
+            int length = 0;
+            while (length < limit && base[baseOffset + length] == target[position + length]) {
+                length++;
+            }
+            return length;
+        }
+
+        static int hash(byte[] data, int offset) {
+            int hash = 0;
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                hash = hash * HASH_MULTIPLIER + (data[offset + i] & 0xff);
+            }
+            return hash;
+        }
+
+        static int roll(int hash, byte outgoing, byte incoming) {
+            return (hash - (outgoing & 0xff) * HIGH_POWER) * HASH_MULTIPLIER + (incoming & 0xff);
+        }
+
+        private static int power(int base, int exponent) {
+            int result = 1;
+            for (int i = 0; i < exponent; i++) {
+                result *= base;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import app.repository.ObjectStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+public final class PackDirectory {
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String OBJECTS = "objects";
+    private static final String PACK = "pack";
+    private static final String PACK_PREFIX = "pack-";
+    private static final String PACK_SUFFIX = ".pack";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path packDirectoryPath;
+    private volatile List<PackFile> packs;
+    private volatile FileTime scannedModifiedTime;
+
+    public PackDirectory(Path rootDirectoryPath) {
+        Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+        this.packDirectoryPath = rootDirectoryPath.resolve(DOT_JAVA_GIT).resolve(OBJECTS).resolve(PACK);
+    }
+
+    public Path packDirectoryPath() {
+        return packDirectoryPath;
+    }
+
+    public byte[] read(String objectId) {
+        PackFile pack = findPack(objectId);
+        if (pack == null) {
+            return null;
+        }
+        byte[] content = pack.read(objectId);
+        if (content != null || !rescanIfChanged()) {
+            return content;
+        }
+        return read(objectId);
+    }
+
+    public long size(String objectId) {
+        PackFile pack = findPack(objectId);
+        if (pack == null) {
+            return -1;
+        }
+        long size = pack.size(objectId);
+        if (size >= 0 || !rescanIfChanged()) {
+            return size;
+        }
+        return size(objectId);
+    }
+
+    public ObjectStream openStream(String objectId) {
+        PackFile pack = findPack(objectId);
+        if (pack == null) {
+            return null;
+        }
+        ObjectStream stream = pack.openStream(objectId);
+        if (stream != null || !rescanIfChanged()) {
+            return stream;
+        }
+        return openStream(objectId);
+    }
+
+    public boolean contains(String objectId) {
+        return findPack(objectId) != null;
+    }
+
+    public Set<String> listObjectIds() {
+        Set<String> objectIds = new LinkedHashSet<>();
+        for (PackFile pack : currentPacks()) {
+            PackIndex index = pack.packIndex();
+            for (int i = 0; i < index.size(); i++) {
+                objectIds.add(index.objectIdAt(i));
+            }
+        }
+        return objectIds;
+    }
+
+    public List<PackFile> packs() {
+        return currentPacks();
+    }
+
+    private PackFile findPack(String objectId) {
+        if (PackIndex.parseObjectId(objectId) == null) {
+            return null;
+        }
+        PackFile pack = search(currentPacks(), objectId);
+        if (pack != null || !rescanIfChanged()) {
+            return pack;
+        }
+        return search(packs, objectId);
+    }
+
+    private PackFile search(List<PackFile> candidates, String objectId) {
+        for (PackFile pack : candidates) {
+            if (pack.contains(objectId)) {
+                return pack;
+            }
+        }
+        return null;
+    }
+
+    private List<PackFile> currentPacks() {
+        List<PackFile> current = packs;
+        if (current != null) {
+            return current;
+        }
+        rescanIfChanged();
+        return packs;
+    }
+
+    private synchronized boolean rescanIfChanged() {
+        FileTime modifiedTime = readModifiedTime();
+        if (packs != null && Objects.equals(modifiedTime, scannedModifiedTime)) {
+            return false;
+        }
+        packs = scan();
+        scannedModifiedTime = modifiedTime;
+        return true;
+    }
+
+    private FileTime readModifiedTime() {
+        try {
+            if (!Files.isDirectory(packDirectoryPath)) {
+                return null;
+            }
+            return Files.getLastModifiedTime(packDirectoryPath);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private List<PackFile> scan() {
+        if (!Files.isDirectory(packDirectoryPath)) {
+            return List.of();
+        }
+        List<PackFile> found = new ArrayList<>();
+        try (var files = Files.list(packDirectoryPath)) {
+            files.filter(this::isPackIndex)
+                    .sorted()
+                    .forEach(indexPath -> addPack(found, indexPath));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.PACK_READ_FAILED.message());
+        }
+        return List.copyOf(found);
+    }
+
+    private boolean isPackIndex(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(PACK_PREFIX) && fileName.endsWith(INDEX_SUFFIX);
+    }
+
+    private void addPack(List<PackFile> found, Path indexPath) {
+        String indexFileName = indexPath.getFileName().toString();
+        String packFileName = indexFileName.substring(0, indexFileName.length() - INDEX_SUFFIX.length())
+                + PACK_SUFFIX;
+        Path packPath = indexPath.resolveSibling(packFileName);
+        if (!Files.exists(packPath)) {
+            return;
+        }
+        found.add(new PackFile(packPath, new PackIndex(indexPath)));
+    }
+}
@@ -0,0 +1,235 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import app.repository.ObjectCompression;
+import app.repository.ObjectStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.zip.InflaterInputStream;
+
+public final class PackFile {
+    static final byte[] MAGIC = {'J', 'P', 'C', 'K'};
+    static final int VERSION_RAW = 1;
+    static final int VERSION_DEFLATED = 2;
+    static final int VERSION = VERSION_DEFLATED;
+    static final int HEADER_LENGTH = 12;
+    static final byte OBJ_FULL = 1;
+    static final byte OBJ_REF_DELTA = 2;
+    static final int MAX_DELTA_CHAIN_DEPTH = 50;
+    private static final int MAX_ENTRY_HEADER_LENGTH = 1 + 10 + 10 + PackIndex.OID_LENGTH;
+    private static final int DELTA_SIZES_LENGTH = 10 + 10;
+
+    private final Path packFilePath;
+    private final PackIndex packIndex;
+
+    public PackFile(Path packFilePath, PackIndex packIndex) {
+        this.packFilePath = Objects.requireNonNull(packFilePath, "packFilePath");
+        this.packIndex = Objects.requireNonNull(packIndex, "packIndex");
+    }
+
+    public Path packFilePath() {
+        return packFilePath;
+    }
+
+    public PackIndex packIndex() {
+        return packIndex;
+    }
+
+    public boolean contains(String objectId) {
+        return packIndex.findOffset(objectId) >= 0;
+    }
+
+    public byte[] read(String objectId) {
+        long offset = packIndex.findOffset(objectId);
+        if (offset < 0) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(packFilePath, StandardOpenOption.READ)) {
+            int version = readVersion(channel);
+            return resolve(channel, offset, version);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.PACK_READ_FAILED.message());
+        }
+    }
+
+    public long size(String objectId) {
+        long offset = packIndex.findOffset(objectId);
+        if (offset < 0) {
+            return -1;
+        }
+        try (FileChannel channel = FileChannel.open(packFilePath, StandardOpenOption.READ)) {
+            int version = readVersion(channel);
+            EntryHeader header = readEntryHeader(channel, offset, version);
+            if (header.baseObjectId == null) {
+                return header.size;
+            }
+            InputStream delta = new InflaterInputStream(Channels.newInputStream(channel.position(header.dataOffset)));
+            ByteBuffer sizes = ByteBuffer.wrap(delta.readNBytes(DELTA_SIZES_LENGTH));
+            VarInt.read(sizes);
+            return VarInt.read(sizes);
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.PACK_READ_FAILED.message());
+        }
+    }
+
+    public ObjectStream openStream(String objectId) {
+        long offset = packIndex.findOffset(objectId);
+        if (offset < 0) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(packFilePath, StandardOpenOption.READ);
+            int version = readVersion(channel);
+            EntryHeader header = readEntryHeader(channel, offset, version);
+            if (header.baseObjectId != null) {
+                byte[] content = resolve(channel, offset, version);
+                channel.close();
+                return ObjectStream.ofBytes(content);
+            }
+            if (version == VERSION_RAW) {
+                return ObjectStream.ofFileRange(channel, header.dataOffset, header.size);
+            }
+            InputStream compressed = Channels.newInputStream(channel.position(header.dataOffset));
+            return ObjectStream.ofStream(new InflaterInputStream(compressed), header.size);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new IllegalArgumentException(ErrorCode.PACK_READ_FAILED.message());
+        } catch (IllegalArgumentException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private int readVersion(FileChannel channel) throws IOException {
+        ByteBuffer header = readFully(channel, 0, HEADER_LENGTH);
+        byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        int version = header.getInt();
+        if (!Arrays.equals(magic, MAGIC) || (version != VERSION_RAW && version != VERSION_DEFLATED)) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+        }
+        return version;
+    }
+
+    private byte[] resolve(FileChannel channel, long offset, int version) throws IOException {
+        Deque<byte[]> deltas = new ArrayDeque<>();
+        long cursor = offset;
+        while (true) {
+            Entry entry = readEntry(channel, cursor, version);
+            if (entry.baseObjectId == null) {
+                byte[] content = entry.data;
+                while (!deltas.isEmpty()) {
+                    content = Delta.apply(content, deltas.pop());
+                }
+                return content;
+            }
+            if (deltas.size() >= MAX_DELTA_CHAIN_DEPTH) {
+                throw new IllegalArgumentException(ErrorCode.PACK_DELTA_CHAIN_TOO_DEEP.message());
+            }
+            deltas.push(entry.data);
+            cursor = packIndex.findOffset(entry.baseObjectId);
+            if (cursor < 0) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_DELTA.message());
+            }
+        }
+    }
+
+    private Entry readEntry(FileChannel channel, long offset, int version) throws IOException {
+        EntryHeader header = readEntryHeader(channel, offset, version);
+        if (version == VERSION_RAW) {
+            return new Entry(null, readFully(channel, header.dataOffset, (int) header.size).array());
+        }
+        ByteBuffer compressed = readFully(channel, header.dataOffset, (int) header.compressedSize);
+        return new Entry(header.baseObjectId, ObjectCompression.inflate(compressed.array(), (int) header.size));
+    }
+
+    private EntryHeader readEntryHeader(FileChannel channel, long offset, int version) throws IOException {
+        int headerLength = (int) Math.min(MAX_ENTRY_HEADER_LENGTH, channel.size() - offset);
+        ByteBuffer entryHeader = readFully(channel, offset, headerLength);
+        byte type = entryHeader.get();
+        if (type != OBJ_FULL && (type != OBJ_REF_DELTA || version == VERSION_RAW)) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+        }
+        long size = VarInt.read(entryHeader);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+        }
+        if (version == VERSION_RAW) {
+            return new EntryHeader(null, size, size, offset + entryHeader.position());
+        }
+        long compressedSize = VarInt.read(entryHeader);
+        if (compressedSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+        }
+        String baseObjectId = null;
+        if (type == OBJ_REF_DELTA) {
+            byte[] rawBaseOid = new byte[PackIndex.OID_LENGTH];
+            entryHeader.get(rawBaseOid);
+            baseObjectId = HexFormat.of().formatHex(rawBaseOid);
+        }
+        return new EntryHeader(baseObjectId, size, compressedSize, offset + entryHeader.position());
+    }
+
+    static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static final class EntryHeader {
+        final String baseObjectId;
+        final long size;
+        final long compressedSize;
+        final long dataOffset;
+
+        EntryHeader(String baseObjectId, long size, long compressedSize, long dataOffset) {
+            this.baseObjectId = baseObjectId;
+            this.size = size;
+            this.compressedSize = compressedSize;
+            this.dataOffset = dataOffset;
+        }
+    }
+
+    private static final class Entry {
+        final String baseObjectId;
+        final byte[] data;
+
+        Entry(String baseObjectId, byte[] data) {
+            this.baseObjectId = baseObjectId;
+            this.data = data;
+        }
+    }
+}
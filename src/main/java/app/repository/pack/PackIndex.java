@@ -0,0 +1,133 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+
+public final class PackIndex {
+    static final byte[] MAGIC = {'J', 'I', 'D', 'X'};
+    static final int VERSION = 1;
+    static final int FANOUT_SIZE = 256;
+    static final int OID_LENGTH = 20;
+    static final int HEADER_LENGTH = 8;
+    static final int FANOUT_LENGTH = FANOUT_SIZE * Integer.BYTES;
+    static final int TRAILER_LENGTH = OID_LENGTH * 2;
+
+    private final Path indexFilePath;
+    private final MappedByteBuffer buffer;
+    private final int objectCount;
+    private final int oidTableOffset;
+    private final int offsetTableOffset;
+
+    public PackIndex(Path indexFilePath) {
+        this.indexFilePath = Objects.requireNonNull(indexFilePath, "indexFilePath");
+        this.buffer = map(indexFilePath);
+        validateHeader();
+        this.objectCount = buffer.getInt(HEADER_LENGTH + (FANOUT_SIZE - 1) * Integer.BYTES);
+        this.oidTableOffset = HEADER_LENGTH + FANOUT_LENGTH;
+        this.offsetTableOffset = oidTableOffset + objectCount * OID_LENGTH;
+        long expectedLength = (long) offsetTableOffset + (long) objectCount * Long.BYTES + TRAILER_LENGTH;
+        if (buffer.capacity() != expectedLength) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_INDEX.message());
+        }
+    }
+
+    private MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.PACK_READ_FAILED.message());
+        }
+    }
+
+    private void validateHeader() {
+        if (buffer.capacity() < HEADER_LENGTH + FANOUT_LENGTH + TRAILER_LENGTH) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_INDEX.message());
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC) || buffer.getInt(MAGIC.length) != VERSION) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_INDEX.message());
+        }
+    }
+
+    public Path indexFilePath() {
+        return indexFilePath;
+    }
+
+    public int size() {
+        return objectCount;
+    }
+
+    public long findOffset(String objectId) {
+        byte[] rawOid = parseObjectId(objectId);
+        if (rawOid == null) {
+            return -1;
+        }
+        int bucket = rawOid[0] & 0xff;
+        int low = bucket == 0 ? 0 : fanout(bucket - 1);
+        int high = fanout(bucket) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareOidAt(mid, rawOid);
+            if (cmp == 0) {
+                return buffer.getLong(offsetTableOffset + mid * Long.BYTES);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    public String objectIdAt(int position) {
+        byte[] rawOid = new byte[OID_LENGTH];
+        buffer.get(oidTableOffset + position * OID_LENGTH, rawOid);
+        return HexFormat.of().formatHex(rawOid);
+    }
+
+    public long offsetAt(int position) {
+        return buffer.getLong(offsetTableOffset + position * Long.BYTES);
+    }
+
+    private int fanout(int bucket) {
+        return buffer.getInt(HEADER_LENGTH + bucket * Integer.BYTES);
+    }
+
+    private int compareOidAt(int position, byte[] rawOid) {
+        int base = oidTableOffset + position * OID_LENGTH;
+        for (int i = 0; i < OID_LENGTH; i++) {
+            int cmp = Integer.compare(buffer.get(base + i) & 0xff, rawOid[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    static byte[] parseObjectId(String objectId) {
+        if (objectId == null || objectId.length() != OID_LENGTH * 2) {
+            return null;
+        }
+        try {
+            return HexFormat.of().parseHex(objectId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static ByteBuffer newHeader() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.put(MAGIC).putInt(VERSION);
+        return header.flip();
+    }
+}
@@ -0,0 +1,236 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import app.repository.ObjectCompression;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+public final class PackReceiver {
+    public static final int DEFAULT_MAX_OBJECT_SIZE = 32 * 1024 * 1024;
+    private static final int MAX_VARINT_LENGTH = 10;
+    private static final int RECENT_OBJECT_CACHE_SIZE = 64;
+    private static final long RECENT_OBJECT_CACHE_BYTES = 32L * 1024 * 1024;
+    private static final long UNKNOWN_LENGTH = -1L;
+
+    private final Path packDirectoryPath;
+    private final int maxObjectSize;
+
+    public PackReceiver(Path packDirectoryPath) {
+        this(packDirectoryPath, DEFAULT_MAX_OBJECT_SIZE);
+    }
+
+    public PackReceiver(Path packDirectoryPath, int maxObjectSize) {
+        this.packDirectoryPath = Objects.requireNonNull(packDirectoryPath, "packDirectoryPath");
+        this.maxObjectSize = maxObjectSize;
+    }
+
+    public int receive(InputStream in) {
+        return receive(in, UNKNOWN_LENGTH);
+    }
+
+    public int receive(InputStream in, long streamLength) {
+        Objects.requireNonNull(in, "in");
+        Path tempPackPath = null;
+        Path tempIndexPath = null;
+        try {
+            Files.createDirectories(packDirectoryPath);
+            tempPackPath = Files.createTempFile(packDirectoryPath, PackWriter.TEMP_PREFIX, PackWriter.PACK_SUFFIX);
+            Map<String, Long> offsets = new TreeMap<>();
+            byte[] packChecksum = copyAndIndex(in, streamLength, tempPackPath, offsets);
+            if (offsets.isEmpty()) {
+                return 0;
+            }
+            tempIndexPath = Files.createTempFile(packDirectoryPath, PackWriter.TEMP_PREFIX, PackWriter.INDEX_SUFFIX);
+            PackWriter.writeIndex(tempIndexPath, offsets, packChecksum);
+            String packName = PackWriter.PACK_PREFIX + HexFormat.of().formatHex(packChecksum);
+            PackWriter.moveIntoPlace(tempPackPath, packDirectoryPath.resolve(packName + PackWriter.PACK_SUFFIX));
+            PackWriter.moveIntoPlace(tempIndexPath, packDirectoryPath.resolve(packName + PackWriter.INDEX_SUFFIX));
+            return offsets.size();
+        } catch (EOFException e) {
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.PACK_WRITE_FAILED.message());
+        } finally {
+            PackWriter.deleteQuietly(tempPackPath);
+            PackWriter.deleteQuietly(tempIndexPath);
+        }
+    }
+
+    private byte[] copyAndIndex(InputStream source, long streamLength, Path packPath, Map<String, Long> offsets)
+            throws IOException {
+        MessageDigest digest = PackWriter.newSha1();
+        DataInputStream in = new DataInputStream(new DigestInputStream(source, digest));
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(packPath));
+             FileChannel channel = FileChannel.open(packPath, StandardOpenOption.READ)) {
+            ReceivedEntries entries = new ReceivedEntries(channel, out, maxObjectSize);
+            byte[] header = new byte[PackFile.HEADER_LENGTH];
+            in.readFully(header);
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            byte[] magic = new byte[PackFile.MAGIC.length];
+            headerBuffer.get(magic);
+            if (!Arrays.equals(magic, PackFile.MAGIC) || headerBuffer.getInt() != PackFile.VERSION) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+            }
+            int objectCount = headerBuffer.getInt();
+            out.write(header);
+            long position = PackFile.HEADER_LENGTH;
+            for (int i = 0; i < objectCount; i++) {
+                long entryOffset = position;
+                long remaining = streamLength == UNKNOWN_LENGTH ? Long.MAX_VALUE
+                        : streamLength - position - PackIndex.OID_LENGTH;
+                position += entries.receive(in, entryOffset, remaining);
+                offsets.put(entries.lastObjectId, entryOffset);
+            }
+            byte[] expected = digest.digest();
+            byte[] trailer = new byte[PackIndex.OID_LENGTH];
+            in.readFully(trailer);
+            if (!MessageDigest.isEqual(expected, trailer) || source.read() >= 0) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+            }
+            out.write(trailer);
+            return trailer;
+        }
+    }
+
+    private static final class ReceivedEntries {
+        private final FileChannel channel;
+        private final OutputStream out;
+        private final Map<String, EntryLocation> locations = new HashMap<>();
+        private final Map<String, byte[]> recentContents = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxObjectSize;
+        private long recentContentBytes;
+        private String lastObjectId;
+
+        ReceivedEntries(FileChannel channel, OutputStream out, int maxObjectSize) {
+            this.channel = channel;
+            this.out = out;
+            this.maxObjectSize = maxObjectSize;
+        }
+
+        long receive(DataInputStream in, long entryOffset, long remaining) throws IOException {
+            byte type = in.readByte();
+            if (type != PackFile.OBJ_FULL && type != PackFile.OBJ_REF_DELTA) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+            }
+            byte[] sizeBytes = readVarIntBytes(in);
+            byte[] compressedSizeBytes = readVarIntBytes(in);
+            long size = VarInt.read(ByteBuffer.wrap(sizeBytes));
+            long compressedSize = VarInt.read(ByteBuffer.wrap(compressedSizeBytes));
+            if (size < 0 || compressedSize < 0) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+            }
+            if (size > maxObjectSize) {
+                throw new IllegalArgumentException(ErrorCode.PACK_OBJECT_TOO_LARGE.message());
+            }
+            String baseObjectId = null;
+            byte[] rawBaseOid = null;
+            if (type == PackFile.OBJ_REF_DELTA) {
+                rawBaseOid = new byte[PackIndex.OID_LENGTH];
+                in.readFully(rawBaseOid);
+                baseObjectId = HexFormat.of().formatHex(rawBaseOid);
+            }
+            long headerLength = 1L + sizeBytes.length + compressedSizeBytes.length
+                    + (rawBaseOid == null ? 0 : rawBaseOid.length);
+            if (compressedSize > compressBound(size) || compressedSize > remaining - headerLength) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+            }
+            byte[] compressed = new byte[(int) compressedSize];
+            in.readFully(compressed);
+
+            int depth = 0;
+            byte[] data = ObjectCompression.inflate(compressed, (int) size);
+            byte[] content = data;
+            if (baseObjectId != null) {
+                EntryLocation base = locations.get(baseObjectId);
+                if (base == null) {
+                    throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_DELTA.message());
+                }
+                depth = base.depth() + 1;
+                if (depth > PackFile.MAX_DELTA_CHAIN_DEPTH) {
+                    throw new IllegalArgumentException(ErrorCode.PACK_DELTA_CHAIN_TOO_DEEP.message());
+                }
+                if (Delta.resultLength(data) > maxObjectSize) {
+                    throw new IllegalArgumentException(ErrorCode.PACK_OBJECT_TOO_LARGE.message());
+                }
+                content = Delta.apply(resolve(baseObjectId), data);
+            }
+            String objectId = HexFormat.of().formatHex(PackWriter.newSha1().digest(content));
+
+            out.write(type);
+            out.write(sizeBytes);
+            out.write(compressedSizeBytes);
+            if (rawBaseOid != null) {
+                out.write(rawBaseOid);
+            }
+            out.write(compressed);
+            locations.put(objectId, new EntryLocation(entryOffset + headerLength, (int) compressedSize,
+                    (int) size, baseObjectId, depth));
+            remember(objectId, content);
+            lastObjectId = objectId;
+            return headerLength + compressedSize;
+        }
+
+        private byte[] resolve(String objectId) throws IOException {
+            byte[] cached = recentContents.get(objectId);
+            if (cached != null) {
+                return cached;
+            }
+            EntryLocation location = locations.get(objectId);
+            out.flush();
+            ByteBuffer compressed = PackFile.readFully(channel, location.dataOffset(), location.compressedSize());
+            byte[] data = ObjectCompression.inflate(compressed.array(), location.size());
+            if (location.baseObjectId() == null) {
+                return data;
+            }
+            return Delta.apply(resolve(location.baseObjectId()), data);
+        }
+
+        private void remember(String objectId, byte[] content) {
+            byte[] previous = recentContents.put(objectId, content);
+            recentContentBytes += content.length - (previous == null ? 0 : previous.length);
+            Iterator<byte[]> eldest = recentContents.values().iterator();
+            while (recentContents.size() > 1 && (recentContents.size() > RECENT_OBJECT_CACHE_SIZE
+                    || recentContentBytes > RECENT_OBJECT_CACHE_BYTES)) {
+                recentContentBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+
+        private static long compressBound(long size) {
+            return size + (size >>> 12) + (size >>> 14) + (size >>> 25) + 13;
+        }
+
+        private byte[] readVarIntBytes(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[MAX_VARINT_LENGTH];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = in.readByte();
+                if ((bytes[i] & 0x80) == 0) {
+                    return Arrays.copyOf(bytes, i + 1);
+                }
+            }
+            throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+        }
+    }
+
+    private record EntryLocation(long dataOffset, int compressedSize, int size, String baseObjectId, int depth) {
+    }
+}
@@ -0,0 +1,275 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import app.repository.ObjectCompression;
+import app.repository.ObjectReader;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+public final class PackWriter {
+    static final String PACK_PREFIX = "pack-";
+    static final String PACK_SUFFIX = ".pack";
+    static final String INDEX_SUFFIX = ".idx";
+    static final String TEMP_PREFIX = "tmp_pack_";
+    private static final int DELTA_WINDOW = 10;
+    private static final int MIN_DELTA_TARGET_SIZE = 64;
+    private static final int MAX_BASE_SIZE_RATIO = 8;
+
+    private final Path packDirectoryPath;
+
+    public PackWriter(Path packDirectoryPath) {
+        this.packDirectoryPath = Objects.requireNonNull(packDirectoryPath, "packDirectoryPath");
+    }
+
+    public String write(Collection<String> objectIds, ObjectReader objectReader) {
+        return write(objectIds, Map.of(), objectReader);
+    }
+
+    public String write(Collection<String> objectIds, Map<String, String> pathHints, ObjectReader objectReader) {
+        Objects.requireNonNull(objectIds, "objectIds");
+        Objects.requireNonNull(pathHints, "pathHints");
+        Objects.requireNonNull(objectReader, "objectReader");
+        List<String> uniqueObjectIds = orderForDelta(new LinkedHashSet<>(objectIds), pathHints, objectReader);
+        Path tempPackPath = null;
+        Path tempIndexPath = null;
+        try {
+            Files.createDirectories(packDirectoryPath);
+            tempPackPath = Files.createTempFile(packDirectoryPath, TEMP_PREFIX, PACK_SUFFIX);
+            tempIndexPath = Files.createTempFile(packDirectoryPath, TEMP_PREFIX, INDEX_SUFFIX);
+            Map<String, Long> offsets = new TreeMap<>();
+            byte[] packChecksum = writePack(tempPackPath, uniqueObjectIds, objectReader, offsets);
+            writeIndex(tempIndexPath, offsets, packChecksum);
+            String packName = PACK_PREFIX + HexFormat.of().formatHex(packChecksum);
+            moveIntoPlace(tempPackPath, packDirectoryPath.resolve(packName + PACK_SUFFIX));
+            moveIntoPlace(tempIndexPath, packDirectoryPath.resolve(packName + INDEX_SUFFIX));
+            return packName;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.PACK_WRITE_FAILED.message());
+        } finally {
+            deleteQuietly(tempPackPath);
+            deleteQuietly(tempIndexPath);
+        }
+    }
+
+    public void writeStream(Collection<String> objectIds, ObjectReader objectReader, OutputStream out) {
+        Objects.requireNonNull(objectIds, "objectIds");
+        Objects.requireNonNull(objectReader, "objectReader");
+        Objects.requireNonNull(out, "out");
+        List<String> uniqueObjectIds = orderForDelta(new LinkedHashSet<>(objectIds), Map.of(), objectReader);
+        try {
+            writePack(out, uniqueObjectIds, objectReader, new TreeMap<>());
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.PACK_WRITE_FAILED.message());
+        }
+    }
+
+    private byte[] writePack(Path packPath, List<String> objectIds, ObjectReader objectReader,
+                             Map<String, Long> offsets) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(packPath))) {
+            return writePack(out, objectIds, objectReader, offsets);
+        }
+    }
+
+    private byte[] writePack(OutputStream target, List<String> objectIds, ObjectReader objectReader,
+                             Map<String, Long> offsets) throws IOException {
+        MessageDigest digest = newSha1();
+        DigestOutputStream out = new DigestOutputStream(target, digest);
+        ByteBuffer header = ByteBuffer.allocate(PackFile.HEADER_LENGTH);
+        header.put(PackFile.MAGIC).putInt(PackFile.VERSION).putInt(objectIds.size());
+        out.write(header.array());
+        long position = PackFile.HEADER_LENGTH;
+        Deque<WindowEntry> window = new ArrayDeque<>(DELTA_WINDOW + 1);
+        for (String objectId : objectIds) {
+            offsets.put(objectId, position);
+            byte[] content = objectReader.readRaw(objectId);
+            DeltaCandidate candidate = findBestDelta(window, content);
+            int depth = 0;
+            if (candidate == null) {
+                position += writeEntry(out, content);
+            } else {
+                position += writeDeltaEntry(out, candidate.base.objectId, candidate.delta);
+                depth = candidate.base.depth + 1;
+            }
+            window.addLast(new WindowEntry(objectId, content, depth));
+            if (window.size() > DELTA_WINDOW) {
+                window.removeFirst();
+            }
+        }
+        out.on(false);
+        byte[] checksum = digest.digest();
+        out.write(checksum);
+        return checksum;
+    }
+
+    private long writeEntry(OutputStream out, byte[] content) throws IOException {
+        byte[] compressed = ObjectCompression.deflate(content);
+        ByteArrayOutputStream entryHeader = new ByteArrayOutputStream();
+        entryHeader.write(PackFile.OBJ_FULL);
+        VarInt.write(entryHeader, content.length);
+        VarInt.write(entryHeader, compressed.length);
+        entryHeader.writeTo(out);
+        out.write(compressed);
+        return entryHeader.size() + (long) compressed.length;
+    }
+
+    private long writeDeltaEntry(OutputStream out, String baseObjectId, byte[] delta) throws IOException {
+        byte[] compressed = ObjectCompression.deflate(delta);
+        ByteArrayOutputStream entryHeader = new ByteArrayOutputStream();
+        entryHeader.write(PackFile.OBJ_REF_DELTA);
+        VarInt.write(entryHeader, delta.length);
+        VarInt.write(entryHeader, compressed.length);
+        entryHeader.write(HexFormat.of().parseHex(baseObjectId));
+        entryHeader.writeTo(out);
+        out.write(compressed);
+        return entryHeader.size() + (long) compressed.length;
+    }
+
+    private List<String> orderForDelta(Collection<String> objectIds, Map<String, String> pathHints,
+                                       ObjectReader objectReader) {
+        Map<String, Long> sizes = new HashMap<>();
+        for (String objectId : objectIds) {
+            sizes.put(objectId, objectReader.size(objectId));
+        }
+        List<String> ordered = new ArrayList<>(objectIds);
+        ordered.sort(Comparator.<String>comparingInt(objectId -> nameHash(pathHints.get(objectId)))
+                .thenComparing(objectId -> sizes.get(objectId), Comparator.reverseOrder())
+                .thenComparing(Comparator.naturalOrder()));
+        return ordered;
+    }
+
+    private int nameHash(String path) {
+        if (path == null) {
+            return 0;
+        }
+        int hash = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            hash = (hash >>> 2) + (c << 24);
+        }
+        return hash;
+    }
+
+    private DeltaCandidate findBestDelta(Deque<WindowEntry> window, byte[] target) {
+        if (target.length < MIN_DELTA_TARGET_SIZE) {
+            return null;
+        }
+        DeltaCandidate best = null;
+        int sizeLimit = target.length / 2 - PackIndex.OID_LENGTH;
+        for (WindowEntry base : window) {
+            if (base.depth >= PackFile.MAX_DELTA_CHAIN_DEPTH
+                    || (long) base.content.length * MAX_BASE_SIZE_RATIO < target.length) {
+                continue;
+            }
+            byte[] delta = Delta.encode(base.content, target);
+            if (delta == null || delta.length >= sizeLimit) {
+                continue;
+            }
+            if (best == null || delta.length < best.delta.length) {
+                best = new DeltaCandidate(base, delta);
+            }
+        }
+        return best;
+    }
+
+    static void writeIndex(Path indexPath, Map<String, Long> offsets, byte[] packChecksum) throws IOException {
+        int[] fanout = new int[PackIndex.FANOUT_SIZE];
+        for (String objectId : offsets.keySet()) {
+            fanout[Integer.parseInt(objectId.substring(0, 2), 16)]++;
+        }
+        MessageDigest digest = newSha1();
+        try (DigestOutputStream out = new DigestOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(indexPath)), digest)) {
+            out.write(PackIndex.newHeader().array());
+            ByteBuffer fanoutTable = ByteBuffer.allocate(PackIndex.FANOUT_LENGTH);
+            int cumulative = 0;
+            for (int count : fanout) {
+                cumulative += count;
+                fanoutTable.putInt(cumulative);
+            }
+            out.write(fanoutTable.array());
+            for (String objectId : offsets.keySet()) {
+                out.write(HexFormat.of().parseHex(objectId));
+            }
+            ByteBuffer offsetEntry = ByteBuffer.allocate(Long.BYTES);
+            for (long offset : offsets.values()) {
+                offsetEntry.clear();
+                out.write(offsetEntry.putLong(offset).array());
+            }
+            out.write(packChecksum);
+            out.on(false);
+            out.write(digest.digest());
+        }
+    }
+
+    static void moveIntoPlace(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    static MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ErrorCode.SHA1_NOT_AVAILABLE.message());
+        }
+    }
+
+    private static final class WindowEntry {
+        final String objectId;
+        final byte[] content;
+        final int depth;
+
+        WindowEntry(String objectId, byte[] content, int depth) {
+            this.objectId = objectId;
+            this.content = content;
+            this.depth = depth;
+        }
+    }
+
+    private static final class DeltaCandidate {
+        final WindowEntry base;
+        final byte[] delta;
+
+        DeltaCandidate(WindowEntry base, byte[] delta) {
+            this.base = base;
+            this.delta = delta;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+final class VarInt {
+    private static final int MAX_SHIFT = 63;
+
+    private VarInt() {
+    }
+
+    static void write(ByteArrayOutputStream out, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7fL) != 0) {
+            out.write((int) ((remaining & 0x7f) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    static long read(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (!buffer.hasRemaining() || shift > MAX_SHIFT) {
+                throw new IllegalArgumentException(ErrorCode.MALFORMED_PACK_FILE.message());
+            }
+            int b = buffer.get() & 0xff;
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
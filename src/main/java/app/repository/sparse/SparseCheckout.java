@@ -0,0 +1,132 @@
+package app.repository.sparse;
+
+import app.exception.ErrorCode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class SparseCheckout {
+    public static final SparseCheckout ALL = new SparseCheckout(null);
+
+    private static final Path SPARSE_CHECKOUT_FILE = Path.of(".javaGit", "info", "sparse-checkout");
+    private static final String COMMENT = "#";
+    private static final String ROOT_DIRECTORY = "";
+
+    private final List<String> directories;
+    private final Set<String> recursiveDirectories = new HashSet<>();
+    private final Set<String> parentDirectories = new HashSet<>();
+
+    private SparseCheckout(List<String> directories) {
+        this.directories = directories;
+        if (directories == null) {
+            return;
+        }
+        parentDirectories.add(ROOT_DIRECTORY);
+        for (String directory : directories) {
+            recursiveDirectories.add(directory);
+            int separator = directory.indexOf('/');
+            while (separator >= 0) {
+                parentDirectories.add(directory.substring(0, separator));
+                separator = directory.indexOf('/', separator + 1);
+            }
+        }
+    }
+
+    public static SparseCheckout load(Path rootDirectoryPath) {
+        Path sparseFilePath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath")
+                .resolve(SPARSE_CHECKOUT_FILE);
+        if (!Files.isRegularFile(sparseFilePath)) {
+            return ALL;
+        }
+        try {
+            return cone(Files.readAllLines(sparseFilePath, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
+    }
+
+    public static SparseCheckout cone(List<String> lines) {
+        Set<String> directories = new TreeSet<>();
+        for (String line : Objects.requireNonNull(lines, "lines")) {
+            String directory = normalize(line);
+            if (directory != null) {
+                directories.add(directory);
+            }
+        }
+        return new SparseCheckout(new ArrayList<>(directories));
+    }
+
+    public void save(Path rootDirectoryPath) {
+        Path sparseFilePath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath")
+                .resolve(SPARSE_CHECKOUT_FILE);
+        try {
+            if (!isEnabled()) {
+                Files.deleteIfExists(sparseFilePath);
+                return;
+            }
+            Files.createDirectories(sparseFilePath.getParent());
+            Files.write(sparseFilePath, directories, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    public boolean isEnabled() {
+        return directories != null;
+    }
+
+    public List<String> directories() {
+        return directories == null ? List.of() : List.copyOf(directories);
+    }
+
+    public boolean includesFile(String relPath) {
+        if (directories == null) {
+            return true;
+        }
+        int separator = relPath.lastIndexOf('/');
+        return includesContentsOf(separator < 0 ? ROOT_DIRECTORY : relPath.substring(0, separator));
+    }
+
+    public boolean includesDirectory(String relPath) {
+        return directories == null || parentDirectories.contains(relPath) || isInCone(relPath);
+    }
+
+    private boolean includesContentsOf(String directory) {
+        return parentDirectories.contains(directory) || isInCone(directory);
+    }
+
+    private boolean isInCone(String directory) {
+        if (recursiveDirectories.isEmpty() || directory.isEmpty()) {
+            return false;
+        }
+        int separator = directory.indexOf('/');
+        while (separator >= 0) {
+            if (recursiveDirectories.contains(directory.substring(0, separator))) {
+                return true;
+            }
+            separator = directory.indexOf('/', separator + 1);
+        }
+        return recursiveDirectories.contains(directory);
+    }
+
+    private static String normalize(String line) {
+        String directory = line.strip().replace('\\', '/');
+        if (directory.isEmpty() || directory.startsWith(COMMENT)) {
+            return null;
+        }
+        while (directory.startsWith("/")) {
+            directory = directory.substring(1);
+        }
+        while (directory.endsWith("/")) {
+            directory = directory.substring(0, directory.length() - 1);
+        }
+        return directory.isEmpty() || directory.equals(".") ? null : directory;
+    }
+}
@@ -0,0 +1,279 @@
+package app.repository.watch;
+
+import app.exception.ErrorCode;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+public final class WatchJournal implements Closeable {
+    public static final String OVERFLOW_PATH = "/";
+
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String WATCH = "watch";
+    private static final String JOURNAL = "journal";
+    private static final String LOCK = "lock";
+    private static final String COOKIES = "cookies";
+    private static final String COOKIE_PREFIX = "cookie-";
+    private static final String JOURNAL_TEMP_PREFIX = "journal_";
+    private static final String SESSION_PREFIX = "session ";
+    private static final String TOKEN_SEPARATOR = ":";
+    private static final long MAX_JOURNAL_BYTES = 16L * 1024 * 1024;
+    private static final long POLL_INTERVAL_MILLIS = 5L;
+
+    private final Path journalPath;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private FileChannel journal;
+    private long sequence;
+
+    private WatchJournal(Path journalPath, FileChannel lockChannel, FileLock lock) throws IOException {
+        this.journalPath = journalPath;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        startSession();
+    }
+
+    public static WatchJournal start(Path rootDirectoryPath) {
+        Path watchDirectoryPath = watchDirectoryPath(rootDirectoryPath);
+        FileChannel lockChannel = null;
+        try {
+            Files.createDirectories(watchDirectoryPath.resolve(COOKIES));
+            lockChannel = FileChannel.open(watchDirectoryPath.resolve(LOCK),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = tryLock(lockChannel);
+            if (lock == null) {
+                throw new IllegalArgumentException(ErrorCode.WATCHER_ALREADY_RUNNING.message());
+            }
+            return new WatchJournal(watchDirectoryPath.resolve(JOURNAL), lockChannel, lock);
+        } catch (IOException e) {
+            closeQuietly(lockChannel);
+            throw new IllegalArgumentException(ErrorCode.WATCH_JOURNAL_WRITE_FAILED.message());
+        } catch (RuntimeException e) {
+            closeQuietly(lockChannel);
+            throw e;
+        }
+    }
+
+    public static Path cookieDirectoryPath(Path rootDirectoryPath) {
+        return watchDirectoryPath(rootDirectoryPath).resolve(COOKIES);
+    }
+
+    public synchronized void append(Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (String path : paths) {
+            lines.writeBytes((++sequence + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            if (journal.size() + lines.size() > MAX_JOURNAL_BYTES) {
+                journal.close();
+                startSession();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.WATCH_JOURNAL_WRITE_FAILED.message());
+        }
+    }
+
+    public static WatchChanges changesSince(Path rootDirectoryPath, String token, long timeoutMillis) {
+        Path watchDirectoryPath = watchDirectoryPath(rootDirectoryPath);
+        Path journalPath = watchDirectoryPath.resolve(JOURNAL);
+        if (!Files.exists(journalPath) || !isWatcherRunning(watchDirectoryPath.resolve(LOCK))) {
+            return null;
+        }
+        Path cookiePath = null;
+        try {
+            long journalSize = Files.size(journalPath);
+            cookiePath = Files.createFile(
+                    watchDirectoryPath.resolve(COOKIES).resolve(COOKIE_PREFIX + UUID.randomUUID()));
+            String cookie = DOT_JAVA_GIT + "/" + WATCH + "/" + COOKIES + "/" + cookiePath.getFileName();
+            return awaitCookie(journalPath, token, cookie, journalSize, System.currentTimeMillis() + timeoutMillis);
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            deleteQuietly(cookiePath);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly(journal);
+        try {
+            lock.release();
+        } catch (IOException ignored) {
+        }
+        closeQuietly(lockChannel);
+    }
+
+    private void startSession() throws IOException {
+        Path tempFilePath = Files.createTempFile(journalPath.getParent(), JOURNAL_TEMP_PREFIX, null);
+        try {
+            Files.writeString(tempFilePath, SESSION_PREFIX + UUID.randomUUID() + "\n", StandardCharsets.UTF_8);
+            Files.move(tempFilePath, journalPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteQuietly(tempFilePath);
+        }
+        journal = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static WatchChanges awaitCookie(Path journalPath, String token, String cookie, long journalSize,
+                                            long deadline) throws IOException, InterruptedException {
+        String session = null;
+        long offset = 0;
+        boolean complete = false;
+        Set<String> paths = new HashSet<>();
+        while (System.currentTimeMillis() < deadline) {
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+                String header = readHeader(channel);
+                if (header == null) {
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                    continue;
+                }
+                if (!header.equals(session) || channel.size() < offset) {
+                    boolean rotated = session != null;
+                    session = header;
+                    long tokenOffset = tokenOffset(token, session);
+                    complete = tokenOffset >= 0 && tokenOffset <= channel.size();
+                    if (complete) {
+                        offset = tokenOffset;
+                    } else {
+                        offset = rotated ? headerLength(session) : Math.max(headerLength(session), journalSize);
+                    }
+                    paths.clear();
+                }
+                byte[] tail = readFrom(channel, offset);
+                int lineStart = 0;
+                for (int i = 0; i < tail.length; i++) {
+                    if (tail[i] != '\n') {
+                        continue;
+                    }
+                    String line = new String(tail, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                    lineStart = i + 1;
+                    int separator = line.indexOf(' ');
+                    String path = separator < 0 ? OVERFLOW_PATH : line.substring(separator + 1);
+                    if (path.equals(cookie)) {
+                        String nextToken = session + TOKEN_SEPARATOR + (offset + lineStart);
+                        return new WatchChanges(nextToken, paths, complete && !paths.contains(OVERFLOW_PATH));
+                    }
+                    if (!path.startsWith(DOT_JAVA_GIT + "/")) {
+                        paths.add(path);
+                    }
+                }
+                offset += lineStart;
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        return null;
+    }
+
+    private static String readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SESSION_PREFIX.length() + 64);
+        channel.read(buffer, 0);
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        int end = text.indexOf('\n');
+        if (end < 0 || !text.startsWith(SESSION_PREFIX)) {
+            return null;
+        }
+        return text.substring(SESSION_PREFIX.length(), end);
+    }
+
+    private static byte[] readFrom(FileChannel channel, long offset) throws IOException {
+        long remaining = channel.size() - offset;
+        if (remaining <= 0) {
+            return new byte[0];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(remaining, MAX_JOURNAL_BYTES));
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+        }
+        return buffer.array();
+    }
+
+    private static long tokenOffset(String token, String session) {
+        if (token == null || !token.startsWith(session + TOKEN_SEPARATOR)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(session.length() + TOKEN_SEPARATOR.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long headerLength(String session) {
+        return (SESSION_PREFIX + session + "\n").getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static boolean isWatcherRunning(Path lockPath) {
+        if (!Files.exists(lockPath)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.WRITE)) {
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                return true;
+            }
+            lock.release();
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static Path watchDirectoryPath(Path rootDirectoryPath) {
+        return Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath").resolve(DOT_JAVA_GIT).resolve(WATCH);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    public record WatchChanges(String token, Set<String> paths, boolean complete) {
+    }
+}
@@ -0,0 +1,86 @@
+package app.repository.watch;
+
+import app.exception.ErrorCode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class WatchState {
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String WATCH = "watch";
+    private static final String STATE = "state";
+    private static final String TOKEN_PREFIX = "token ";
+    private static final String TEMP_PREFIX = "state_";
+
+    private final String token;
+    private final Set<String> uncleanPaths;
+
+    public WatchState(String token, Collection<String> uncleanPaths) {
+        this.token = Objects.requireNonNull(token, "token");
+        this.uncleanPaths = Set.copyOf(uncleanPaths);
+    }
+
+    public static WatchState read(Path rootDirectoryPath) {
+        Path statePath = statePath(rootDirectoryPath);
+        if (!Files.exists(statePath)) {
+            return null;
+        }
+        try {
+            List<String> lines = Files.readAllLines(statePath, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).startsWith(TOKEN_PREFIX)) {
+                return null;
+            }
+            return new WatchState(lines.get(0).substring(TOKEN_PREFIX.length()), lines.subList(1, lines.size()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void write(Path rootDirectoryPath) {
+        Path statePath = statePath(rootDirectoryPath);
+        Path tempFilePath = null;
+        try {
+            StringBuilder content = new StringBuilder(TOKEN_PREFIX).append(token).append('\n');
+            for (String path : new TreeSet<>(uncleanPaths)) {
+                content.append(path).append('\n');
+            }
+            tempFilePath = Files.createTempFile(statePath.getParent(), TEMP_PREFIX, null);
+            Files.writeString(tempFilePath, content, StandardCharsets.UTF_8);
+            Files.move(tempFilePath, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.WATCH_JOURNAL_WRITE_FAILED.message());
+        } finally {
+            deleteQuietly(tempFilePath);
+        }
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public Set<String> uncleanPaths() {
+        return uncleanPaths;
+    }
+
+    private static Path statePath(Path rootDirectoryPath) {
+        return Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath")
+                .resolve(DOT_JAVA_GIT).resolve(WATCH).resolve(STATE);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -1,26 +1,51 @@
 package app.service;
 
+import app.domain.FileStat;
 import app.domain.Index;
 import app.exception.ErrorCode;
+import app.repository.ConfigRepository;
 import app.repository.IndexRepository;
 import app.repository.ObjectWriter;
+import app.repository.ignore.IgnoreRules;
+import app.repository.sparse.SparseCheckout;
+import app.util.FileStats;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 
 public final class AddService {
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String ADD_THREADS_KEY = "add.threads";
+
     private final ObjectWriter objectWriter;
     private final IndexRepository indexRepository;
+    private final ConfigRepository configRepository;
     private final Path rootDirectoryPath;
 
-    public AddService(ObjectWriter objectWriter, IndexRepository indexRepository, Path rootDirectoryPath) {
+    public AddService(ObjectWriter objectWriter, IndexRepository indexRepository, ConfigRepository configRepository,
+                      Path rootDirectoryPath) {
         this.objectWriter = Objects.requireNonNull(objectWriter, "objectWriter");
         this.indexRepository = Objects.requireNonNull(indexRepository, "indexRepository");
+        this.configRepository = Objects.requireNonNull(configRepository, "configRepository");
         this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
     }
 
@@ -32,28 +57,192 @@ public final class AddService {
 
         Index currentIndex = indexRepository.read();
         Map<String, String> stagedFilesMap = new LinkedHashMap<>(currentIndex.stagedFiles());
+        Map<String, FileStat> fileStats = new HashMap<>(currentIndex.fileStats());
+        Map<String, String> cachedTrees = new HashMap<>(currentIndex.cachedTrees());
 
-        for (String filePath : filePaths) {
-            Path absoluteFilePath = rootDirectoryPath.resolve(filePath);
-            if (!Files.exists(absoluteFilePath) || Files.isDirectory(absoluteFilePath)) {
+        List<String> expandedPaths = expandPaths(filePaths, currentIndex);
+        for (StagedFile stagedFile : stageFiles(expandedPaths)) {
+            String filePath = stagedFile.filePath();
+            stagedFilesMap.put(filePath, stagedFile.objectHash());
+            invalidateCachedTrees(cachedTrees, filePath);
+            if (FileStats.isRacy(stagedFile.fileStat())) {
+                fileStats.remove(filePath);
+            } else {
+                fileStats.put(filePath, stagedFile.fileStat());
+            }
+        }
+
+        indexRepository.write(new Index(stagedFilesMap, fileStats, cachedTrees,
+                currentIndex.untrackedCache()));
+    }
 
+    private List<String> expandPaths(List<String> filePaths, Index currentIndex) {
+        IgnoreRules ignoreRules = IgnoreRules.load(rootDirectoryPath);
+        SparseCheckout sparseCheckout = SparseCheckout.load(rootDirectoryPath);
+        Set<String> trackedDirectories = ignoreRules.isEmpty() ? Set.of() : currentIndex.trackedDirectories();
+        List<String> expandedPaths = new ArrayList<>();
+        for (String filePath : filePaths) {
+            Path absolutePath = rootDirectoryPath.resolve(filePath);
+            if (Files.isDirectory(absolutePath)) {
+                collectDirectory(absolutePath.normalize(), ignoreRules, sparseCheckout, currentIndex,
+                        trackedDirectories, expandedPaths);
+                continue;
+            }
+            if (!sparseCheckout.includesFile(filePath)) {
                 continue;
             }
+            if (ignoreRules.isPathIgnored(filePath) && !currentIndex.stagedFiles().containsKey(filePath)) {
+                continue;
+            }
+            expandedPaths.add(filePath);
+        }
+        return expandedPaths;
+    }
+
+    private void collectDirectory(Path directory, IgnoreRules ignoreRules, SparseCheckout sparseCheckout,
+                                  Index currentIndex, Set<String> trackedDirectories, List<String> expandedPaths) {
+        Path root = rootDirectoryPath.normalize();
+        try {
+            Files.walkFileTree(directory, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE,
+                    new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                            if (dir.getFileName() != null && DOT_JAVA_GIT.equals(dir.getFileName().toString())) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            String relPath = toRelativePath(root, dir);
+                            if (!sparseCheckout.includesDirectory(relPath)) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            if (ignoreRules.isIgnored(relPath, true) && !trackedDirectories.contains(relPath)) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            if (!attrs.isRegularFile()) {
+                                return FileVisitResult.CONTINUE;
+                            }
+                            String relPath = toRelativePath(root, file);
+                            if (!sparseCheckout.includesFile(relPath)) {
+                                return FileVisitResult.CONTINUE;
+                            }
+                            if (!ignoreRules.isIgnored(relPath, false)
+                                    || currentIndex.stagedFiles().containsKey(relPath)) {
+                                expandedPaths.add(relPath);
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
+    }
+
+    private String toRelativePath(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private List<StagedFile> stageFiles(List<String> filePaths) {
+        int threads = Math.max(1, configRepository.getInt(ADD_THREADS_KEY, Runtime.getRuntime().availableProcessors()));
+        if (threads == 1 || filePaths.size() == 1) {
+            List<StagedFile> stagedFiles = new ArrayList<>();
+            for (String filePath : filePaths) {
+                StagedFile stagedFile = stageFile(filePath);
+                if (stagedFile != null) {
+                    stagedFiles.add(stagedFile);
+                }
+            }
+            return stagedFiles;
+        }
+        return stageFilesInParallel(filePaths, threads);
+    }
+
+    private List<StagedFile> stageFilesInParallel(List<String> filePaths, int threads) {
+        Semaphore permits = new Semaphore(threads);
+        List<Future<StagedFile>> pending = new ArrayList<>(filePaths.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String filePath : filePaths) {
+                pending.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return stageFile(filePath);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<StagedFile> stagedFiles = new ArrayList<>(pending.size());
+            try {
+                for (Future<StagedFile> future : pending) {
+                    StagedFile stagedFile = await(future);
+                    if (stagedFile != null) {
+                        stagedFiles.add(stagedFile);
+                    }
+                }
+            } catch (RuntimeException e) {
+                pending.forEach(future -> future.cancel(true));
+                throw e;
+            }
+            return stagedFiles;
+        }
+    }
 
-            byte[] fileContent = readFileContent(absoluteFilePath);
-            String objectHash = objectWriter.write(fileContent);
-            stagedFilesMap.put(filePath, objectHash);
+    private StagedFile stageFile(String filePath) {
+        Path absoluteFilePath = rootDirectoryPath.resolve(filePath);
+        if (!Files.exists(absoluteFilePath) || Files.isDirectory(absoluteFilePath)) {
+            return null;
         }
+        FileStat fileStat = readFileStat(absoluteFilePath);
+        String objectHash = writeBlob(absoluteFilePath);
+        return new StagedFile(filePath, objectHash, fileStat);
+    }
 
-        indexRepository.write(new Index(stagedFilesMap));
+    private StagedFile await(Future<StagedFile> stagedFile) {
+        try {
+            return stagedFile.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
     }
 
+    private void invalidateCachedTrees(Map<String, String> cachedTrees, String filePath) {
+        if (cachedTrees.isEmpty()) {
+            return;
+        }
+        cachedTrees.remove("");
+        int separator = filePath.indexOf('/');
+        while (separator >= 0) {
+            cachedTrees.remove(filePath.substring(0, separator));
+            separator = filePath.indexOf('/', separator + 1);
+        }
+    }
 
-    private byte[] readFileContent(Path filePath) {
+    private FileStat readFileStat(Path filePath) {
         try {
-            return Files.readAllBytes(filePath);
+            return FileStats.read(filePath);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
+    }
+
+
+    private String writeBlob(Path filePath) {
+        try (InputStream in = Files.newInputStream(filePath)) {
+            return objectWriter.write(in);
         } catch (IOException e) {
             throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
         }
     }
+
+    private record StagedFile(String filePath, String objectHash, FileStat fileStat) {
+    }
 }
@@ -1,36 +1,370 @@
 package app.service;
 
+import app.domain.FileStat;
+import app.domain.Index;
+import app.exception.ErrorCode;
+import app.repository.ConfigRepository;
+import app.repository.IndexRepository;
+import app.repository.ObjectReader;
+import app.repository.ObjectStream;
 import app.repository.RefRepository;
+import app.repository.sparse.SparseCheckout;
+import app.service.diff.DiffEntry;
+import app.service.diff.TreeDiff;
+import app.util.FileStats;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
 
 public final class CheckoutService {
+    private static final String CHECKOUT_THREADS_KEY = "checkout.threads";
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String TEMP_PREFIX = "checkout_";
+    private static final String ROOT_DIRECTORY = "";
+
     private final RefRepository refRepository;
     private final StatusService statusService;
-    public CheckoutService(RefRepository refRepository, StatusService statusService) {
+    private final ObjectReader objectReader;
+    private final IndexRepository indexRepository;
+    private final ConfigRepository configRepository;
+    private final Path rootDirectoryPath;
+    private final TreeDiff treeDiff;
+
+    public CheckoutService(RefRepository refRepository, StatusService statusService, ObjectReader objectReader,
+                           IndexRepository indexRepository, ConfigRepository configRepository,
+                           Path rootDirectoryPath) {
         this.refRepository = Objects.requireNonNull(refRepository, "refRepository");
         this.statusService = Objects.requireNonNull(statusService, "statusService");
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.indexRepository = Objects.requireNonNull(indexRepository, "indexRepository");
+        this.configRepository = Objects.requireNonNull(configRepository, "configRepository");
+        this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+        this.treeDiff = new TreeDiff(objectReader);
     }
 
     public CheckoutResult switchBranch(String branchName) {
         if (!refRepository.listBranches().contains(branchName)) {
             return CheckoutResult.BRANCH_NOT_FOUND;
         }
-        StatusService.StatusResult status = statusService.status();
+        CheckoutResult result = checkoutTree(treeOf(refRepository.readBranchHead(refRepository.readCurrentBranch())),
+                treeOf(refRepository.readBranchHead(branchName)));
+        if (result == CheckoutResult.SUCCESS) {
+            refRepository.updateCurrentBranch(branchName);
+        }
+        return result;
+    }
+
+    public CheckoutResult checkoutTree(String currentTree, String targetTree) {
+        if (!isClean(statusService.status())) {
+            return CheckoutResult.WORKING_TREE_NOT_CLEAN;
+        }
+        List<DiffEntry> changes = treeDiff.diff(currentTree, targetTree);
+        SparseCheckout sparseCheckout = SparseCheckout.load(rootDirectoryPath);
+        if (wouldOverwriteUntracked(changes, sparseCheckout)) {
+            return CheckoutResult.UNTRACKED_WOULD_BE_OVERWRITTEN;
+        }
+        Index currentIndex = indexRepository.read();
+        Map<String, FileStat> writtenStats = updateWorkingTree(changes, sparseCheckout);
+        indexRepository.write(updateIndex(currentIndex, changes, writtenStats, targetTree));
+        return CheckoutResult.SUCCESS;
+    }
+
+    public CheckoutResult applySparseCheckout(SparseCheckout sparseCheckout) {
+        Objects.requireNonNull(sparseCheckout, "sparseCheckout");
+        if (!isClean(statusService.status())) {
+            return CheckoutResult.WORKING_TREE_NOT_CLEAN;
+        }
+        Index currentIndex = indexRepository.read();
+        List<DiffEntry> writes = new ArrayList<>();
+        List<String> removals = new ArrayList<>();
+        for (Map.Entry<String, String> entry : currentIndex.stagedFiles().entrySet()) {
+            String path = entry.getKey();
+            Path filePath = rootDirectoryPath.resolve(path);
+            boolean present = Files.isRegularFile(filePath);
+            if (sparseCheckout.includesFile(path) && !present) {
+                writes.add(DiffEntry.add(path, entry.getValue()));
+            } else if (!sparseCheckout.includesFile(path) && present
+                    && isUnmodified(filePath, path, entry.getValue(), currentIndex)) {
+                removals.add(path);
+            }
+        }
+        Map<String, FileStat> writtenStats = applyChanges(writes, removals);
+        Map<String, FileStat> fileStats = new HashMap<>(currentIndex.fileStats());
+        removals.forEach(fileStats::remove);
+        writtenStats.forEach((path, fileStat) -> {
+            if (FileStats.isRacy(fileStat)) {
+                fileStats.remove(path);
+            } else {
+                fileStats.put(path, fileStat);
+            }
+        });
+        indexRepository.write(new Index(currentIndex.stagedFiles(), fileStats, currentIndex.cachedTrees(),
+                currentIndex.untrackedCache()));
+        sparseCheckout.save(rootDirectoryPath);
+        return CheckoutResult.SUCCESS;
+    }
+
+    public List<String> sparseCheckoutDirectories() {
+        return SparseCheckout.load(rootDirectoryPath).directories();
+    }
+
+    private boolean isClean(StatusService.StatusResult status) {
         boolean hasStagedChanges = !(status.stagedAdded().isEmpty() && status.stagedModified().isEmpty()
                 && status.stagedDeleted().isEmpty());
         boolean hasWorkingModifications = !(status.modifiedNotStaged().isEmpty() && status.deletedNotStaged()
                 .isEmpty());
+        return !hasStagedChanges && !hasWorkingModifications;
+    }
 
-        if (hasStagedChanges || hasWorkingModifications) {
-            return CheckoutResult.WORKING_TREE_NOT_CLEAN;
+    private boolean isUnmodified(Path filePath, String path, String objectId, Index currentIndex) {
+        try {
+            FileStat fileStat = FileStats.read(filePath);
+            if (fileStat.matches(currentIndex.fileStat(path))) {
+                return true;
+            }
+            return Arrays.equals(Files.readAllBytes(filePath), objectReader.readRaw(objectId));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
+    }
+
+    private String treeOf(String commit) {
+        if (commit == null || commit.isBlank()) {
+            return null;
+        }
+        return objectReader.readCommit(commit).treeOid();
+    }
+
+    private boolean wouldOverwriteUntracked(List<DiffEntry> changes, SparseCheckout sparseCheckout) {
+        for (DiffEntry change : changes) {
+            if (change.changeType() == DiffEntry.ChangeType.ADD && sparseCheckout.includesFile(change.newPath())
+                    && Files.isRegularFile(rootDirectoryPath.resolve(change.newPath()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, FileStat> updateWorkingTree(List<DiffEntry> changes, SparseCheckout sparseCheckout) {
+        List<DiffEntry> writes = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (DiffEntry change : changes) {
+            if (!sparseCheckout.includesFile(change.path())) {
+                continue;
+            }
+            if (change.changeType() == DiffEntry.ChangeType.DELETE) {
+                deletes.add(change.oldPath());
+            } else {
+                writes.add(change);
+            }
+        }
+        return applyChanges(writes, deletes);
+    }
+
+    private void deleteFiles(List<String> paths) {
+        Set<Path> parentDirectories = new TreeSet<>(Comparator.reverseOrder());
+        for (String path : paths) {
+            Path filePath = rootDirectoryPath.resolve(path);
+            deleteFile(filePath);
+            for (Path parent = filePath.getParent(); !parent.equals(rootDirectoryPath); parent = parent.getParent()) {
+                parentDirectories.add(parent);
+            }
+        }
+        parentDirectories.forEach(this::deleteIfEmpty);
+    }
+
+    private Map<String, FileStat> applyChanges(List<DiffEntry> writes, List<String> deletes) {
+        List<Path> stagedFiles = stageFiles(writes);
+        try {
+            deleteFiles(deletes);
+            List<FileStat> stats = inParallel(writes.size(),
+                    i -> moveIntoPlace(stagedFiles.get(i), writes.get(i).newPath()));
+            Map<String, FileStat> writtenStats = new HashMap<>();
+            for (int i = 0; i < writes.size(); i++) {
+                writtenStats.put(writes.get(i).newPath(), stats.get(i));
+            }
+            return writtenStats;
+        } finally {
+            stagedFiles.forEach(CheckoutService::deleteQuietly);
+        }
+    }
+
+    private List<Path> stageFiles(List<DiffEntry> writes) {
+        Queue<Path> createdFiles = new ConcurrentLinkedQueue<>();
+        try {
+            return inParallel(writes.size(), i -> stageFile(writes.get(i).newObjectId(), createdFiles));
+        } catch (RuntimeException e) {
+            createdFiles.forEach(CheckoutService::deleteQuietly);
+            throw e;
+        }
+    }
+
+    private Path stageFile(String objectId, Queue<Path> createdFiles) {
+        try {
+            Path tempFilePath = Files.createTempFile(rootDirectoryPath.resolve(DOT_JAVA_GIT), TEMP_PREFIX, null);
+            createdFiles.add(tempFilePath);
+            try (ObjectStream content = objectReader.openRawStream(objectId);
+                 OutputStream out = Files.newOutputStream(tempFilePath)) {
+                content.transferTo(out);
+            }
+            return tempFilePath;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private FileStat moveIntoPlace(Path stagedFile, String path) {
+        Path filePath = rootDirectoryPath.resolve(path);
+        try {
+            Files.createDirectories(filePath.getParent());
+            Files.move(stagedFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return FileStats.read(filePath);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private <T> List<T> inParallel(int count, IntFunction<T> task) {
+        int threads = Math.max(1, configRepository.getInt(CHECKOUT_THREADS_KEY,
+                Runtime.getRuntime().availableProcessors()));
+        List<T> results = new ArrayList<>(count);
+        if (threads == 1 || count <= 1) {
+            for (int i = 0; i < count; i++) {
+                results.add(task.apply(i));
+            }
+            return results;
+        }
+        Semaphore permits = new Semaphore(threads);
+        List<Future<T>> pending = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                pending.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.apply(index);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            try {
+                for (Future<T> future : pending) {
+                    results.add(await(future));
+                }
+            } catch (RuntimeException e) {
+                pending.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private Index updateIndex(Index currentIndex, List<DiffEntry> changes, Map<String, FileStat> writtenStats,
+                              String targetTree) {
+        Map<String, String> stagedFiles = new LinkedHashMap<>(currentIndex.stagedFiles());
+        Map<String, FileStat> fileStats = new HashMap<>(currentIndex.fileStats());
+        Map<String, String> cachedTrees = new HashMap<>(currentIndex.cachedTrees());
+        for (DiffEntry change : changes) {
+            String path = change.path();
+            invalidateCachedTrees(cachedTrees, path);
+            if (change.changeType() == DiffEntry.ChangeType.DELETE) {
+                stagedFiles.remove(path);
+                fileStats.remove(path);
+                continue;
+            }
+            stagedFiles.put(path, change.newObjectId());
+            FileStat fileStat = writtenStats.get(path);
+            if (fileStat == null || FileStats.isRacy(fileStat)) {
+                fileStats.remove(path);
+            } else {
+                fileStats.put(path, fileStat);
+            }
+        }
+        if (targetTree != null) {
+            cachedTrees.put(ROOT_DIRECTORY, targetTree);
+        }
+        return new Index(stagedFiles, fileStats, cachedTrees, currentIndex.untrackedCache());
+    }
+
+    private void invalidateCachedTrees(Map<String, String> cachedTrees, String filePath) {
+        if (cachedTrees.isEmpty()) {
+            return;
+        }
+        cachedTrees.remove(ROOT_DIRECTORY);
+        int separator = filePath.indexOf('/');
+        while (separator >= 0) {
+            cachedTrees.remove(filePath.substring(0, separator));
+            separator = filePath.indexOf('/', separator + 1);
+        }
+    }
+
+    private void deleteFile(Path filePath) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private void deleteIfEmpty(Path directory) {
+        try {
+            Files.deleteIfExists(directory);
+        } catch (DirectoryNotEmptyException ignored) {
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
         }
-        refRepository.updateCurrentBranch(branchName);
-        return CheckoutResult.SUCCESS;
     }
 
     public enum CheckoutResult {
         SUCCESS,
         BRANCH_NOT_FOUND,
-        WORKING_TREE_NOT_CLEAN
+        WORKING_TREE_NOT_CLEAN,
+        UNTRACKED_WOULD_BE_OVERWRITTEN
     }
 }
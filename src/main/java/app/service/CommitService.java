@@ -7,13 +7,16 @@ import app.exception.ErrorCode;
 import app.repository.IndexRepository;
 import app.repository.ObjectWriter;
 import app.repository.RefRepository;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 
 public final class CommitService {
+    private static final String ROOT_DIRECTORY = "";
+
     private final IndexRepository indexRepository;
     private final ObjectWriter objectWriter;
     private final RefRepository refRepository;
@@ -34,8 +37,12 @@ public final class CommitService {
         Index index = indexRepository.read();
         ensureHasStagedFiles(index);
 
-        Tree tree = new Tree(index.stagedFiles());
-        String treeHash = writeTree(tree);
+        Map<String, String> cachedTrees = new HashMap<>(index.cachedTrees());
+        String treeHash = writeTree(index.stagedFiles(), cachedTrees);
+        if (!cachedTrees.equals(index.cachedTrees())) {
+            indexRepository.write(new Index(index.stagedFiles(), index.fileStats(), cachedTrees,
+                    index.untrackedCache()));
+        }
 
         String parentCommitHash = readCurrentHeadCommit();
 
@@ -64,22 +71,32 @@ public final class CommitService {
         }
     }
 
-    private String writeTree(Tree tree) {
-        byte[] treeContent = buildTreeContent(tree).getBytes(StandardCharsets.UTF_8);
-        return objectWriter.write(treeContent);
-    }
-
-
-    private String buildTreeContent(Tree tree) {
-        StringBuilder contentBuilder = new StringBuilder();
-        for (Map.Entry<String, String> entry : tree.entries().entrySet()) {
-            appendTreeEntry(contentBuilder, entry);
+    private String writeTree(Map<String, String> stagedFiles, Map<String, String> cachedTrees) {
+        String cachedRoot = cachedTrees.get(ROOT_DIRECTORY);
+        if (cachedRoot != null) {
+            return cachedRoot;
+        }
+        DirectoryNode root = new DirectoryNode();
+        for (Map.Entry<String, String> stagedFile : stagedFiles.entrySet()) {
+            root.add(stagedFile.getKey().split("/"), 0, stagedFile.getValue());
         }
-        return contentBuilder.toString();
+        return writeTree(root, ROOT_DIRECTORY, cachedTrees);
     }
 
-    private void appendTreeEntry(StringBuilder contentBuilder, Map.Entry<String, String> entry) {
-        contentBuilder.append("blob ").append(entry.getValue()).append(' ').append(entry.getKey()).append('\n');
+    private String writeTree(DirectoryNode directory, String directoryPath, Map<String, String> cachedTrees) {
+        String cachedTree = cachedTrees.get(directoryPath);
+        if (cachedTree != null) {
+            return cachedTree;
+        }
+        Map<String, String> subtrees = new TreeMap<>();
+        for (Map.Entry<String, DirectoryNode> child : directory.directories.entrySet()) {
+            String childPath = directoryPath.isEmpty() ? child.getKey() : directoryPath + "/" + child.getKey();
+            subtrees.put(child.getKey(), writeTree(child.getValue(), childPath, cachedTrees));
+        }
+        Tree tree = new Tree(directory.files, subtrees);
+        String treeHash = objectWriter.write(ObjectContents.tree(tree));
+        cachedTrees.put(directoryPath, treeHash);
+        return treeHash;
     }
 
 
@@ -89,24 +106,10 @@ public final class CommitService {
     }
 
     private String writeCommit(Commit commit) {
-        byte[] commitContent = buildCommitContent(commit).getBytes(StandardCharsets.UTF_8);
-        return objectWriter.write(commitContent);
+        return objectWriter.write(ObjectContents.commit(commit));
     }
 
 
-    private String buildCommitContent(Commit commit) {
-        StringBuilder contentBuilder = new StringBuilder();
-        contentBuilder.append("tree ").append(commit.treeOid()).append('\n');
-        if (commit.parentOid() != null && !commit.parentOid().isBlank()) {
-            contentBuilder.append("parent ").append(commit.parentOid()).append('\n');
-        }
-        contentBuilder.append("author ").append(commit.author()).append('\n');
-        contentBuilder.append("date ").append(commit.createdAtMillis()).append('\n');
-        contentBuilder.append('\n');
-        contentBuilder.append(commit.message()).append('\n');
-        return contentBuilder.toString();
-    }
-
     private void updateHead(String commitHash) {
         String branch = refRepository.readCurrentBranch();
         refRepository.updateBranchHead(branch, commitHash);
@@ -125,4 +128,22 @@ public final class CommitService {
         }
         return value;
     }
+
+    private static final class DirectoryNode {
+        final Map<String, String> files = new TreeMap<>();
+        final Map<String, DirectoryNode> directories = new TreeMap<>();
+
+        void add(String[] segments, int position, String objectId) {
+            if (segments[position].isEmpty() && position < segments.length - 1) {
+                add(segments, position + 1, objectId);
+                return;
+            }
+            if (position == segments.length - 1) {
+                files.put(segments[position], objectId);
+                return;
+            }
+            directories.computeIfAbsent(segments[position], name -> new DirectoryNode())
+                    .add(segments, position + 1, objectId);
+        }
+    }
 }
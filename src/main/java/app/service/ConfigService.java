@@ -0,0 +1,30 @@
+package app.service;
+
+import app.exception.ErrorCode;
+import app.repository.ConfigRepository;
+import java.util.Objects;
+
+
+public final class ConfigService {
+    private final ConfigRepository configRepository;
+
+    public ConfigService(ConfigRepository configRepository) {
+        this.configRepository = Objects.requireNonNull(configRepository, "configRepository");
+    }
+
+    public String get(String key) {
+        validateKey(key);
+        return configRepository.get(key);
+    }
+
+    public void set(String key, String value) {
+        validateKey(key);
+        configRepository.set(key, value == null ? "" : value.trim());
+    }
+
+    private void validateKey(String key) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException(ErrorCode.CONFIG_KEY_EMPTY.message());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package app.service;
+
+import app.domain.Commit;
+import app.exception.ErrorCode;
+import app.repository.ConfigRepository;
+import app.repository.IndexRepository;
+import app.repository.ObjectReader;
+import app.repository.RefRepository;
+import app.service.diff.DiffAlgorithm;
+import app.service.diff.DiffEntry;
+import app.service.diff.FileDiff;
+import app.service.diff.RenameDetector;
+import app.service.diff.TreeDiff;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class DiffService {
+    private static final String DIFF_ALGORITHM_KEY = "diff.algorithm";
+    private static final String HEAD = "HEAD";
+
+    private final StatusService statusService;
+    private final IndexRepository indexRepository;
+    private final RefRepository refRepository;
+    private final ObjectReader objectReader;
+    private final ConfigRepository configRepository;
+    private final Path rootDirectoryPath;
+    private final TreeDiff treeDiff;
+    private final RenameDetector renameDetector;
+
+    public DiffService(StatusService statusService, IndexRepository indexRepository, RefRepository refRepository,
+                       ObjectReader objectReader, ConfigRepository configRepository, Path rootDirectoryPath) {
+        this.statusService = Objects.requireNonNull(statusService, "statusService");
+        this.indexRepository = Objects.requireNonNull(indexRepository, "indexRepository");
+        this.refRepository = Objects.requireNonNull(refRepository, "refRepository");
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.configRepository = Objects.requireNonNull(configRepository, "configRepository");
+        this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+        this.treeDiff = new TreeDiff(objectReader);
+        this.renameDetector = new RenameDetector(objectReader);
+    }
+
+    public List<FileDiff> diffWorkingTree(DiffAlgorithm algorithm) {
+        DiffAlgorithm resolved = resolve(algorithm);
+        StatusService.StatusResult status = statusService.status();
+        Map<String, String> stagedFiles = indexRepository.read().stagedFiles();
+        Set<String> paths = new TreeSet<>(status.modifiedNotStaged());
+        paths.addAll(status.deletedNotStaged());
+        List<FileDiff> diffs = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            byte[] oldContent = objectReader.readRaw(stagedFiles.get(path));
+            if (status.deletedNotStaged().contains(path)) {
+                diffs.add(FileDiff.of(path, null, oldContent, null, resolved));
+                continue;
+            }
+            diffs.add(FileDiff.of(path, path, oldContent, readWorkingFile(path), resolved));
+        }
+        return diffs;
+    }
+
+    public List<FileDiff> diffCached(DiffAlgorithm algorithm, boolean detectRenames) {
+        Map<String, String> stagedFiles = indexRepository.read().stagedFiles();
+        Map<String, String> headTree = readHeadTree();
+        Set<String> paths = new TreeSet<>(stagedFiles.keySet());
+        paths.addAll(headTree.keySet());
+        List<DiffEntry> changes = new ArrayList<>();
+        for (String path : paths) {
+            String oldOid = headTree.get(path);
+            String newOid = stagedFiles.get(path);
+            if (oldOid == null) {
+                changes.add(DiffEntry.add(path, newOid));
+            } else if (newOid == null) {
+                changes.add(DiffEntry.delete(path, oldOid));
+            } else if (!oldOid.equals(newOid)) {
+                changes.add(DiffEntry.modify(path, oldOid, newOid));
+            }
+        }
+        return toFileDiffs(detectRenames ? renameDetector.detect(changes) : changes, resolve(algorithm));
+    }
+
+    public List<FileDiff> diffCommits(String oldRevision, String newRevision, DiffAlgorithm algorithm,
+                                      boolean detectRenames) {
+        String oldTreeOid = objectReader.readCommit(resolveRevision(oldRevision)).treeOid();
+        String newTreeOid = objectReader.readCommit(resolveRevision(newRevision)).treeOid();
+        List<DiffEntry> changes = treeDiff.diff(oldTreeOid, newTreeOid);
+        return toFileDiffs(detectRenames ? renameDetector.detect(changes) : changes, resolve(algorithm));
+    }
+
+    private List<FileDiff> toFileDiffs(List<DiffEntry> changes, DiffAlgorithm algorithm) {
+        List<FileDiff> diffs = new ArrayList<>(changes.size());
+        for (DiffEntry change : changes) {
+            diffs.add(FileDiff.of(change.oldPath(), change.newPath(), readObject(change.oldObjectId()),
+                    readObject(change.newObjectId()), algorithm));
+        }
+        return diffs;
+    }
+
+    private byte[] readObject(String objectId) {
+        return objectId == null ? null : objectReader.readRaw(objectId);
+    }
+
+    private String resolveRevision(String revision) {
+        String commit = HEAD.equals(revision)
+                ? refRepository.readBranchHead(refRepository.readCurrentBranch())
+                : refRepository.readBranchHead(revision);
+        if (commit != null && !commit.isBlank()) {
+            return commit;
+        }
+        if (objectReader.contains(revision)) {
+            return revision;
+        }
+        throw new IllegalArgumentException(ErrorCode.REVISION_NOT_FOUND.message());
+    }
+
+    private DiffAlgorithm resolve(DiffAlgorithm algorithm) {
+        return algorithm != null ? algorithm : DiffAlgorithm.from(configRepository.get(DIFF_ALGORITHM_KEY));
+    }
+
+    private Map<String, String> readHeadTree() {
+        String headCommitHash = refRepository.readBranchHead(refRepository.readCurrentBranch());
+        if (headCommitHash == null || headCommitHash.isBlank()) {
+            return Map.of();
+        }
+        Commit commit = objectReader.readCommit(headCommitHash);
+        return objectReader.readTreeRecursively(commit.treeOid());
+    }
+
+    private byte[] readWorkingFile(String path) {
+        try {
+            return Files.readAllBytes(rootDirectoryPath.resolve(path));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
+    }
+}
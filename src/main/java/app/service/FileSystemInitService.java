@@ -14,6 +14,8 @@ public final class FileSystemInitService {
     private static final String HEADS = "heads";
     private static final String HEAD = "HEAD";
     private static final String INDEX = "index";
+    private static final String CONFIG = "config";
+    private static final String DEFAULT_CONFIG = "core.compression = zlib\n";
     private static final String MASTER = "master";
     private static final String MASTER_REF = "ref: refs/heads/master\n";
 
@@ -39,6 +41,7 @@ public final class FileSystemInitService {
         createHeadFile(jgitDirectoryPath);
         createMasterBranchFile(jgitDirectoryPath);
         createIndexFile(jgitDirectoryPath);
+        createConfigFile(jgitDirectoryPath);
     }
 
     private void createHeadFile(Path jgitDirectoryPath) {
@@ -76,4 +79,16 @@ public final class FileSystemInitService {
             throw new IllegalArgumentException(ErrorCode.REPOSITORY_INIT_FAILED.message());
         }
     }
+
+    private void createConfigFile(Path jgitDirectoryPath) {
+        Path configFilePath = jgitDirectoryPath.resolve(CONFIG);
+        if (Files.exists(configFilePath)) {
+            return;
+        }
+        try {
+            Files.writeString(configFilePath, DEFAULT_CONFIG, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.REPOSITORY_INIT_FAILED.message());
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package app.service;
+
+import app.exception.ErrorCode;
+import app.repository.ignore.IgnoreRules;
+import app.repository.watch.WatchJournal;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+public final class FileWatchService {
+    private static final String DOT_JAVA_GIT = ".javaGit";
+
+    private final Path rootDirectoryPath;
+
+    public FileWatchService(Path rootDirectoryPath) {
+        this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+    }
+
+    public void watch(IntConsumer onStarted) {
+        Path cookieDirectoryPath = WatchJournal.cookieDirectoryPath(rootDirectoryPath);
+        try (WatchJournal journal = WatchJournal.start(rootDirectoryPath);
+             WatchService watchService = rootDirectoryPath.getFileSystem().newWatchService()) {
+            WatchedTree tree = new WatchedTree(watchService, IgnoreRules.load(rootDirectoryPath));
+            tree.register(rootDirectoryPath, null);
+            cookieDirectoryPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            onStarted.accept(tree.size());
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<String> changedPaths = new LinkedHashSet<>();
+                List<String> cookies = new ArrayList<>();
+                while (key != null) {
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        handleEvent(tree, directory, cookieDirectoryPath, event, changedPaths, cookies);
+                    }
+                    if (!key.reset()) {
+                        tree.forget(key);
+                    }
+                    key = watchService.poll();
+                }
+                changedPaths.addAll(cookies);
+                journal.append(changedPaths);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.WATCH_FAILED.message());
+        }
+    }
+
+    private void handleEvent(WatchedTree tree, Path directory, Path cookieDirectoryPath, WatchEvent<?> event,
+                             Set<String> changedPaths, List<String> cookies) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            changedPaths.add(WatchJournal.OVERFLOW_PATH);
+            return;
+        }
+        Path child = directory.resolve((Path) event.context());
+        String relPath = toRelativePath(child);
+        if (directory.equals(cookieDirectoryPath)) {
+            cookies.add(relPath);
+            return;
+        }
+        if (relPath.equals(DOT_JAVA_GIT) || relPath.startsWith(DOT_JAVA_GIT + "/")) {
+            return;
+        }
+        changedPaths.add(relPath);
+        if (relPath.equals(IgnoreRules.IGNORE_FILE)) {
+            tree.reload(IgnoreRules.load(rootDirectoryPath));
+            tree.register(rootDirectoryPath, changedPaths);
+            return;
+        }
+        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+            tree.register(child, changedPaths);
+        }
+    }
+
+    private String toRelativePath(Path path) {
+        return rootDirectoryPath.relativize(path).toString().replace('\\', '/');
+    }
+
+    private final class WatchedTree {
+        private final WatchService watchService;
+        private final Map<WatchKey, Path> directories = new HashMap<>();
+        private IgnoreRules ignoreRules;
+
+        WatchedTree(WatchService watchService, IgnoreRules ignoreRules) {
+            this.watchService = watchService;
+            this.ignoreRules = ignoreRules;
+        }
+
+        int size() {
+            return directories.size();
+        }
+
+        void reload(IgnoreRules ignoreRules) {
+            this.ignoreRules = ignoreRules;
+        }
+
+        void forget(WatchKey key) {
+            directories.remove(key);
+        }
+
+        void register(Path start, Set<String> discoveredPaths) {
+            try {
+                Files.walkFileTree(start, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                        String relPath = toRelativePath(dir);
+                        if (DOT_JAVA_GIT.equals(relPath) || ignoreRules.isIgnored(relPath, true)) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                        boolean added = directories.put(key, dir) == null;
+                        if (added && discoveredPaths != null && !dir.equals(start)) {
+                            discoveredPaths.add(relPath);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (discoveredPaths != null && !start.equals(rootDirectoryPath)) {
+                            discoveredPaths.add(toRelativePath(file));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new IllegalArgumentException(ErrorCode.WATCH_FAILED.message());
+            }
+        }
+    }
+}
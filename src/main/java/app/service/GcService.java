@@ -0,0 +1,145 @@
+package app.service;
+
+import app.exception.ErrorCode;
+import app.domain.Commit;
+import app.domain.Tree;
+import app.repository.ObjectReader;
+import app.repository.RefRepository;
+import app.repository.graph.CommitGraphWriter;
+import app.repository.pack.PackDirectory;
+import app.repository.pack.PackFile;
+import app.repository.pack.PackWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+
+public final class GcService {
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String OBJECTS = "objects";
+    private static final int SHA_PREFIX_LENGTH = 2;
+
+    private final ObjectReader objectReader;
+    private final RefRepository refRepository;
+    private final Path rootDirectoryPath;
+
+    public GcService(ObjectReader objectReader, RefRepository refRepository, Path rootDirectoryPath) {
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.refRepository = Objects.requireNonNull(refRepository, "refRepository");
+        this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
+    }
+
+    public int gc() {
+        Set<String> objectIds = objectReader.listObjectIds();
+        if (objectIds.isEmpty()) {
+            return 0;
+        }
+        PackDirectory packDirectory = new PackDirectory(rootDirectoryPath);
+        List<PackFile> oldPacks = new ArrayList<>(packDirectory.packs());
+
+        Map<String, String> pathHints = collectPathHints(objectIds);
+        String packName = new PackWriter(packDirectory.packDirectoryPath())
+                .write(objectIds, pathHints, objectReader);
+
+        removeOldPacks(oldPacks, packName);
+        removeLooseObjects(objectIds);
+        new CommitGraphWriter(rootDirectoryPath).write(branchHeads(), objectReader);
+        return objectIds.size();
+    }
+
+    private List<String> branchHeads() {
+        List<String> heads = new ArrayList<>();
+        for (String branch : refRepository.listBranches()) {
+            String head = refRepository.readBranchHead(branch);
+            if (head != null && !head.isBlank()) {
+                heads.add(head);
+            }
+        }
+        return heads;
+    }
+
+    private Map<String, String> collectPathHints(Set<String> objectIds) {
+        Map<String, String> pathHints = new HashMap<>();
+        Set<String> visitedCommits = new HashSet<>();
+        Set<String> visitedTrees = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(branchHeads());
+        while (!pending.isEmpty()) {
+            String commitHash = pending.pop();
+            if (!objectIds.contains(commitHash) || !visitedCommits.add(commitHash)) {
+                continue;
+            }
+            Commit commit = objectReader.readCommit(commitHash);
+            collectTreePathHints(commit.treeOid(), "", objectIds, visitedTrees, pathHints);
+            for (String parentOid : commit.parentOids()) {
+                pending.push(parentOid);
+            }
+        }
+        return pathHints;
+    }
+
+    private void collectTreePathHints(String treeOid, String prefix, Set<String> objectIds,
+                                      Set<String> visitedTrees, Map<String, String> pathHints) {
+        if (!objectIds.contains(treeOid) || !visitedTrees.add(treeOid)) {
+            return;
+        }
+        Tree tree = objectReader.readTree(treeOid);
+        for (Map.Entry<String, String> entry : tree.entries().entrySet()) {
+            pathHints.putIfAbsent(entry.getValue(), prefix + entry.getKey());
+        }
+        for (Map.Entry<String, String> subtree : tree.subtrees().entrySet()) {
+            String path = prefix + subtree.getKey();
+            pathHints.putIfAbsent(subtree.getValue(), path);
+            collectTreePathHints(subtree.getValue(), path + "/", objectIds, visitedTrees, pathHints);
+        }
+    }
+
+    private void removeOldPacks(List<PackFile> oldPacks, String packName) {
+        for (PackFile pack : oldPacks) {
+            if (pack.packFilePath().getFileName().toString().startsWith(packName)) {
+                continue;
+            }
+            delete(pack.packIndex().indexFilePath());
+            delete(pack.packFilePath());
+        }
+    }
+
+    private void removeLooseObjects(Set<String> packedObjectIds) {
+        Path objectsDirectoryPath = rootDirectoryPath.resolve(DOT_JAVA_GIT).resolve(OBJECTS);
+        Set<Path> touchedDirectories = new HashSet<>();
+        for (String objectId : packedObjectIds) {
+            Path directory = objectsDirectoryPath.resolve(objectId.substring(0, SHA_PREFIX_LENGTH));
+            delete(directory.resolve(objectId.substring(SHA_PREFIX_LENGTH)));
+            touchedDirectories.add(directory);
+        }
+        for (Path directory : touchedDirectories) {
+            deleteIfEmpty(directory);
+        }
+    }
+
+    private void deleteIfEmpty(Path directory) {
+        try {
+            Files.deleteIfExists(directory);
+        } catch (DirectoryNotEmptyException ignored) {
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+}
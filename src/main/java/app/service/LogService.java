@@ -72,7 +72,9 @@ public final class LogService {
                 continue;
             }
             if (line.startsWith("parent ")) {
-                parentHash = line.substring("parent ".length()).trim();
+                if (parentHash == null) {
+                    parentHash = line.substring("parent ".length()).trim();
+                }
                 continue;
             }
             if (line.startsWith("author ")) {
@@ -1,82 +1,228 @@
 package app.service;
 
+import app.domain.Commit;
+import app.domain.Tree;
 import app.repository.ObjectReader;
+import app.repository.ObjectWriter;
 import app.repository.RefRepository;
+import app.repository.graph.CommitGraph;
+import app.service.diff.TextMerge;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 
 public final class MergeService {
-    private static final String PARENT_PREFIX = "parent ";
+    private static final Tree EMPTY_TREE = new Tree(Map.of());
+    private static final String MERGE_MESSAGE_FORMAT = "Merge branch '%s'";
+
     private final RefRepository refRepository;
     private final ObjectReader objectReader;
-    public MergeService(RefRepository refRepository, ObjectReader objectReader) {
+    private final ObjectWriter objectWriter;
+    private final CheckoutService checkoutService;
+    private final CommitGraph commitGraph;
+    public MergeService(RefRepository refRepository, ObjectReader objectReader, ObjectWriter objectWriter,
+                        CheckoutService checkoutService) {
+        this(refRepository, objectReader, objectWriter, checkoutService, new CommitGraph(objectReader));
+    }
+
+    public MergeService(RefRepository refRepository, ObjectReader objectReader, ObjectWriter objectWriter,
+                        CheckoutService checkoutService, CommitGraph commitGraph) {
         this.refRepository = Objects.requireNonNull(refRepository, "refRepository");
         this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.objectWriter = Objects.requireNonNull(objectWriter, "objectWriter");
+        this.checkoutService = Objects.requireNonNull(checkoutService, "checkoutService");
+        this.commitGraph = Objects.requireNonNull(commitGraph, "commitGraph");
     }
 
     public MergeResult merge(String targetBranch) {
+        return merge(targetBranch, null).result();
+    }
+
+    public MergeOutcome merge(String targetBranch, String author) {
         if (targetBranch == null || targetBranch.isBlank()) {
-            return MergeResult.BRANCH_NOT_FOUND;
+            return MergeOutcome.of(MergeResult.BRANCH_NOT_FOUND);
         }
         String currentBranch = refRepository.readCurrentBranch();
         String currentHead = refRepository.readBranchHead(currentBranch);
         String targetHead = refRepository.readBranchHead(targetBranch);
 
         if (targetHead == null || targetHead.isBlank()) {
-            return MergeResult.BRANCH_NOT_FOUND;
+            return MergeOutcome.of(MergeResult.BRANCH_NOT_FOUND);
         }
 
         if (currentHead == null || currentHead.isBlank()) {
             refRepository.updateBranchHead(currentBranch, targetHead);
-            return MergeResult.FAST_FORWARD;
+            return MergeOutcome.of(MergeResult.FAST_FORWARD);
         }
 
         if (currentHead.equals(targetHead)) {
-            return MergeResult.ALREADY_UP_TO_DATE;
+            return MergeOutcome.of(MergeResult.ALREADY_UP_TO_DATE);
         }
 
-        if (isAncestor(currentHead, targetHead)) {
+        List<String> mergeBases = commitGraph.mergeBases(currentHead, targetHead);
+        if (mergeBases.contains(targetHead)) {
+            return MergeOutcome.of(MergeResult.ALREADY_UP_TO_DATE);
+        }
+        if (mergeBases.contains(currentHead)) {
             refRepository.updateBranchHead(currentBranch, targetHead);
-            return MergeResult.FAST_FORWARD;
+            return MergeOutcome.of(MergeResult.FAST_FORWARD);
         }
 
-        return MergeResult.NOT_FAST_FORWARD;
+        if (author == null || author.isBlank()) {
+            return MergeOutcome.of(MergeResult.NOT_FAST_FORWARD);
+        }
+        if (mergeBases.isEmpty()) {
+            return MergeOutcome.of(MergeResult.NO_MERGE_BASE);
+        }
+
+        String ourTree = treeOf(currentHead);
+        List<String> conflicts = new ArrayList<>();
+        String mergedTree = mergeTrees(nested(treeOf(mergeBases.get(0))), nested(ourTree),
+                nested(treeOf(targetHead)), "", conflicts);
+        if (!conflicts.isEmpty()) {
+            return new MergeOutcome(MergeResult.CONFLICT, List.copyOf(conflicts));
+        }
+        if (mergedTree == null) {
+            mergedTree = objectWriter.write(ObjectContents.tree(EMPTY_TREE));
+        }
+        Commit mergeCommit = new Commit(MERGE_MESSAGE_FORMAT.formatted(targetBranch), mergedTree,
+                List.of(currentHead, targetHead), author);
+        String mergeCommitOid = objectWriter.write(ObjectContents.commit(mergeCommit));
+        CheckoutService.CheckoutResult checkoutResult = checkoutService.checkoutTree(ourTree, mergedTree);
+        if (checkoutResult == CheckoutService.CheckoutResult.WORKING_TREE_NOT_CLEAN) {
+            return MergeOutcome.of(MergeResult.WORKING_TREE_NOT_CLEAN);
+        }
+        if (checkoutResult == CheckoutService.CheckoutResult.UNTRACKED_WOULD_BE_OVERWRITTEN) {
+            return MergeOutcome.of(MergeResult.UNTRACKED_WOULD_BE_OVERWRITTEN);
+        }
+        refRepository.updateBranchHead(currentBranch, mergeCommitOid);
+        return MergeOutcome.of(MergeResult.MERGED);
+    }
+
+    private String treeOf(String commit) {
+        return objectReader.readCommit(commit).treeOid();
     }
 
-    private boolean isAncestor(String possibleAncestor, String commit) {
-        String cursor = commit;
-        while (cursor != null && !cursor.isBlank()) {
-            if (cursor.equals(possibleAncestor)) {
-                return true;
+    private String nested(String treeOid) {
+        for (String name : objectReader.readTree(treeOid).entries().keySet()) {
+            if (name.indexOf('/') >= 0) {
+                return writeNestedTree(objectReader.readTreeRecursively(treeOid));
             }
-            String parentHash = parseParent(cursor);
-            cursor = parentHash;
         }
-        return false;
+        return treeOid;
     }
 
-    private String parseParent(String commitHash) {
-        byte[] bytes = objectReader.readRaw(commitHash);
-
-        String content = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            if (line.startsWith(PARENT_PREFIX)) {
-                return line.substring(PARENT_PREFIX.length()).trim();
+    private String writeNestedTree(Map<String, String> files) {
+        Map<String, String> entries = new TreeMap<>();
+        Map<String, Map<String, String>> directories = new TreeMap<>();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            String path = file.getKey();
+            int separator = path.indexOf('/');
+            if (separator < 0) {
+                entries.put(path, file.getValue());
+            } else {
+                directories.computeIfAbsent(path.substring(0, separator), name -> new TreeMap<>())
+                        .put(path.substring(separator + 1), file.getValue());
             }
-            if (line.isBlank()) {
+        }
+        Map<String, String> subtrees = new TreeMap<>();
+        directories.forEach((name, children) -> subtrees.put(name, writeNestedTree(children)));
+        return objectWriter.write(ObjectContents.tree(new Tree(entries, subtrees)));
+    }
 
-                break;
+    private String mergeTrees(String baseTree, String ourTree, String theirTree, String prefix,
+                              List<String> conflicts) {
+        if (Objects.equals(ourTree, theirTree)) {
+            return ourTree;
+        }
+        if (Objects.equals(baseTree, ourTree)) {
+            return theirTree;
+        }
+        if (Objects.equals(baseTree, theirTree)) {
+            return ourTree;
+        }
+        Tree base = readTree(baseTree);
+        Tree ours = readTree(ourTree);
+        Tree theirs = readTree(theirTree);
+        Set<String> names = new TreeSet<>();
+        for (Tree tree : List.of(base, ours, theirs)) {
+            names.addAll(tree.entries().keySet());
+            names.addAll(tree.subtrees().keySet());
+        }
+
+        Map<String, String> entries = new TreeMap<>();
+        Map<String, String> subtrees = new TreeMap<>();
+        for (String name : names) {
+            String path = prefix + name;
+            String blob = mergeBlobs(base.entries().get(name), ours.entries().get(name), theirs.entries().get(name),
+                    path, conflicts);
+            String subtree = mergeTrees(base.subtrees().get(name), ours.subtrees().get(name),
+                    theirs.subtrees().get(name), path + "/", conflicts);
+            if (blob != null && subtree != null) {
+                conflicts.add(path);
+                continue;
+            }
+            if (blob != null) {
+                entries.put(name, blob);
             }
+            if (subtree != null) {
+                subtrees.put(name, subtree);
+            }
+        }
+        if (entries.isEmpty() && subtrees.isEmpty()) {
+            return null;
+        }
+        return objectWriter.write(ObjectContents.tree(new Tree(entries, subtrees)));
+    }
+
+    private String mergeBlobs(String baseBlob, String ourBlob, String theirBlob, String path,
+                              List<String> conflicts) {
+        if (Objects.equals(ourBlob, theirBlob)) {
+            return ourBlob;
+        }
+        if (Objects.equals(baseBlob, ourBlob)) {
+            return theirBlob;
+        }
+        if (Objects.equals(baseBlob, theirBlob)) {
+            return ourBlob;
+        }
+        if (ourBlob == null || theirBlob == null) {
+            conflicts.add(path);
+            return null;
+        }
+        byte[] baseContent = baseBlob == null ? new byte[0] : objectReader.readRaw(baseBlob);
+        byte[] merged = TextMerge.merge(baseContent, objectReader.readRaw(ourBlob), objectReader.readRaw(theirBlob));
+        if (merged == null) {
+            conflicts.add(path);
+            return null;
         }
-        return null;
+        return objectWriter.write(merged);
     }
 
+    private Tree readTree(String treeOid) {
+        return treeOid == null ? EMPTY_TREE : objectReader.readTree(treeOid);
+    }
+
+    public record MergeOutcome(MergeResult result, List<String> conflicts) {
+        static MergeOutcome of(MergeResult result) {
+            return new MergeOutcome(result, List.of());
+        }
+    }
 
     public enum MergeResult {
         ALREADY_UP_TO_DATE,
         FAST_FORWARD,
+        MERGED,
         BRANCH_NOT_FOUND,
-        NOT_FAST_FORWARD
+        NOT_FAST_FORWARD,
+        NO_MERGE_BASE,
+        CONFLICT,
+        WORKING_TREE_NOT_CLEAN,
+        UNTRACKED_WOULD_BE_OVERWRITTEN
     }
 }
@@ -0,0 +1,46 @@
+package app.service;
+
+import app.domain.Commit;
+import app.domain.Tree;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+final class ObjectContents {
+    private ObjectContents() {
+    }
+
+    static byte[] tree(Tree tree) {
+        Map<String, String> sortedLines = new TreeMap<>();
+        for (Map.Entry<String, String> entry : tree.entries().entrySet()) {
+            sortedLines.put(entry.getKey(), treeLine("blob", entry));
+        }
+        for (Map.Entry<String, String> subtree : tree.subtrees().entrySet()) {
+            sortedLines.put(subtree.getKey() + "/", treeLine("tree", subtree));
+        }
+        StringBuilder contentBuilder = new StringBuilder();
+        for (String line : sortedLines.values()) {
+            contentBuilder.append(line);
+        }
+        return contentBuilder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] commit(Commit commit) {
+        StringBuilder contentBuilder = new StringBuilder();
+        contentBuilder.append("tree ").append(commit.treeOid()).append('\n');
+        for (String parentOid : commit.parentOids()) {
+            if (parentOid != null && !parentOid.isBlank()) {
+                contentBuilder.append("parent ").append(parentOid).append('\n');
+            }
+        }
+        contentBuilder.append("author ").append(commit.author()).append('\n');
+        contentBuilder.append("date ").append(commit.createdAtMillis()).append('\n');
+        contentBuilder.append('\n');
+        contentBuilder.append(commit.message()).append('\n');
+        return contentBuilder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String treeLine(String kind, Map.Entry<String, String> entry) {
+        return kind + ' ' + entry.getValue() + ' ' + entry.getKey() + '\n';
+    }
+}
@@ -1,46 +1,92 @@
 package app.service;
 
+import app.domain.CachedDirectory;
 import app.domain.Commit;
-import app.domain.Tree;
+import app.domain.FileStat;
+import app.domain.Index;
 import app.exception.ErrorCode;
+import app.repository.ConfigRepository;
 import app.repository.IndexRepository;
 import app.repository.ObjectReader;
 import app.repository.RefRepository;
+import app.repository.ignore.IgnoreRules;
+import app.repository.sparse.SparseCheckout;
+import app.repository.watch.WatchJournal;
+import app.repository.watch.WatchState;
+import app.util.FileStats;
 import java.io.IOException;
-import java.nio.file.FileVisitOption;
-import java.nio.file.FileVisitResult;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.EnumSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 public final class StatusService {
+    private static final String DOT_JAVA_GIT = ".javaGit";
+    private static final String PARALLEL_SCAN_KEY = "status.parallelScan";
+    private static final String SCAN_THREADS_KEY = "status.scanThreads";
+    private static final String UNTRACKED_CACHE_KEY = "status.untrackedCache";
+    private static final String UNTRACKED = "";
+    private static final long WATCH_SYNC_TIMEOUT_MILLIS = 1_000L;
+
     private final IndexRepository indexRepository;
     private final RefRepository refRepository;
     private final ObjectReader objectReader;
+    private final ConfigRepository configRepository;
     private final Path rootDirectoryPath;
     public StatusService(IndexRepository indexRepository, RefRepository refRepository, ObjectReader objectReader,
-                         Path rootDirectoryPath) {
+                         ConfigRepository configRepository, Path rootDirectoryPath) {
         this.indexRepository = Objects.requireNonNull(indexRepository, "indexRepository");
         this.refRepository = Objects.requireNonNull(refRepository, "refRepository");
         this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.configRepository = Objects.requireNonNull(configRepository, "configRepository");
         this.rootDirectoryPath = Objects.requireNonNull(rootDirectoryPath, "rootDirectoryPath");
     }
 
     public StatusResult status() {
 
-        Map<String, String> working = scanWorkingTree();
-        Map<String, String> index = indexRepository.read().stagedFiles();
+        Index currentIndex = indexRepository.read();
+        Map<String, FileStat> refreshedStats = new ConcurrentHashMap<>();
+        Set<String> uncleanPaths = ConcurrentHashMap.newKeySet();
+        boolean cacheEnabled = configRepository.getBoolean(UNTRACKED_CACHE_KEY, true);
+        UntrackedCacheScan cacheScan = new UntrackedCacheScan(cacheEnabled, currentIndex.untrackedCache());
+        WatchScan watchScan = readWatchChanges(currentIndex, cacheEnabled);
+        IgnoreRules ignoreRules = IgnoreRules.load(rootDirectoryPath);
+        Set<String> trackedDirectories = ignoreRules.isEmpty() ? Set.of() : currentIndex.trackedDirectories();
+        SparseCheckout sparseCheckout = SparseCheckout.load(rootDirectoryPath);
+        ScanContext context = new ScanContext(currentIndex, refreshedStats, uncleanPaths, ignoreRules,
+                trackedDirectories, sparseCheckout, cacheScan, watchScan == null ? WatchScan.NONE : watchScan);
+        Map<String, String> working = scanWorkingTree(context);
+        Map<String, String> index = currentIndex.stagedFiles();
+        refreshIndex(currentIndex, refreshedStats, cacheScan);
+        if (watchScan != null) {
+            new WatchState(watchScan.token, uncleanPaths).write(rootDirectoryPath);
+        }
         Map<String, String> headTree = readHeadTreeSnapshot();
 
         Map<String, String> stagedAdded = new LinkedHashMap<>();
@@ -69,6 +115,9 @@ public final class StatusService {
             String path = e.getKey();
             String indexSha = e.getValue();
             String workingSha = working.get(path);
+            if (workingSha == null && !sparseCheckout.includesFile(path)) {
+                continue;
+            }
             if (workingSha == null) {
                 deletedNotStaged.add(path);
                 continue;
@@ -102,45 +151,209 @@ public final class StatusService {
             return Map.of();
         }
         Commit commit = objectReader.readCommit(headCommitHash);
-        Tree tree = objectReader.readTree(commit.treeOid());
-        return tree.entries();
+        return objectReader.readTreeRecursively(commit.treeOid());
+    }
+
+    private void refreshIndex(Index currentIndex, Map<String, FileStat> refreshedStats, UntrackedCacheScan cacheScan) {
+        if (refreshedStats.isEmpty() && !cacheScan.isUpdated()) {
+            return;
+        }
+        Map<String, FileStat> fileStats = new HashMap<>(currentIndex.fileStats());
+        fileStats.putAll(refreshedStats);
+        Map<String, CachedDirectory> untrackedCache = cacheScan.enabled()
+                ? cacheScan.scanned() : currentIndex.untrackedCache();
+        indexRepository.write(new Index(currentIndex.stagedFiles(), fileStats, currentIndex.cachedTrees(),
+                untrackedCache));
+    }
+
+    private WatchScan readWatchChanges(Index currentIndex, boolean cacheEnabled) {
+        WatchState previous = WatchState.read(rootDirectoryPath);
+        WatchJournal.WatchChanges changes = WatchJournal.changesSince(rootDirectoryPath,
+                previous == null ? null : previous.token(), WATCH_SYNC_TIMEOUT_MILLIS);
+        if (changes == null) {
+            return null;
+        }
+        boolean usable = previous != null && cacheEnabled && changes.complete()
+                && !changes.paths().contains(IgnoreRules.IGNORE_FILE) && !currentIndex.untrackedCache().isEmpty();
+        return new WatchScan(changes.token(), usable, changes.paths(),
+                usable ? previous.uncleanPaths() : Set.of());
+    }
+
+    private Map<String, String> scanWorkingTree(ScanContext context) {
+        if (configRepository.getBoolean(PARALLEL_SCAN_KEY, false)) {
+            return scanWorkingTreeInParallel(context);
+        }
+        Map<String, String> working = new TreeMap<>();
+        scanDirectory(rootDirectoryPath, "", true, context, working);
+        return new LinkedHashMap<>(working);
+    }
+
+    private void scanDirectory(Path directory, String relPath, boolean watched, ScanContext context,
+                               Map<String, String> working) {
+        CachedDirectory listing = listDirectory(directory, relPath, watched, context);
+        for (String name : listing.files()) {
+            String childPath = childPath(relPath, name);
+            if (isIgnoredFile(childPath, context)) {
+                continue;
+            }
+            String indexedSha = context.currentIndex().stagedFiles().get(childPath);
+            if (indexedSha == null) {
+                working.put(childPath, UNTRACKED);
+                continue;
+            }
+            if (watched && context.watchScan().isTrusted(childPath, context.currentIndex())) {
+                working.put(childPath, indexedSha);
+                continue;
+            }
+            FileStat fileStat = readFileStat(directory.resolve(name));
+            if (fileStat != null) {
+                working.put(childPath, hashWorkingFile(directory.resolve(name), fileStat, childPath, indexedSha,
+                        context));
+            }
+        }
+        for (String name : listing.directories()) {
+            String childPath = childPath(relPath, name);
+            if (!context.sparseCheckout().includesDirectory(childPath)) {
+                continue;
+            }
+            boolean ignored = context.ignoreRules().isIgnored(childPath, true);
+            if (!ignored || context.trackedDirectories().contains(childPath)) {
+                scanDirectory(directory.resolve(name), childPath, watched && !ignored, context, working);
+            }
+        }
     }
 
-    private Map<String, String> scanWorkingTree() {
-        Map<String, String> map = new LinkedHashMap<>();
+    private CachedDirectory listDirectory(Path directory, String relPath, boolean watched, ScanContext context) {
+        UntrackedCacheScan cacheScan = context.cacheScan();
+        CachedDirectory cached = cacheScan.previous().get(relPath);
+        if (cached != null && watched && context.watchScan().isUnchangedDirectory(relPath)) {
+            cacheScan.keep(relPath, cached);
+            return cached;
+        }
         try {
-            Files.walkFileTree(rootDirectoryPath, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE,
-                    new SimpleFileVisitor<>() {
-                        @Override
-                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-                            if (dir.getFileName() != null && ".javaGit".equals(dir.getFileName().toString())) {
-                                return FileVisitResult.SKIP_SUBTREE;
-                            }
-                            return FileVisitResult.CONTINUE;
-                        }
-
-                        @Override
-                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                            if (!attrs.isRegularFile()) {
-                                return FileVisitResult.CONTINUE;
-                            }
-                            Path relative = rootDirectoryPath.relativize(file);
-                            String relPath = relative.toString().replace('\\', '/');
-                            byte[] bytes;
-                            try {
-                                bytes = Files.readAllBytes(file);
-                            } catch (IOException e) {
-                                throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
-                            }
-                            String sha = sha1(bytes);
-                            map.put(relPath, sha);
-                            return FileVisitResult.CONTINUE;
-                        }
-                    });
+            FileStat directoryStat = FileStats.read(directory);
+            boolean racy = FileStats.isRacy(directoryStat);
+            if (cached != null && !racy && cached.isFresh(directoryStat)) {
+                cacheScan.keep(relPath, cached);
+                return cached;
+            }
+            List<String> files = new ArrayList<>();
+            List<String> directories = new ArrayList<>();
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+                for (Path child : children) {
+                    BasicFileAttributes attrs = Files.readAttributes(child, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    String name = child.getFileName().toString();
+                    if (attrs.isDirectory() && !DOT_JAVA_GIT.equals(name)) {
+                        directories.add(name);
+                    } else if (attrs.isRegularFile()) {
+                        files.add(name);
+                    }
+                }
+            }
+            CachedDirectory listing = new CachedDirectory(directoryStat, files, directories);
+            if (!racy) {
+                cacheScan.store(relPath, listing);
+            }
+            return listing;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private FileStat readFileStat(Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            return attrs.isRegularFile() ? FileStats.read(file, attrs) : null;
+        } catch (NoSuchFileException e) {
+            return null;
         } catch (IOException e) {
             throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
         }
-        return map;
+    }
+
+    private String childPath(String relPath, String name) {
+        return relPath.isEmpty() ? name : relPath + "/" + name;
+    }
+
+    private boolean isIgnoredFile(String relPath, ScanContext context) {
+        if (!context.sparseCheckout().includesFile(relPath)) {
+            return true;
+        }
+        return context.ignoreRules().isIgnored(relPath, false)
+                && !context.currentIndex().stagedFiles().containsKey(relPath);
+    }
+
+    private Map<String, String> scanWorkingTreeInParallel(ScanContext context) {
+        int threads = Math.max(1, configRepository.getInt(SCAN_THREADS_KEY, Runtime.getRuntime().availableProcessors()));
+        ForkJoinPool walkPool = new ForkJoinPool(threads);
+        Semaphore hashPermits = new Semaphore(threads);
+        try (ExecutorService hashExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ParallelScan parallelScan = new ParallelScan(context, hashExecutor, hashPermits);
+            List<ScannedFile> scannedFiles = walkPool.invoke(
+                    new DirectoryScanTask(rootDirectoryPath, "", true, parallelScan));
+            Map<String, String> sorted = new TreeMap<>();
+            for (ScannedFile scannedFile : scannedFiles) {
+                sorted.put(scannedFile.relPath(), await(scannedFile.objectId()));
+            }
+            return new LinkedHashMap<>(sorted);
+        } finally {
+            walkPool.shutdown();
+        }
+    }
+
+    private String await(Future<String> objectId) {
+        try {
+            return objectId.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    private Future<String> scanFile(Path file, FileStat fileStat, String relPath, String indexedSha,
+                                    ParallelScan parallelScan) {
+        ScanContext context = parallelScan.context();
+        if (fileStat.matches(context.currentIndex().fileStat(relPath))) {
+            return CompletableFuture.completedFuture(indexedSha);
+        }
+        return parallelScan.hashExecutor().submit(() -> {
+            parallelScan.hashPermits().acquire();
+            try {
+                return hashFile(file, relPath, fileStat, indexedSha, context);
+            } finally {
+                parallelScan.hashPermits().release();
+            }
+        });
+    }
+
+    private String hashWorkingFile(Path file, FileStat fileStat, String relPath, String indexedSha,
+                                   ScanContext context) {
+        if (fileStat.matches(context.currentIndex().fileStat(relPath))) {
+            return indexedSha;
+        }
+        return hashFile(file, relPath, fileStat, indexedSha, context);
+    }
+
+    private String hashFile(Path file, String relPath, FileStat fileStat, String indexedSha, ScanContext context) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_READ_FAILED.message());
+        }
+        String sha = sha1(bytes);
+        if (sha.equals(indexedSha) && !FileStats.isRacy(fileStat)) {
+            context.refreshedStats().put(relPath, fileStat);
+        } else {
+            context.uncleanPaths().add(relPath);
+        }
+        return sha;
     }
 
     private String sha1(byte[] content) {
@@ -153,6 +366,146 @@ public final class StatusService {
         }
     }
 
+    private final class DirectoryScanTask extends RecursiveTask<List<ScannedFile>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path directory;
+        private final String relPath;
+        private final boolean watched;
+        private final transient ParallelScan parallelScan;
+
+        DirectoryScanTask(Path directory, String relPath, boolean watched, ParallelScan parallelScan) {
+            this.directory = directory;
+            this.relPath = relPath;
+            this.watched = watched;
+            this.parallelScan = parallelScan;
+        }
+
+        @Override
+        protected List<ScannedFile> compute() {
+            ScanContext context = parallelScan.context();
+            List<ScannedFile> scannedFiles = new ArrayList<>();
+            List<DirectoryScanTask> subdirectories = new ArrayList<>();
+            CachedDirectory listing = listDirectory(directory, relPath, watched, context);
+            for (String name : listing.files()) {
+                String childPath = childPath(relPath, name);
+                if (isIgnoredFile(childPath, context)) {
+                    continue;
+                }
+                String indexedSha = context.currentIndex().stagedFiles().get(childPath);
+                if (indexedSha == null) {
+                    scannedFiles.add(new ScannedFile(childPath, CompletableFuture.completedFuture(UNTRACKED)));
+                    continue;
+                }
+                if (watched && context.watchScan().isTrusted(childPath, context.currentIndex())) {
+                    scannedFiles.add(new ScannedFile(childPath, CompletableFuture.completedFuture(indexedSha)));
+                    continue;
+                }
+                FileStat fileStat = readFileStat(directory.resolve(name));
+                if (fileStat != null) {
+                    scannedFiles.add(new ScannedFile(childPath,
+                            scanFile(directory.resolve(name), fileStat, childPath, indexedSha, parallelScan)));
+                }
+            }
+            for (String name : listing.directories()) {
+                String childPath = childPath(relPath, name);
+                if (!context.sparseCheckout().includesDirectory(childPath)) {
+                    continue;
+                }
+                boolean ignored = context.ignoreRules().isIgnored(childPath, true);
+                if (!ignored || context.trackedDirectories().contains(childPath)) {
+                    subdirectories.add(new DirectoryScanTask(directory.resolve(name), childPath, watched && !ignored,
+                            parallelScan));
+                }
+            }
+            for (DirectoryScanTask subdirectory : invokeAll(subdirectories)) {
+                scannedFiles.addAll(subdirectory.join());
+            }
+            return scannedFiles;
+        }
+    }
+
+    private record ScanContext(Index currentIndex, Map<String, FileStat> refreshedStats, Set<String> uncleanPaths,
+                               IgnoreRules ignoreRules, Set<String> trackedDirectories,
+                               SparseCheckout sparseCheckout, UntrackedCacheScan cacheScan, WatchScan watchScan) {
+    }
+
+    private record ParallelScan(ScanContext context, ExecutorService hashExecutor, Semaphore hashPermits) {
+    }
+
+    private static final class UntrackedCacheScan {
+        private final boolean enabled;
+        private final Map<String, CachedDirectory> previous;
+        private final Map<String, CachedDirectory> scanned = new ConcurrentHashMap<>();
+        private final AtomicBoolean stored = new AtomicBoolean();
+
+        UntrackedCacheScan(boolean enabled, Map<String, CachedDirectory> previous) {
+            this.enabled = enabled;
+            this.previous = enabled ? previous : Map.of();
+        }
+
+        boolean enabled() {
+            return enabled;
+        }
+
+        Map<String, CachedDirectory> previous() {
+            return previous;
+        }
+
+        Map<String, CachedDirectory> scanned() {
+            return scanned;
+        }
+
+        void keep(String relPath, CachedDirectory cachedDirectory) {
+            scanned.put(relPath, cachedDirectory);
+        }
+
+        void store(String relPath, CachedDirectory cachedDirectory) {
+            if (enabled) {
+                scanned.put(relPath, cachedDirectory);
+                stored.set(true);
+            }
+        }
+
+        boolean isUpdated() {
+            return enabled && (stored.get() || scanned.size() != previous.size());
+        }
+    }
+
+    private static final class WatchScan {
+        private static final WatchScan NONE = new WatchScan(null, false, Set.of(), Set.of());
+
+        private final String token;
+        private final boolean usable;
+        private final Set<String> changedPaths;
+        private final Set<String> changedDirectories = new HashSet<>();
+        private final Set<String> previousUncleanPaths;
+
+        WatchScan(String token, boolean usable, Set<String> changedPaths, Set<String> previousUncleanPaths) {
+            this.token = token;
+            this.usable = usable;
+            this.changedPaths = changedPaths;
+            this.previousUncleanPaths = previousUncleanPaths;
+            for (String path : changedPaths) {
+                changedDirectories.add(path);
+                int separator = path.lastIndexOf('/');
+                changedDirectories.add(separator < 0 ? "" : path.substring(0, separator));
+            }
+        }
+
+        boolean isUnchangedDirectory(String relPath) {
+            return usable && !changedDirectories.contains(relPath);
+        }
+
+        boolean isTrusted(String relPath, Index currentIndex) {
+            return usable && !changedPaths.contains(relPath) && !previousUncleanPaths.contains(relPath)
+                    && currentIndex.fileStat(relPath) != null;
+        }
+    }
+
+    private record ScannedFile(String relPath, Future<String> objectId) {
+    }
+
     public record StatusResult(
             Map<String, String> stagedAdded,
             Map<String, String> stagedModified,
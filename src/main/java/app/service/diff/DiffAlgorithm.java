@@ -0,0 +1,20 @@
+package app.service.diff;
+
+import java.util.Locale;
+
+public enum DiffAlgorithm {
+    MYERS,
+    HISTOGRAM;
+
+    public static DiffAlgorithm from(String name) {
+        if (name == null) {
+            return MYERS;
+        }
+        for (DiffAlgorithm algorithm : values()) {
+            if (algorithm.name().equals(name.trim().toUpperCase(Locale.ROOT))) {
+                return algorithm;
+            }
+        }
+        return MYERS;
+    }
+}
@@ -0,0 +1,34 @@
+package app.service.diff;
+
+public record DiffEntry(ChangeType changeType, String oldPath, String newPath, String oldObjectId,
+                        String newObjectId, int score) {
+    static final int EXACT_SCORE = 100;
+
+    public static DiffEntry add(String path, String objectId) {
+        return new DiffEntry(ChangeType.ADD, null, path, null, objectId, 0);
+    }
+
+    public static DiffEntry delete(String path, String objectId) {
+        return new DiffEntry(ChangeType.DELETE, path, null, objectId, null, 0);
+    }
+
+    public static DiffEntry modify(String path, String oldObjectId, String newObjectId) {
+        return new DiffEntry(ChangeType.MODIFY, path, path, oldObjectId, newObjectId, 0);
+    }
+
+    static DiffEntry rename(DiffEntry deleted, DiffEntry added, int score) {
+        return new DiffEntry(ChangeType.RENAME, deleted.oldPath(), added.newPath(), deleted.oldObjectId(),
+                added.newObjectId(), score);
+    }
+
+    public String path() {
+        return newPath == null ? oldPath : newPath;
+    }
+
+    public enum ChangeType {
+        ADD,
+        DELETE,
+        MODIFY,
+        RENAME
+    }
+}
@@ -0,0 +1,11 @@
+package app.service.diff;
+
+public record Edit(int beginA, int endA, int beginB, int endB) {
+    public boolean isInsert() {
+        return beginA == endA;
+    }
+
+    public boolean isDelete() {
+        return beginB == endB;
+    }
+}
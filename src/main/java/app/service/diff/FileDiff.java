@@ -0,0 +1,37 @@
+package app.service.diff;
+
+import java.util.List;
+
+public record FileDiff(String oldPath, String newPath, RawText oldText, RawText newText, List<Edit> edits,
+                       boolean binary) {
+
+    public static FileDiff of(String oldPath, String newPath, byte[] oldContent, byte[] newContent,
+                              DiffAlgorithm algorithm) {
+        RawText oldText = oldContent == null ? RawText.EMPTY : RawText.of(oldContent);
+        RawText newText = newContent == null ? RawText.EMPTY : RawText.of(newContent);
+        if (oldText.isBinary() || newText.isBinary()) {
+            return new FileDiff(oldPath, newPath, oldText, newText, List.of(), true);
+        }
+        return new FileDiff(oldPath, newPath, oldText, newText, LineDiff.diff(oldText, newText, algorithm), false);
+    }
+
+    public String path() {
+        return newPath == null ? oldPath : newPath;
+    }
+
+    public int insertions() {
+        int insertions = 0;
+        for (Edit edit : edits) {
+            insertions += edit.endB() - edit.beginB();
+        }
+        return insertions;
+    }
+
+    public int deletions() {
+        int deletions = 0;
+        for (Edit edit : edits) {
+            deletions += edit.endA() - edit.beginA();
+        }
+        return deletions;
+    }
+}
@@ -0,0 +1,119 @@
+package app.service.diff;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+final class HistogramDiff {
+    private static final int MAX_CHAIN_LENGTH = 64;
+    private static final int WORK_FACTOR = 32;
+
+    private final int[] a;
+    private final int[] b;
+    private final int[] matches;
+    private final MyersDiff fallback;
+    private final int[] counts;
+    private final int[] heads;
+    private final int[] next;
+    private long remainingWork;
+
+    HistogramDiff(int[] a, int[] b, int tokenCount, int[] matches, MyersDiff fallback) {
+        this.a = a;
+        this.b = b;
+        this.matches = matches;
+        this.fallback = fallback;
+        this.counts = new int[tokenCount];
+        this.heads = new int[tokenCount];
+        this.next = new int[a.length];
+        this.remainingWork = (long) WORK_FACTOR * (a.length + b.length);
+    }
+
+    void diff(int aStart, int aEnd, int bStart, int bEnd) {
+        Deque<int[]> regions = new ArrayDeque<>();
+        regions.push(new int[]{aStart, aEnd, bStart, bEnd});
+        while (!regions.isEmpty()) {
+            int[] region = regions.pop();
+            int left = region[0];
+            int right = region[1];
+            int top = region[2];
+            int bottom = region[3];
+            while (left < right && top < bottom && a[left] == b[top]) {
+                matches[left++] = top++;
+            }
+            while (left < right && top < bottom && a[right - 1] == b[bottom - 1]) {
+                matches[--right] = --bottom;
+            }
+            if (left == right || top == bottom) {
+                continue;
+            }
+            remainingWork -= (right - left) + (bottom - top);
+            if (remainingWork < 0) {
+                fallback.diff(left, top, right, bottom);
+                continue;
+            }
+            int[] block = findBlock(left, right, top, bottom);
+            if (block == null) {
+                fallback.diff(left, top, right, bottom);
+                continue;
+            }
+            int blockLength = block[1] - block[0];
+            for (int i = 0; i < blockLength; i++) {
+                matches[block[0] + i] = block[2] + i;
+            }
+            regions.push(new int[]{block[1], right, block[2] + blockLength, bottom});
+            regions.push(new int[]{left, block[0], top, block[2]});
+        }
+    }
+
+    private int[] findBlock(int left, int right, int top, int bottom) {
+        for (int i = right - 1; i >= left; i--) {
+            int token = a[i];
+            next[i] = heads[token];
+            heads[token] = i + 1;
+            counts[token]++;
+        }
+        int bestCount = MAX_CHAIN_LENGTH;
+        int bestLength = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        int middle = (left + right) >>> 1;
+        int[] best = null;
+        for (int j = top; j < bottom; ) {
+            int token = b[j];
+            int nextJ = j + 1;
+            if (counts[token] > 0 && counts[token] <= bestCount) {
+                for (int position = heads[token]; position != 0; position = next[position - 1]) {
+                    int startA = position - 1;
+                    int startB = j;
+                    while (startA > left && startB > top && a[startA - 1] == b[startB - 1]) {
+                        startA--;
+                        startB--;
+                    }
+                    int endA = position;
+                    int endB = j + 1;
+                    while (endA < right && endB < bottom && a[endA] == b[endB]) {
+                        endA++;
+                        endB++;
+                    }
+                    int lowest = counts[token];
+                    for (int i = startA; i < endA; i++) {
+                        lowest = Math.min(lowest, counts[a[i]]);
+                    }
+                    int distance = Math.abs(((startA + endA) >>> 1) - middle);
+                    if (lowest < bestCount || lowest == bestCount && (endA - startA > bestLength
+                            || endA - startA == bestLength && distance < bestDistance)) {
+                        best = new int[]{startA, endA, startB};
+                        bestCount = lowest;
+                        bestLength = endA - startA;
+                        bestDistance = distance;
+                    }
+                    nextJ = Math.max(nextJ, endB);
+                }
+            }
+            j = nextJ;
+        }
+        for (int i = left; i < right; i++) {
+            heads[a[i]] = 0;
+            counts[a[i]] = 0;
+        }
+        return best;
+    }
+}
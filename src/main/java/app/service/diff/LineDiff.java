@@ -0,0 +1,50 @@
+package app.service.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class LineDiff {
+    private LineDiff() {
+    }
+
+    public static List<Edit> diff(RawText a, RawText b) {
+        return diff(a, b, DiffAlgorithm.MYERS);
+    }
+
+    public static List<Edit> diff(RawText a, RawText b, DiffAlgorithm algorithm) {
+        LineTable lineTable = new LineTable(a.size() + b.size());
+        int[] aTokens = lineTable.tokens(a);
+        int[] bTokens = lineTable.tokens(b);
+        int[] matches = new int[aTokens.length];
+        Arrays.fill(matches, -1);
+        MyersDiff myers = new MyersDiff(aTokens, bTokens, matches);
+        if (algorithm == DiffAlgorithm.HISTOGRAM) {
+            new HistogramDiff(aTokens, bTokens, lineTable.size(), matches, myers)
+                    .diff(0, aTokens.length, 0, bTokens.length);
+        } else {
+            myers.diff(0, 0, aTokens.length, bTokens.length);
+        }
+        return toEdits(matches, bTokens.length);
+    }
+
+    private static List<Edit> toEdits(int[] matches, int lengthB) {
+        List<Edit> edits = new ArrayList<>();
+        int nextA = 0;
+        int nextB = 0;
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i] < 0) {
+                continue;
+            }
+            if (i > nextA || matches[i] > nextB) {
+                edits.add(new Edit(nextA, i, nextB, matches[i]));
+            }
+            nextA = i + 1;
+            nextB = matches[i] + 1;
+        }
+        if (nextA < matches.length || nextB < lengthB) {
+            edits.add(new Edit(nextA, matches.length, nextB, lengthB));
+        }
+        return edits;
+    }
+}
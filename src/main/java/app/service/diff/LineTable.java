@@ -0,0 +1,60 @@
+package app.service.diff;
+
+import java.util.Arrays;
+
+final class LineTable {
+    private final int[] slots;
+    private final int mask;
+    private RawText[] texts;
+    private int[] lines;
+    private int[] hashes;
+    private int size;
+
+    LineTable(int expectedLines) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedLines * 2 - 1)) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        int initial = Math.max(16, expectedLines);
+        this.texts = new RawText[initial];
+        this.lines = new int[initial];
+        this.hashes = new int[initial];
+    }
+
+    int[] tokens(RawText text) {
+        int[] tokens = new int[text.size()];
+        for (int line = 0; line < tokens.length; line++) {
+            tokens[line] = intern(text, line);
+        }
+        return tokens;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int intern(RawText text, int line) {
+        int hash = text.hash(line);
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && texts[id].lineEquals(lines[id], text, line)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == texts.length) {
+            texts = Arrays.copyOf(texts, size * 2);
+            lines = Arrays.copyOf(lines, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        texts[size] = text;
+        lines[size] = line;
+        hashes[size] = hash;
+        slots[slot] = ++size;
+        return size - 1;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
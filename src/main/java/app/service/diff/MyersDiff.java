@@ -0,0 +1,109 @@
+package app.service.diff;
+
+final class MyersDiff {
+    private static final int MIN_COST_LIMIT = 256;
+
+    private final int[] a;
+    private final int[] b;
+    private final int[] matches;
+
+    MyersDiff(int[] a, int[] b, int[] matches) {
+        this.a = a;
+        this.b = b;
+        this.matches = matches;
+    }
+
+    void diff(int left, int top, int right, int bottom) {
+        while (left < right && top < bottom && a[left] == b[top]) {
+            matches[left++] = top++;
+        }
+        while (left < right && top < bottom && a[right - 1] == b[bottom - 1]) {
+            matches[--right] = --bottom;
+        }
+        findPath(left, top, right, bottom);
+    }
+
+    private void findPath(int left, int top, int right, int bottom) {
+        if (left == right || top == bottom) {
+            return;
+        }
+        int[] snake = midpoint(left, top, right, bottom);
+        findPath(left, top, snake[0], snake[1]);
+        int length = Math.min(snake[2] - snake[0], snake[3] - snake[1]);
+        for (int i = 0; i < length; i++) {
+            matches[snake[4] + i] = snake[5] + i;
+        }
+        findPath(snake[2], snake[3], right, bottom);
+    }
+
+    private int[] midpoint(int left, int top, int right, int bottom) {
+        int width = right - left;
+        int height = bottom - top;
+        int delta = width - height;
+        int max = (width + height + 1) / 2;
+        int costLimit = Math.max(MIN_COST_LIMIT, (int) Math.sqrt(width + height));
+        int offset = Math.min(max, costLimit) + 1;
+        int[] forward = new int[2 * offset + 1];
+        int[] backward = new int[2 * offset + 1];
+        forward[offset + 1] = left;
+        backward[offset + 1] = bottom;
+        int furthestX = left;
+        int furthestY = top;
+        for (int d = 0; d <= max; d++) {
+            for (int k = d; k >= -d; k -= 2) {
+                int c = k - delta;
+                int previousX;
+                int x;
+                if (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])) {
+                    previousX = forward[offset + k + 1];
+                    x = previousX;
+                } else {
+                    previousX = forward[offset + k - 1];
+                    x = previousX + 1;
+                }
+                int y = top + (x - left) - k;
+                int previousY = d == 0 || x != previousX ? y : y - 1;
+                int diagonalX = x;
+                int diagonalY = y;
+                while (x < right && y < bottom && a[x] == b[y]) {
+                    x++;
+                    y++;
+                }
+                forward[offset + k] = x;
+                if (x <= right && y <= bottom && x + y > furthestX + furthestY) {
+                    furthestX = x;
+                    furthestY = y;
+                }
+                if ((delta & 1) != 0 && c >= -(d - 1) && c <= d - 1 && y >= backward[offset + c]) {
+                    return new int[]{previousX, previousY, x, y, diagonalX, diagonalY};
+                }
+            }
+            for (int c = d; c >= -d; c -= 2) {
+                int k = c + delta;
+                int previousY;
+                int y;
+                if (c == -d || (c != d && backward[offset + c - 1] > backward[offset + c + 1])) {
+                    previousY = backward[offset + c + 1];
+                    y = previousY;
+                } else {
+                    previousY = backward[offset + c - 1];
+                    y = previousY - 1;
+                }
+                int x = left + (y - top) + k;
+                int previousX = d == 0 || y != previousY ? x : x + 1;
+                while (x > left && y > top && a[x - 1] == b[y - 1]) {
+                    x--;
+                    y--;
+                }
+                backward[offset + c] = y;
+                if ((delta & 1) == 0 && k >= -d && k <= d && x <= forward[offset + k]) {
+                    return new int[]{x, y, previousX, previousY, x, y};
+                }
+            }
+            if (d >= costLimit) {
+                return new int[]{furthestX, furthestY, furthestX, furthestY, furthestX, furthestY};
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
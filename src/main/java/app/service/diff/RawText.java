@@ -0,0 +1,91 @@
+package app.service.diff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class RawText {
+    public static final RawText EMPTY = new RawText(new byte[0]);
+
+    private static final int BINARY_PROBE_LENGTH = 8000;
+
+    private final byte[] content;
+    private final int[] lineStarts;
+    private final int lineCount;
+
+    private RawText(byte[] content) {
+        this.content = content;
+        int[] starts = new int[Math.max(16, content.length / 32)];
+        int count = 0;
+        int start = 0;
+        while (start < content.length) {
+            if (count + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[count++] = start;
+            int end = indexOfNewline(content, start);
+            start = end < 0 ? content.length : end + 1;
+        }
+        starts[count] = content.length;
+        this.lineStarts = starts;
+        this.lineCount = count;
+    }
+
+    public static RawText of(byte[] content) {
+        return new RawText(Objects.requireNonNull(content, "content"));
+    }
+
+    public int size() {
+        return lineCount;
+    }
+
+    public boolean isBinary() {
+        return isBinary(content);
+    }
+
+    public static boolean isBinary(byte[] content) {
+        int length = Math.min(content.length, BINARY_PROBE_LENGTH);
+        for (int i = 0; i < length; i++) {
+            if (content[i] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean endsWithNewline(int line) {
+        return content[lineStarts[line + 1] - 1] == '\n';
+    }
+
+    public void writeLine(OutputStream out, int line) throws IOException {
+        out.write(content, lineStarts[line], lineStarts[line + 1] - lineStarts[line]);
+    }
+
+    void writeLines(ByteArrayOutputStream out, int from, int to) {
+        out.write(content, lineStarts[from], lineStarts[to] - lineStarts[from]);
+    }
+
+    int hash(int line) {
+        int hash = 0x811c9dc5;
+        for (int i = lineStarts[line], end = lineStarts[line + 1]; i < end; i++) {
+            hash = (hash ^ (content[i] & 0xff)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    boolean lineEquals(int line, RawText other, int otherLine) {
+        return Arrays.equals(content, lineStarts[line], lineStarts[line + 1],
+                other.content, other.lineStarts[otherLine], other.lineStarts[otherLine + 1]);
+    }
+
+    private static int indexOfNewline(byte[] content, int from) {
+        for (int i = from; i < content.length; i++) {
+            if (content[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,125 @@
+package app.service.diff;
+
+import app.repository.ObjectReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public final class RenameDetector {
+    private static final int DEFAULT_MIN_SCORE = 50;
+    private static final int MAX_CANDIDATE_PAIRS = 250_000;
+
+    private final ObjectReader objectReader;
+    private final int minScore;
+
+    public RenameDetector(ObjectReader objectReader) {
+        this(objectReader, DEFAULT_MIN_SCORE);
+    }
+
+    public RenameDetector(ObjectReader objectReader, int minScore) {
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+        this.minScore = minScore;
+    }
+
+    public List<DiffEntry> detect(List<DiffEntry> changes) {
+        List<DiffEntry> result = new ArrayList<>(changes.size());
+        Map<String, ArrayDeque<DiffEntry>> deletedByObject = new HashMap<>();
+        List<DiffEntry> added = new ArrayList<>();
+        for (DiffEntry change : changes) {
+            switch (change.changeType()) {
+                case DELETE -> deletedByObject.computeIfAbsent(change.oldObjectId(), key -> new ArrayDeque<>())
+                        .add(change);
+                case ADD -> added.add(change);
+                default -> result.add(change);
+            }
+        }
+
+        List<DiffEntry> unmatchedAdded = new ArrayList<>();
+        Set<DiffEntry> renamedSources = new HashSet<>();
+        for (DiffEntry add : added) {
+            ArrayDeque<DiffEntry> sameContent = deletedByObject.get(add.newObjectId());
+            if (sameContent == null || sameContent.isEmpty()) {
+                unmatchedAdded.add(add);
+                continue;
+            }
+            DiffEntry source = sameContent.poll();
+            renamedSources.add(source);
+            result.add(DiffEntry.rename(source, add, DiffEntry.EXACT_SCORE));
+        }
+        List<DiffEntry> unmatchedDeleted = new ArrayList<>();
+        for (DiffEntry change : changes) {
+            if (change.changeType() == DiffEntry.ChangeType.DELETE && !renamedSources.contains(change)) {
+                unmatchedDeleted.add(change);
+            }
+        }
+
+        boolean[] pairedDeleted = new boolean[unmatchedDeleted.size()];
+        boolean[] pairedAdded = new boolean[unmatchedAdded.size()];
+        if ((long) unmatchedDeleted.size() * unmatchedAdded.size() <= MAX_CANDIDATE_PAIRS) {
+            for (Candidate candidate : scoreCandidates(unmatchedDeleted, unmatchedAdded)) {
+                if (pairedDeleted[candidate.deleted()] || pairedAdded[candidate.added()]) {
+                    continue;
+                }
+                pairedDeleted[candidate.deleted()] = true;
+                pairedAdded[candidate.added()] = true;
+                result.add(DiffEntry.rename(unmatchedDeleted.get(candidate.deleted()),
+                        unmatchedAdded.get(candidate.added()), candidate.score()));
+            }
+        }
+        for (int i = 0; i < unmatchedDeleted.size(); i++) {
+            if (!pairedDeleted[i]) {
+                result.add(unmatchedDeleted.get(i));
+            }
+        }
+        for (int i = 0; i < unmatchedAdded.size(); i++) {
+            if (!pairedAdded[i]) {
+                result.add(unmatchedAdded.get(i));
+            }
+        }
+        result.sort(Comparator.comparing(DiffEntry::path));
+        return result;
+    }
+
+    private List<Candidate> scoreCandidates(List<DiffEntry> deleted, List<DiffEntry> added) {
+        if (deleted.isEmpty() || added.isEmpty()) {
+            return List.of();
+        }
+        List<SimilarityIndex> deletedIndexes = new ArrayList<>(deleted.size());
+        for (DiffEntry entry : deleted) {
+            deletedIndexes.add(SimilarityIndex.of(objectReader.readRaw(entry.oldObjectId())));
+        }
+        List<SimilarityIndex> addedIndexes = new ArrayList<>(added.size());
+        for (DiffEntry entry : added) {
+            addedIndexes.add(SimilarityIndex.of(objectReader.readRaw(entry.newObjectId())));
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < deletedIndexes.size(); i++) {
+            SimilarityIndex source = deletedIndexes.get(i);
+            for (int j = 0; j < addedIndexes.size(); j++) {
+                SimilarityIndex target = addedIndexes.get(j);
+                long smaller = Math.min(source.size(), target.size());
+                long larger = Math.max(source.size(), target.size());
+                if (smaller * DiffEntry.EXACT_SCORE < larger * minScore) {
+                    continue;
+                }
+                int score = source.score(target);
+                if (score >= minScore) {
+                    candidates.add(new Candidate(score, i, j));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Candidate::score).reversed()
+                .thenComparingInt(Candidate::deleted)
+                .thenComparingInt(Candidate::added));
+        return candidates;
+    }
+
+    private record Candidate(int score, int deleted, int added) {
+    }
+}
@@ -0,0 +1,78 @@
+package app.service.diff;
+
+import java.util.Arrays;
+
+final class SimilarityIndex {
+    private static final int MAX_CHUNK_LENGTH = 64;
+
+    private final int size;
+    private final int[] hashes;
+    private final int[] counts;
+
+    private SimilarityIndex(int size, int[] hashes, int[] counts) {
+        this.size = size;
+        this.hashes = hashes;
+        this.counts = counts;
+    }
+
+    static SimilarityIndex of(byte[] content) {
+        long[] chunks = new long[Math.max(1, content.length / 16)];
+        int chunkCount = 0;
+        int start = 0;
+        while (start < content.length) {
+            int hash = 0x811c9dc5;
+            int end = start;
+            while (end < content.length && end - start < MAX_CHUNK_LENGTH) {
+                byte value = content[end++];
+                hash = (hash ^ (value & 0xff)) * 0x01000193;
+                if (value == '\n') {
+                    break;
+                }
+            }
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+            chunks[chunkCount++] = ((long) hash << 32) | (end - start);
+            start = end;
+        }
+        Arrays.sort(chunks, 0, chunkCount);
+        int[] hashes = new int[chunkCount];
+        int[] counts = new int[chunkCount];
+        int unique = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            int hash = (int) (chunks[i] >>> 32);
+            int length = (int) chunks[i];
+            if (unique > 0 && hashes[unique - 1] == hash) {
+                counts[unique - 1] += length;
+                continue;
+            }
+            hashes[unique] = hash;
+            counts[unique++] = length;
+        }
+        return new SimilarityIndex(content.length, Arrays.copyOf(hashes, unique), Arrays.copyOf(counts, unique));
+    }
+
+    int size() {
+        return size;
+    }
+
+    int score(SimilarityIndex other) {
+        int maxSize = Math.max(size, other.size);
+        if (maxSize == 0) {
+            return DiffEntry.EXACT_SCORE;
+        }
+        long common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < hashes.length && j < other.hashes.length) {
+            if (hashes[i] == other.hashes[j]) {
+                common += Math.min(counts[i++], other.counts[j++]);
+            } else if (hashes[i] < other.hashes[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (int) (common * DiffEntry.EXACT_SCORE / maxSize);
+    }
+}
@@ -0,0 +1,102 @@
+package app.service.diff;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public final class TextMerge {
+    private TextMerge() {
+    }
+
+    public static byte[] merge(byte[] base, byte[] ours, byte[] theirs) {
+        if (RawText.isBinary(base) || RawText.isBinary(ours) || RawText.isBinary(theirs)) {
+            return null;
+        }
+        RawText baseText = RawText.of(base);
+        RawText ourText = RawText.of(ours);
+        RawText theirText = RawText.of(theirs);
+        List<Hunk> hunks = new ArrayList<>();
+        for (Edit edit : LineDiff.diff(baseText, ourText)) {
+            hunks.add(new Hunk(edit, true));
+        }
+        for (Edit edit : LineDiff.diff(baseText, theirText)) {
+            hunks.add(new Hunk(edit, false));
+        }
+        hunks.sort(Comparator.comparingInt((Hunk hunk) -> hunk.edit().beginA())
+                .thenComparingInt(hunk -> hunk.edit().endA()));
+
+        ByteArrayOutputStream merged = new ByteArrayOutputStream(Math.max(ours.length, theirs.length));
+        int baseCursor = 0;
+        int ourShift = 0;
+        int theirShift = 0;
+        int index = 0;
+        while (index < hunks.size()) {
+            int regionStart = hunks.get(index).edit().beginA();
+            int regionEnd = hunks.get(index).edit().endA();
+            Edit firstOurs = null;
+            Edit lastOurs = null;
+            Edit firstTheirs = null;
+            Edit lastTheirs = null;
+            while (index < hunks.size()
+                    && (firstOurs == null && firstTheirs == null || hunks.get(index).edit().beginA() <= regionEnd)) {
+                Hunk hunk = hunks.get(index++);
+                regionEnd = Math.max(regionEnd, hunk.edit().endA());
+                if (hunk.ours()) {
+                    firstOurs = firstOurs == null ? hunk.edit() : firstOurs;
+                    lastOurs = hunk.edit();
+                } else {
+                    firstTheirs = firstTheirs == null ? hunk.edit() : firstTheirs;
+                    lastTheirs = hunk.edit();
+                }
+            }
+            Region ourRegion = side(ourText, firstOurs, lastOurs, regionStart, regionEnd, ourShift);
+            Region theirRegion = side(theirText, firstTheirs, lastTheirs, regionStart, regionEnd, theirShift);
+            Region resolved;
+            if (firstTheirs == null) {
+                resolved = ourRegion;
+            } else if (firstOurs == null || ourRegion.sameLines(theirRegion)) {
+                resolved = theirRegion;
+            } else {
+                return null;
+            }
+            baseText.writeLines(merged, baseCursor, regionStart);
+            resolved.text().writeLines(merged, resolved.start(), resolved.end());
+            baseCursor = regionEnd;
+            if (lastOurs != null) {
+                ourShift = lastOurs.endB() - lastOurs.endA();
+            }
+            if (lastTheirs != null) {
+                theirShift = lastTheirs.endB() - lastTheirs.endA();
+            }
+        }
+        baseText.writeLines(merged, baseCursor, baseText.size());
+        return merged.toByteArray();
+    }
+
+    private static Region side(RawText text, Edit first, Edit last, int regionStart, int regionEnd, int shift) {
+        if (first == null) {
+            return new Region(text, regionStart + shift, regionEnd + shift);
+        }
+        int start = first.beginB() - (first.beginA() - regionStart);
+        int end = last.endB() + (regionEnd - last.endA());
+        return new Region(text, start, end);
+    }
+
+    private record Region(RawText text, int start, int end) {
+        boolean sameLines(Region other) {
+            if (end - start != other.end - other.start) {
+                return false;
+            }
+            for (int i = 0; i < end - start; i++) {
+                if (!text.lineEquals(start + i, other.text, other.start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record Hunk(Edit edit, boolean ours) {
+    }
+}
@@ -0,0 +1,114 @@
+package app.service.diff;
+
+import app.domain.TreeEntry;
+import app.repository.ObjectReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class TreeDiff {
+    private final ObjectReader objectReader;
+
+    public TreeDiff(ObjectReader objectReader) {
+        this.objectReader = Objects.requireNonNull(objectReader, "objectReader");
+    }
+
+    public List<DiffEntry> diff(String oldTreeOid, String newTreeOid) {
+        List<DiffEntry> changes = new ArrayList<>();
+        walk(oldTreeOid, newTreeOid, "", changes);
+        return changes;
+    }
+
+    private void walk(String oldTreeOid, String newTreeOid, String prefix, List<DiffEntry> changes) {
+        if (Objects.equals(oldTreeOid, newTreeOid)) {
+            return;
+        }
+        List<TreeEntry> oldEntries = readEntries(oldTreeOid);
+        List<TreeEntry> newEntries = readEntries(newTreeOid);
+        if (isFlat(oldEntries) || isFlat(newEntries)) {
+            diffFlattened(oldTreeOid, newTreeOid, prefix, changes);
+            return;
+        }
+        int oldIndex = 0;
+        int newIndex = 0;
+        while (oldIndex < oldEntries.size() || newIndex < newEntries.size()) {
+            TreeEntry oldEntry = oldIndex < oldEntries.size() ? oldEntries.get(oldIndex) : null;
+            TreeEntry newEntry = newIndex < newEntries.size() ? newEntries.get(newIndex) : null;
+            int order = oldEntry == null ? 1 : newEntry == null ? -1 : oldEntry.compareTo(newEntry);
+            if (order < 0) {
+                removed(oldEntry, prefix, changes);
+                oldIndex++;
+                continue;
+            }
+            if (order > 0) {
+                added(newEntry, prefix, changes);
+                newIndex++;
+                continue;
+            }
+            if (!oldEntry.objectId().equals(newEntry.objectId())) {
+                String path = prefix + oldEntry.name();
+                if (oldEntry.isTree()) {
+                    walk(oldEntry.objectId(), newEntry.objectId(), path + "/", changes);
+                } else {
+                    changes.add(DiffEntry.modify(path, oldEntry.objectId(), newEntry.objectId()));
+                }
+            }
+            oldIndex++;
+            newIndex++;
+        }
+    }
+
+    private void removed(TreeEntry entry, String prefix, List<DiffEntry> changes) {
+        if (entry.isTree()) {
+            walk(entry.objectId(), null, prefix + entry.name() + "/", changes);
+            return;
+        }
+        changes.add(DiffEntry.delete(prefix + entry.name(), entry.objectId()));
+    }
+
+    private void added(TreeEntry entry, String prefix, List<DiffEntry> changes) {
+        if (entry.isTree()) {
+            walk(null, entry.objectId(), prefix + entry.name() + "/", changes);
+            return;
+        }
+        changes.add(DiffEntry.add(prefix + entry.name(), entry.objectId()));
+    }
+
+    private void diffFlattened(String oldTreeOid, String newTreeOid, String prefix, List<DiffEntry> changes) {
+        Map<String, String> oldFiles = readFiles(oldTreeOid);
+        Map<String, String> newFiles = readFiles(newTreeOid);
+        Set<String> paths = new TreeSet<>(oldFiles.keySet());
+        paths.addAll(newFiles.keySet());
+        for (String path : paths) {
+            String oldOid = oldFiles.get(path);
+            String newOid = newFiles.get(path);
+            if (oldOid == null) {
+                changes.add(DiffEntry.add(prefix + path, newOid));
+            } else if (newOid == null) {
+                changes.add(DiffEntry.delete(prefix + path, oldOid));
+            } else if (!oldOid.equals(newOid)) {
+                changes.add(DiffEntry.modify(prefix + path, oldOid, newOid));
+            }
+        }
+    }
+
+    private static boolean isFlat(List<TreeEntry> entries) {
+        for (TreeEntry entry : entries) {
+            if (entry.name().indexOf('/') >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, String> readFiles(String treeOid) {
+        return treeOid == null ? Map.of() : objectReader.readTreeRecursively(treeOid);
+    }
+
+    private List<TreeEntry> readEntries(String treeOid) {
+        return treeOid == null ? List.of() : objectReader.readTreeEntries(treeOid);
+    }
+}
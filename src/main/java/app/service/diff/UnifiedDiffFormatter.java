@@ -0,0 +1,93 @@
+package app.service.diff;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public final class UnifiedDiffFormatter {
+    private static final int CONTEXT_LINES = 3;
+    private static final String DEV_NULL = "/dev/null";
+    private static final byte[] NO_NEWLINE = "\n\\ No newline at end of file\n".getBytes(StandardCharsets.US_ASCII);
+
+    private UnifiedDiffFormatter() {
+    }
+
+    public static void format(FileDiff diff, OutputStream out) throws IOException {
+        String oldName = diff.oldPath() == null ? DEV_NULL : "a/" + diff.oldPath();
+        String newName = diff.newPath() == null ? DEV_NULL : "b/" + diff.newPath();
+        StringBuilder header = new StringBuilder()
+                .append("diff --git a/").append(diff.oldPath() == null ? diff.newPath() : diff.oldPath())
+                .append(" b/").append(diff.path()).append('\n');
+        if (diff.oldPath() == null) {
+            header.append("new file mode 100644\n");
+        } else if (diff.newPath() == null) {
+            header.append("deleted file mode 100644\n");
+        } else if (!diff.oldPath().equals(diff.newPath())) {
+            header.append("rename from ").append(diff.oldPath()).append('\n')
+                    .append("rename to ").append(diff.newPath()).append('\n');
+        }
+        if (diff.binary()) {
+            header.append("Binary files ").append(oldName).append(" and ").append(newName).append(" differ\n");
+        } else if (!diff.edits().isEmpty()) {
+            header.append("--- ").append(oldName).append('\n').append("+++ ").append(newName).append('\n');
+        }
+        write(out, header);
+        if (!diff.binary()) {
+            writeHunks(diff, out);
+        }
+    }
+
+    private static void writeHunks(FileDiff diff, OutputStream out) throws IOException {
+        List<Edit> edits = diff.edits();
+        RawText oldText = diff.oldText();
+        RawText newText = diff.newText();
+        int index = 0;
+        while (index < edits.size()) {
+            int last = index;
+            while (last + 1 < edits.size()
+                    && edits.get(last + 1).beginA() - edits.get(last).endA() <= 2 * CONTEXT_LINES) {
+                last++;
+            }
+            Edit firstEdit = edits.get(index);
+            Edit lastEdit = edits.get(last);
+            int startA = Math.max(0, firstEdit.beginA() - CONTEXT_LINES);
+            int endA = Math.min(oldText.size(), lastEdit.endA() + CONTEXT_LINES);
+            int startB = firstEdit.beginB() - (firstEdit.beginA() - startA);
+            int endB = lastEdit.endB() + (endA - lastEdit.endA());
+            write(out, new StringBuilder("@@ -").append(range(startA, endA - startA))
+                    .append(" +").append(range(startB, endB - startB)).append(" @@\n"));
+            int cursor = startA;
+            for (int i = index; i <= last; i++) {
+                Edit edit = edits.get(i);
+                writeLines(out, ' ', oldText, cursor, edit.beginA());
+                writeLines(out, '-', oldText, edit.beginA(), edit.endA());
+                writeLines(out, '+', newText, edit.beginB(), edit.endB());
+                cursor = edit.endA();
+            }
+            writeLines(out, ' ', oldText, cursor, endA);
+            index = last + 1;
+        }
+    }
+
+    private static String range(int start, int count) {
+        if (count == 1) {
+            return String.valueOf(start + 1);
+        }
+        return (count == 0 ? start : start + 1) + "," + count;
+    }
+
+    private static void writeLines(OutputStream out, char prefix, RawText text, int from, int to) throws IOException {
+        for (int line = from; line < to; line++) {
+            out.write(prefix);
+            text.writeLine(out, line);
+            if (!text.endsWithNewline(line)) {
+                out.write(NO_NEWLINE);
+            }
+        }
+    }
+
+    private static void write(OutputStream out, CharSequence text) throws IOException {
+        out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
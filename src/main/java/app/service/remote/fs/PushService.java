@@ -3,19 +3,23 @@ package app.service.remote.fs;
 import app.remote.FileRemoteClient;
 import app.repository.ObjectReader;
 import app.repository.RefRepository;
+import app.repository.graph.CommitGraph;
+import app.repository.graph.ObjectWalk;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Objects;
 
 
 public final class PushService {
-    private static final String PARENT_PREFIX = "parent ";
     private final RefRepository localRefRepository;
     private final ObjectReader localObjectReader;
-    private final Path localRoot;
+    private final CommitGraph commitGraph;
+    private final ObjectWalk objectWalk;
     public PushService(RefRepository localRefRepository, ObjectReader localObjectReader, Path localRoot) {
         this.localRefRepository = Objects.requireNonNull(localRefRepository, "localRefRepository");
         this.localObjectReader = Objects.requireNonNull(localObjectReader, "localObjectReader");
-        this.localRoot = Objects.requireNonNull(localRoot, "localRoot");
+        this.commitGraph = new CommitGraph(localObjectReader, Objects.requireNonNull(localRoot, "localRoot"));
+        this.objectWalk = new ObjectWalk(localObjectReader, commitGraph);
     }
 
     public PushResult push(Path remoteRoot, String branch) {
@@ -32,41 +36,20 @@ public final class PushService {
             if (remoteHead.equals(localHead)) {
                 return PushResult.ALREADY_UP_TO_DATE;
             }
-            if (!isAncestor(remoteHead, localHead)) {
+            if (!isFastForward(remoteHead, localHead)) {
                 return PushResult.REMOTE_REJECTED_NON_FF;
             }
         }
 
-        remote.copyAllLocalObjectsToRemote(localRoot);
+        List<String> haves = remoteHead == null || remoteHead.isBlank() ? List.of() : List.of(remoteHead);
+        remote.copyObjectsToRemote(objectWalk.missingObjects(List.of(localHead), haves), localObjectReader);
         remote.updateBranchHead(branch, localHead);
         return PushResult.SUCCESS;
     }
 
-    private boolean isAncestor(String possibleAncestor, String commit) {
-        String cursor = commit;
-        while (cursor != null && !cursor.isBlank()) {
-            if (cursor.equals(possibleAncestor)) {
-                return true;
-            }
-            String parent = parseParent(cursor);
-            cursor = parent;
-        }
-        return false;
-    }
-
-    private String parseParent(String commitHash) {
-        byte[] bytes = localObjectReader.readRaw(commitHash);
-        String content = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            if (line.startsWith(PARENT_PREFIX)) {
-                return line.substring(PARENT_PREFIX.length()).trim();
-            }
-            if (line.isBlank()) {
-                break;
-            }
-        }
-        return null;
+    private boolean isFastForward(String remoteHead, String localHead) {
+        return localObjectReader.contains(remoteHead)
+                && commitGraph.mergeBases(remoteHead, localHead).equals(List.of(remoteHead));
     }
 
     public enum PushResult {
@@ -1,11 +1,19 @@
 package app.service.remote.http;
 
+import app.exception.ErrorCode;
 import app.remote.http.HttpRemoteClient;
 import app.repository.FileObjectWriter;
 import app.repository.ObjectReader;
 import app.repository.ObjectWriter;
 import app.repository.RefRepository;
+import app.repository.graph.CommitGraph;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -13,10 +21,12 @@ import java.util.Objects;
 public final class HttpPullService {
     private final RefRepository localRefRepository;
     private final ObjectReader localObjectReader;
+    private final CommitGraph commitGraph;
     private final ObjectWriter localObjectWriter;
     public HttpPullService(RefRepository localRefRepository, ObjectReader localObjectReader, Path localRoot) {
         this.localRefRepository = Objects.requireNonNull(localRefRepository, "localRefRepository");
         this.localObjectReader = Objects.requireNonNull(localObjectReader, "localObjectReader");
+        this.commitGraph = new CommitGraph(localObjectReader, Objects.requireNonNull(localRoot, "localRoot"));
         this.localObjectWriter = new FileObjectWriter(Objects.requireNonNull(localRoot, "localRoot"));
     }
 
@@ -31,91 +41,102 @@ public final class HttpPullService {
         if (Objects.equals(localHead, remoteHead)) {
             return Result.ALREADY_UP_TO_DATE;
         }
-        if (localHead != null && !localHead.isBlank() && !isAncestor(localHead, remoteHead)) {
+        if (!remote.fetchObjects(List.of(remoteHead), localBranchHeads(), this::writeFetchedObject)) {
+            downloadCommitChain(remote, remoteHead);
+        }
+        if (localHead != null && !localHead.isBlank() && !commitGraph.isAncestor(localHead, remoteHead)) {
             return Result.NOT_FAST_FORWARD;
         }
-
-        downloadCommitChain(remote, remoteHead);
         localRefRepository.updateBranchHead(branch, remoteHead);
         return Result.SUCCESS;
     }
 
-    private void downloadCommitChain(HttpRemoteClient remote, String commitSha) {
-        String cursor = commitSha;
-        while (cursor != null && !cursor.isBlank()) {
-            ensureObject(remote, cursor);
-            String parent = parseParent(cursor);
-            String treeSha = parseTree(cursor);
-            ensureObject(remote, treeSha);
-            String treeContent = new String(localObjectReader.readRaw(treeSha),
-                    java.nio.charset.StandardCharsets.UTF_8);
-            for (String line : treeContent.split("\n")) {
-                if (!line.startsWith("blob ")) {
-                    continue;
-                }
-                int firstSpace = line.indexOf(' ');
-                int secondSpace = line.indexOf(' ', firstSpace + 1);
-                if (firstSpace <= 0 || secondSpace <= firstSpace + 1) {
-                    continue;
-                }
-                String blobSha = line.substring(firstSpace + 1, secondSpace);
-                ensureObject(remote, blobSha);
+    private List<String> localBranchHeads() {
+        List<String> heads = new ArrayList<>();
+        for (String branch : localRefRepository.listBranches()) {
+            String head = localRefRepository.readBranchHead(branch);
+            if (head != null && !head.isBlank()) {
+                heads.add(head);
             }
-            cursor = parent;
         }
+        return heads;
     }
 
-    private void ensureObject(HttpRemoteClient remote, String oid) {
-        try {
-            localObjectReader.readRaw(oid);
-        } catch (IllegalArgumentException e) {
-            byte[] bytes = remote.getObject(oid);
-            localObjectWriter.write(bytes);
+    private void writeFetchedObject(String oid, byte[] bytes) {
+        if (!oid.equals(localObjectWriter.write(bytes))) {
+            throw new IllegalArgumentException(ErrorCode.FETCHED_OBJECT_MISMATCH.message());
         }
     }
 
-    private boolean isAncestor(String possibleAncestor, String commit) {
-        String cursor = commit;
-        while (cursor != null && !cursor.isBlank()) {
-            if (cursor.equals(possibleAncestor)) {
-                return true;
+    private void downloadCommitChain(HttpRemoteClient remote, String commitSha) {
+        Deque<String> pendingCommits = new ArrayDeque<>();
+        Map<String, byte[]> commitContents = new HashMap<>();
+        pendingCommits.push(commitSha);
+        while (!pendingCommits.isEmpty()) {
+            String cursor = pendingCommits.peek();
+            if (localObjectReader.contains(cursor)) {
+                pendingCommits.pop();
+                continue;
             }
-            String parent = parseParent(cursor);
-            cursor = parent;
+            byte[] commitContent = commitContents.get(cursor);
+            if (commitContent == null) {
+                commitContent = remote.getObject(cursor);
+                commitContents.put(cursor, commitContent);
+                parseHeaders(commitContent, "parent ").forEach(pendingCommits::push);
+                continue;
+            }
+            pendingCommits.pop();
+            downloadTree(remote, parseHeader(commitContent, "tree "));
+            localObjectWriter.write(commitContent);
         }
-        return false;
     }
 
-    private String parseParent(String commitHash) {
-        String prefix = "parent ";
-        byte[] bytes = localObjectReader.readRaw(commitHash);
-        String content = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            if (line.startsWith(prefix)) {
-                return line.substring(prefix.length()).trim();
+    private void downloadTree(HttpRemoteClient remote, String treeSha) {
+        if (treeSha == null || localObjectReader.contains(treeSha)) {
+            return;
+        }
+        byte[] treeContent = remote.getObject(treeSha);
+        for (String line : new String(treeContent, StandardCharsets.UTF_8).split("\n")) {
+            int firstSpace = line.indexOf(' ');
+            int secondSpace = line.indexOf(' ', firstSpace + 1);
+            if (firstSpace <= 0 || secondSpace <= firstSpace + 1) {
+                continue;
             }
-            if (line.isBlank()) {
-                break;
+            String kind = line.substring(0, firstSpace);
+            String sha = line.substring(firstSpace + 1, secondSpace);
+            if ("tree".equals(kind)) {
+                downloadTree(remote, sha);
+            } else if ("blob".equals(kind)) {
+                ensureObject(remote, sha);
             }
         }
-        return null;
+        localObjectWriter.write(treeContent);
     }
 
-    private String parseTree(String commitHash) {
-        String prefix = "tree ";
-        byte[] bytes = localObjectReader.readRaw(commitHash);
-        String content = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            if (line.startsWith(prefix)) {
-                return line.substring(prefix.length()).trim();
-            }
+    private void ensureObject(HttpRemoteClient remote, String oid) {
+        if (localObjectReader.contains(oid)) {
+            return;
+        }
+        localObjectWriter.write(remote.getObject(oid));
+    }
+
+    private String parseHeader(byte[] commitContent, String prefix) {
+        List<String> values = parseHeaders(commitContent, prefix);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private List<String> parseHeaders(byte[] commitContent, String prefix) {
+        String content = new String(commitContent, StandardCharsets.UTF_8);
+        List<String> values = new ArrayList<>(1);
+        for (String line : content.split("\n")) {
             if (line.isBlank()) {
                 break;
             }
+            if (line.startsWith(prefix)) {
+                values.add(line.substring(prefix.length()).trim());
+            }
         }
-        return null;
+        return values;
     }
 
     public enum Result {
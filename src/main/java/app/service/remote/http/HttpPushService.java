@@ -1,25 +1,39 @@
 package app.service.remote.http;
 
+import app.exception.ErrorCode;
 import app.remote.http.HttpRemoteClient;
 import app.repository.ObjectReader;
 import app.repository.RefRepository;
+import app.repository.graph.CommitGraph;
+import app.repository.graph.ObjectWalk;
+import app.repository.pack.PackWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 
 public final class HttpPushService {
     private static final String DOT_JAVA_GIT = ".javaGit";
-    private static final String OBJECTS = "objects";
-    private static final String PARENT_PREFIX = "parent ";
+    private static final String PUSH_PACK_PREFIX = "tmp_push_";
+    private static final String PUSH_PACK_SUFFIX = ".pack";
+
     private final RefRepository localRefRepository;
     private final ObjectReader localObjectReader;
+    private final CommitGraph commitGraph;
+    private final ObjectWalk objectWalk;
     private final Path localRoot;
     public HttpPushService(RefRepository localRefRepository, ObjectReader localObjectReader, Path localRoot) {
         this.localRefRepository = Objects.requireNonNull(localRefRepository, "localRefRepository");
         this.localObjectReader = Objects.requireNonNull(localObjectReader, "localObjectReader");
+        this.commitGraph = new CommitGraph(localObjectReader, Objects.requireNonNull(localRoot, "localRoot"));
+        this.objectWalk = new ObjectWalk(localObjectReader, commitGraph);
         this.localRoot = Objects.requireNonNull(localRoot, "localRoot");
     }
 
@@ -34,67 +48,82 @@ public final class HttpPushService {
         if (Objects.equals(remoteHead, localHead)) {
             return Result.ALREADY_UP_TO_DATE;
         }
-        if (remoteHead != null && !remoteHead.isBlank() && !isAncestor(remoteHead, localHead)) {
+        if (remoteHead != null && !remoteHead.isBlank() && !isFastForward(remoteHead, localHead)) {
             return Result.REMOTE_REJECTED_NON_FF;
         }
 
-        java.util.Set<String> remoteObjects = remote.listObjects();
-        Path objectsDir = localRoot.resolve(DOT_JAVA_GIT).resolve(OBJECTS);
-        if (Files.exists(objectsDir)) {
-            try (var dirs = Files.list(objectsDir)) {
-                dirs.filter(Files::isDirectory).forEach(dir -> {
-                    String prefix = dir.getFileName().toString();
-                    try (var files = Files.list(dir)) {
-                        files.filter(Files::isRegularFile).forEach(f -> {
-                            String suffix = f.getFileName().toString();
-                            String oid = prefix + suffix;
-                            if (remoteObjects.contains(oid)) {
-                                return;
-                            }
-                            try {
-                                byte[] bytes = Files.readAllBytes(f);
-                                remote.putObject(oid, bytes);
-                            } catch (IOException e) {
-                                throw new IllegalArgumentException("[ERROR] 로컬 객체 읽기 실패", e);
-                            }
-                        });
-                    } catch (IOException e) {
-                        throw new IllegalArgumentException("[ERROR] 로컬 objects 열기 실패", e);
-                    }
-                });
-            } catch (IOException e) {
-                throw new IllegalArgumentException("[ERROR] 로컬 objects 디렉터리 열기 실패", e);
-            }
-        }
+        List<String> candidates = objectWalk.missingObjects(List.of(localHead), remoteHeadsKnownLocally(refs));
+        sendObjects(remote, withoutRemoteObjects(remote, candidates));
         remote.updateRef(branch, remoteHead, localHead);
         return Result.SUCCESS;
     }
 
-    private boolean isAncestor(String possibleAncestor, String commit) {
-        String cursor = commit;
-        while (cursor != null && !cursor.isBlank()) {
-            if (cursor.equals(possibleAncestor)) {
-                return true;
+    private boolean isFastForward(String remoteHead, String localHead) {
+        return localObjectReader.contains(remoteHead)
+                && commitGraph.mergeBases(remoteHead, localHead).equals(List.of(remoteHead));
+    }
+
+    private List<String> remoteHeadsKnownLocally(Map<String, String> refs) {
+        List<String> heads = new ArrayList<>();
+        for (Map.Entry<String, String> ref : refs.entrySet()) {
+            String head = ref.getValue();
+            if (!"HEAD".equals(ref.getKey()) && head != null && !head.isBlank() && localObjectReader.contains(head)) {
+                heads.add(head);
+            }
+        }
+        return heads;
+    }
+
+    private List<String> withoutRemoteObjects(HttpRemoteClient remote, List<String> candidates) {
+        BitSet existing = remote.hasObjects(candidates);
+        List<String> missingObjects = new ArrayList<>(candidates.size() - existing.cardinality());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!existing.get(i)) {
+                missingObjects.add(candidates.get(i));
             }
-            String parent = parseParent(cursor);
-            cursor = parent;
         }
-        return false;
+        return missingObjects;
     }
 
-    private String parseParent(String commitHash) {
-        byte[] bytes = localObjectReader.readRaw(commitHash);
-        String content = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            if (line.startsWith(PARENT_PREFIX)) {
-                return line.substring(PARENT_PREFIX.length()).trim();
+    private void sendObjects(HttpRemoteClient remote, List<String> objectIds) {
+        if (objectIds.isEmpty()) {
+            return;
+        }
+        Path packFilePath = writePushPack(objectIds);
+        try {
+            if (remote.sendPack(packFilePath)) {
+                return;
             }
-            if (line.isBlank()) {
-                break;
+        } finally {
+            deleteQuietly(packFilePath);
+        }
+        for (String oid : objectIds) {
+            remote.putObject(oid, localObjectReader.readRaw(oid));
+        }
+    }
+
+    private Path writePushPack(List<String> objectIds) {
+        Path packFilePath = null;
+        try {
+            packFilePath = Files.createTempFile(localRoot.resolve(DOT_JAVA_GIT), PUSH_PACK_PREFIX, PUSH_PACK_SUFFIX);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(packFilePath))) {
+                new PackWriter(packFilePath.getParent()).writeStream(objectIds, localObjectReader, out);
             }
+            return packFilePath;
+        } catch (IOException | IllegalArgumentException e) {
+            deleteQuietly(packFilePath);
+            throw new IllegalArgumentException(ErrorCode.PACK_WRITE_FAILED.message());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
         }
-        return null;
     }
 
     public enum Result {
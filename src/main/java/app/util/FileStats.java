@@ -0,0 +1,46 @@
+package app.util;
+
+import app.domain.FileStat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Objects;
+
+public final class FileStats {
+    private static final String UNIX_ATTRIBUTES = "unix:ctime,ino,dev";
+    private static final long RACY_WINDOW_MILLIS = 2_000L;
+    private static volatile boolean unixViewSupported = true;
+
+    private FileStats() {
+    }
+
+    public static FileStat read(Path file) throws IOException {
+        return read(file, Files.readAttributes(file, BasicFileAttributes.class));
+    }
+
+    public static FileStat read(Path file, BasicFileAttributes attributes) {
+        long modifiedTimeMillis = attributes.lastModifiedTime().toMillis();
+        long changedTimeMillis = modifiedTimeMillis;
+        long fileKey = Objects.hashCode(attributes.fileKey());
+        if (unixViewSupported) {
+            try {
+                Map<String, Object> unix = Files.readAttributes(file, UNIX_ATTRIBUTES);
+                changedTimeMillis = ((FileTime) unix.get("ctime")).toMillis();
+                fileKey = ((Number) unix.get("ino")).longValue() * 31 + ((Number) unix.get("dev")).longValue();
+            } catch (UnsupportedOperationException | IllegalArgumentException e) {
+                unixViewSupported = false;
+            } catch (IOException e) {
+                changedTimeMillis = modifiedTimeMillis;
+            }
+        }
+        return new FileStat(modifiedTimeMillis, changedTimeMillis, attributes.size(), fileKey);
+    }
+
+    public static boolean isRacy(FileStat stat) {
+        long newest = Math.max(stat.modifiedTimeMillis(), stat.changedTimeMillis());
+        return System.currentTimeMillis() - newest < RACY_WINDOW_MILLIS;
+    }
+}
@@ -37,13 +37,21 @@ public final class Messages {
     public static final String CHECKOUT_SUCCESS = "브랜치를 전환했습니다: ";
     public static final String CHECKOUT_DIRTY = "작업 트리가 깨끗하지 않습니다. 변경 사항을 정리하세요.";
     public static final String CHECKOUT_NOT_FOUND = "존재하지 않는 브랜치입니다: ";
+    public static final String SPARSE_CHECKOUT_USAGE = "사용법: git sparse-checkout set <디렉터리>... | list | disable";
+    public static final String SPARSE_CHECKOUT_UPDATED = "sparse checkout 을 적용했습니다. 포함된 디렉터리: %d개";
+    public static final String CHECKOUT_UNTRACKED_OVERWRITTEN = "추적하지 않는 파일이 checkout 으로 덮어써집니다. 파일을 옮기거나 삭제하세요.";
 
 
-    public static final String MERGE_USAGE = "사용법: git merge <브랜치>";
+    public static final String MERGE_USAGE = "사용법: git merge <브랜치> [-a <작성자>]";
     public static final String MERGE_ALREADY_UP_TO_DATE = "Already up to date.";
     public static final String MERGE_FAST_FORWARD = "Fast-forward: ";
     public static final String MERGE_BRANCH_NOT_FOUND = "존재하지 않는 브랜치입니다: ";
-    public static final String MERGE_NOT_FAST_FORWARD = "이 병합은 fast-forward로 처리할 수 없습니다.";
+    public static final String MERGE_NOT_FAST_FORWARD = "이 병합은 fast-forward로 처리할 수 없습니다. 병합 커밋을 만들려면 -a <작성자>를 지정하세요.";
+    public static final String MERGE_MERGED = "3-way 병합 커밋을 만들었습니다: ";
+    public static final String MERGE_NO_MERGE_BASE = "공통 조상이 없는 브랜치는 병합할 수 없습니다: ";
+    public static final String MERGE_CONFLICT = "충돌로 병합을 중단했습니다. 충돌 경로:";
+    public static final String MERGE_DIRTY = "작업 트리가 깨끗하지 않아 병합 결과를 반영할 수 없습니다. 변경 사항을 정리하세요.";
+    public static final String MERGE_UNTRACKED_OVERWRITTEN = "추적하지 않는 파일이 병합 결과로 덮어써집니다. 파일을 옮기거나 삭제하세요.";
 
 
     public static final String PUSH_USAGE = "사용법: git push <remote-dir> <브랜치>";
@@ -81,6 +89,21 @@ public final class Messages {
     public static final String PULL_HTTP_REMOTE_NO_COMMITS = "원격에 가져올 커밋이 없습니다.(HTTP)";
     public static final String PULL_HTTP_NOT_FAST_FORWARD = "HTTP 풀 실패: fast-forward로 가져올 수 없습니다.";
 
+    public static final String CONFIG_USAGE = "사용법: git config <키> [<값>]";
+    public static final String CONFIG_NOT_FOUND = "설정되지 않은 키입니다: ";
+    public static final String CONFIG_UPDATED = "설정을 변경했습니다: ";
+
+    public static final String WATCH_STARTED = "파일 감시를 시작했습니다. 감시 중인 디렉터리: %d개";
+
+    public static final String DIFF_USAGE = "사용법: git diff [--cached | <커밋> <커밋>] [--stat] [-M] [--histogram | --myers]";
+    public static final String DIFF_STAT_BINARY = "Bin";
+    public static final String DIFF_STAT_RENAME_ARROW = " => ";
+    public static final String DIFF_STAT_FILES_CHANGED = " %d file%s changed";
+    public static final String DIFF_STAT_INSERTIONS = ", %d insertion%s(+)";
+    public static final String DIFF_STAT_DELETIONS = ", %d deletion%s(-)";
+
+    public static final String GC_PACKED = "%d개 객체를 pack으로 압축했습니다.";
+
     public static final String REPL_WELCOME = "Interactive mode started. Type 'help' for usage, 'exit' to quit.";
     public static final String REPL_PROMPT = "java-git> ";
     public static final String REPL_BYE = "Bye.";
@@ -1,9 +1,18 @@
 package app.view;
 
+import app.exception.ErrorCode;
 import app.service.LogService;
 import app.service.StatusService;
+import app.service.diff.FileDiff;
+import app.service.diff.UnifiedDiffFormatter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 public final class OutputView {
+    private static final int DIFF_BUFFER_SIZE = 1 << 16;
+    private static final int DIFF_STAT_BAR_WIDTH = 50;
 
     public void showWelcome() {
         System.out.println(Messages.REPL_WELCOME);
@@ -120,6 +129,22 @@ public final class OutputView {
         System.err.println(Messages.CHECKOUT_NOT_FOUND + branch);
     }
 
+    public void showCheckoutUntrackedOverwritten() {
+        System.err.println(Messages.CHECKOUT_UNTRACKED_OVERWRITTEN);
+    }
+
+    public void showSparseCheckoutUsage() {
+        System.out.println(Messages.SPARSE_CHECKOUT_USAGE);
+    }
+
+    public void showSparseCheckoutDirectories(List<String> directories) {
+        directories.forEach(System.out::println);
+    }
+
+    public void showSparseCheckoutUpdated(int directoryCount) {
+        System.out.println(String.format(Messages.SPARSE_CHECKOUT_UPDATED, directoryCount));
+    }
+
 
     public void showMergeUsage() {
         System.out.println(Messages.MERGE_USAGE);
@@ -141,6 +166,28 @@ public final class OutputView {
         System.err.println(Messages.MERGE_NOT_FAST_FORWARD);
     }
 
+    public void showMergeMerged(String sourceBranch) {
+        System.out.println(Messages.MERGE_MERGED + sourceBranch);
+    }
+
+    public void showMergeNoMergeBase(String branch) {
+        System.err.println(Messages.MERGE_NO_MERGE_BASE + branch);
+    }
+
+    public void showMergeConflict(java.util.List<String> paths) {
+        System.err.println(Messages.MERGE_CONFLICT);
+        for (String path : paths) {
+            System.err.println(Messages.STATUS_INDENT + path);
+        }
+    }
+
+    public void showMergeDirty() {
+        System.err.println(Messages.MERGE_DIRTY);
+    }
+
+    public void showMergeUntrackedOverwritten() {
+        System.err.println(Messages.MERGE_UNTRACKED_OVERWRITTEN);
+    }
 
     public void showPushUsage() {
         System.out.println(Messages.PUSH_USAGE);
@@ -253,6 +300,101 @@ public final class OutputView {
         System.err.println(Messages.PULL_HTTP_NOT_FAST_FORWARD);
     }
 
+    public void showConfigUsage() {
+        System.out.println(Messages.CONFIG_USAGE);
+    }
+
+    public void showConfigValue(String value) {
+        System.out.println(value);
+    }
+
+    public void showConfigNotFound(String key) {
+        System.err.println(Messages.CONFIG_NOT_FOUND + key);
+    }
+
+    public void showConfigUpdated(String key) {
+        System.out.println(Messages.CONFIG_UPDATED + key);
+    }
+
+    public void showWatchStarted(int directoryCount) {
+        System.out.printf(Messages.WATCH_STARTED + "%n", directoryCount);
+    }
+
+    public void showDiffUsage() {
+        System.out.println(Messages.DIFF_USAGE);
+    }
+
+    public void showDiff(List<FileDiff> diffs) {
+        OutputStream out = new BufferedOutputStream(System.out, DIFF_BUFFER_SIZE);
+        try {
+            for (FileDiff diff : diffs) {
+                UnifiedDiffFormatter.format(diff, out);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ErrorCode.FILE_IO_ERROR.message());
+        }
+    }
+
+    public void showDiffStat(List<FileDiff> diffs) {
+        if (diffs.isEmpty()) {
+            return;
+        }
+        int nameWidth = 0;
+        int maxChanges = 0;
+        for (FileDiff diff : diffs) {
+            nameWidth = Math.max(nameWidth, statPath(diff).length());
+            maxChanges = Math.max(maxChanges, diff.insertions() + diff.deletions());
+        }
+        int countWidth = Math.max(String.valueOf(maxChanges).length(), Messages.DIFF_STAT_BINARY.length());
+        String countFormat = " %-" + nameWidth + "s | %" + countWidth + "s";
+        int insertions = 0;
+        int deletions = 0;
+        for (FileDiff diff : diffs) {
+            if (diff.binary()) {
+                System.out.printf(countFormat + "%n", statPath(diff), Messages.DIFF_STAT_BINARY);
+                continue;
+            }
+            insertions += diff.insertions();
+            deletions += diff.deletions();
+            String bar = "+".repeat(statBar(diff.insertions(), maxChanges))
+                    + "-".repeat(statBar(diff.deletions(), maxChanges));
+            System.out.printf(countFormat + "%s%n", statPath(diff), diff.insertions() + diff.deletions(),
+                    bar.isEmpty() ? "" : " " + bar);
+        }
+        StringBuilder summary = new StringBuilder(
+                String.format(Messages.DIFF_STAT_FILES_CHANGED, diffs.size(), plural(diffs.size())));
+        if (insertions > 0 || deletions == 0) {
+            summary.append(String.format(Messages.DIFF_STAT_INSERTIONS, insertions, plural(insertions)));
+        }
+        if (deletions > 0 || insertions == 0) {
+            summary.append(String.format(Messages.DIFF_STAT_DELETIONS, deletions, plural(deletions)));
+        }
+        System.out.println(summary);
+    }
+
+    private static String statPath(FileDiff diff) {
+        if (diff.oldPath() == null || diff.newPath() == null || diff.oldPath().equals(diff.newPath())) {
+            return diff.path();
+        }
+        return diff.oldPath() + Messages.DIFF_STAT_RENAME_ARROW + diff.newPath();
+    }
+
+    private static int statBar(int changes, int maxChanges) {
+        if (maxChanges <= DIFF_STAT_BAR_WIDTH) {
+            return changes;
+        }
+        return (int) Math.ceil((double) changes * DIFF_STAT_BAR_WIDTH / maxChanges);
+    }
+
+    private static String plural(int count) {
+        return count == 1 ? "" : "s";
+    }
+
+    public void showGcPacked(int count) {
+        System.out.printf(Messages.GC_PACKED + "%n", count);
+    }
+
     public void showLog(java.util.List<LogService.LogEntry> entries) {
         if (entries == null || entries.isEmpty()) {
             System.out.println(Messages.LOG_NO_COMMITS);
@@ -78,4 +78,21 @@ class IndexTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage(ErrorCode.INDEX_STAGED_FILE_OID_NULL.message());
     }
+
+    @Test
+    @DisplayName("stagedFiles에 없는 경로의 stat은 Index에 포함되지 않는다")
+    void createIndex_withFileStats_keepsOnlyStagedPaths() {
+        // given
+        Map<String, String> stagedFiles = Map.of("file1.txt", "oid1");
+        FileStat stat = new FileStat(1_000L, 1_000L, 10L, 42L);
+        Map<String, FileStat> fileStats = Map.of("file1.txt", stat, "ghost.txt", stat);
+
+        // when
+        Index index = new Index(stagedFiles, fileStats);
+
+        // then
+        assertThat(index.fileStats()).containsOnlyKeys("file1.txt");
+        assertThat(index.fileStat("file1.txt").matches(stat)).isTrue();
+        assertThat(index.fileStat("ghost.txt")).isNull();
+    }
 }
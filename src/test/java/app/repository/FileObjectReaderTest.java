@@ -0,0 +1,128 @@
+package app.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileObjectReaderTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("내용 자체가 zlib 스트림인 비압축 객체는 풀지 않고 그대로 읽는다")
+    void readRaw_whenRawContentIsValidZlib_returnsStoredBytes() throws Exception {
+        // given
+        byte[] zlibContent = ObjectCompression.deflate("hello world".getBytes(StandardCharsets.UTF_8));
+        String objectId = new FileObjectWriter(root, mock(ConfigRepository.class)).write(zlibContent);
+        FileObjectReader reader = new FileObjectReader(root, zlibConfig());
+
+        // when
+        byte[] content = reader.readRaw(objectId);
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        long size;
+        try (ObjectStream stream = reader.openRawStream(objectId)) {
+            size = stream.size();
+            stream.transferTo(streamed);
+        }
+
+        // then
+        assertThat(content).isEqualTo(zlibContent);
+        assertThat(size).isEqualTo(zlibContent.length);
+        assertThat(streamed.toByteArray()).isEqualTo(zlibContent);
+    }
+
+    @Test
+    @DisplayName("zlib 으로 저장한 객체는 풀어서 원본 내용을 돌려준다")
+    void readRaw_whenStoredCompressed_returnsInflatedContent() {
+        // given
+        ConfigRepository configRepository = mock(ConfigRepository.class);
+        when(configRepository.get(ObjectCompression.CONFIG_KEY)).thenReturn(ObjectCompression.ZLIB);
+        byte[] original = "compressed content\n".repeat(100).getBytes(StandardCharsets.UTF_8);
+        String objectId = new FileObjectWriter(root, configRepository).write(original);
+
+        // when
+        byte[] content = new FileObjectReader(root, configRepository).readRaw(objectId);
+
+        // then
+        assertThat(content).isEqualTo(original);
+    }
+
+    @Test
+    @DisplayName("쓸 때 기록한 길이로 크기를 알려주고 스트림은 원본 내용을 돌려준다")
+    void openRawStream_whenStoredCompressed_usesRecordedSize() throws Exception {
+        // given
+        ConfigRepository configRepository = zlibConfig();
+        byte[] original = "streamed content\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+        String objectId = new FileObjectWriter(root, configRepository)
+                .write(new ByteArrayInputStream(original));
+        FileObjectReader reader = new FileObjectReader(root, configRepository);
+
+        // when
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        long size;
+        try (ObjectStream stream = reader.openRawStream(objectId)) {
+            size = stream.size();
+            stream.transferTo(streamed);
+        }
+
+        // then
+        assertThat(size).isEqualTo(original.length);
+        assertThat(reader.size(objectId)).isEqualTo(original.length);
+        assertThat(streamed.toByteArray()).isEqualTo(original);
+    }
+
+    @Test
+    @DisplayName("길이 기록 없이 zlib 으로만 저장된 예전 객체도 검증 후 풀어서 읽는다")
+    void readRaw_whenLegacyCompressedWithoutTrailer_returnsInflatedContent() throws Exception {
+        // given
+        byte[] original = "legacy content\n".repeat(50).getBytes(StandardCharsets.UTF_8);
+        String objectId = new FileObjectWriter(root, mock(ConfigRepository.class)).write(original);
+        Path objectFilePath = root.resolve(".javaGit").resolve("objects")
+                .resolve(objectId.substring(0, 2)).resolve(objectId.substring(2));
+        Files.write(objectFilePath, ObjectCompression.deflate(original));
+        FileObjectReader reader = new FileObjectReader(root, zlibConfig());
+
+        // when
+        byte[] content = reader.readRaw(objectId);
+
+        // then
+        assertThat(content).isEqualTo(original);
+        assertThat(reader.size(objectId)).isEqualTo(original.length);
+    }
+
+    @Test
+    @DisplayName("압축 객체 파일을 그대로 내용으로 가진 비압축 객체는 기록된 길이를 믿지 않고 그대로 읽는다")
+    void readRaw_whenRawContentIsStoredObjectFile_returnsStoredBytes() throws Exception {
+        // given
+        ConfigRepository configRepository = zlibConfig();
+        String innerId = new FileObjectWriter(root, configRepository).write("inner".getBytes(StandardCharsets.UTF_8));
+        byte[] storedFile = Files.readAllBytes(root.resolve(".javaGit").resolve("objects")
+                .resolve(innerId.substring(0, 2)).resolve(innerId.substring(2)));
+        String objectId = new FileObjectWriter(root, mock(ConfigRepository.class)).write(storedFile);
+        FileObjectReader reader = new FileObjectReader(root, configRepository);
+
+        // when
+        byte[] content = reader.readRaw(objectId);
+
+        // then
+        assertThat(content).isEqualTo(storedFile);
+        assertThat(reader.size(objectId)).isEqualTo(storedFile.length);
+    }
+
+    private ConfigRepository zlibConfig() {
+        ConfigRepository configRepository = mock(ConfigRepository.class);
+        when(configRepository.get(ObjectCompression.CONFIG_KEY)).thenReturn(ObjectCompression.ZLIB);
+        return configRepository;
+    }
+}
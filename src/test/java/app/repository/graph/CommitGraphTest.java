@@ -0,0 +1,104 @@
+package app.repository.graph;
+
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitGraphTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("commit-graph에 기록된 커밋과 이후 커밋 모두 조상 관계를 올바르게 판단한다")
+    void isAncestor_withGraphAndNewerCommits_returnsReachability() throws Exception {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String tree = writer.write("blob 0123456789012345678901234567890123456789 a.txt\n"
+                .getBytes(StandardCharsets.UTF_8));
+        String first = writeCommit(writer, tree, null, 1);
+        String second = writeCommit(writer, tree, first, 2);
+        String side = writeCommit(writer, tree, first, 3);
+        FileObjectReader reader = new FileObjectReader(root);
+        new CommitGraphWriter(root).write(List.of(second, side), reader);
+        String third = writeCommit(writer, tree, second, 4);
+
+        // when
+        CommitGraph commitGraph = new CommitGraph(reader, root);
+
+        // then
+        assertThat(Files.exists(CommitGraphFile.path(root))).isTrue();
+        assertThat(commitGraph.isAncestor(first, third)).isTrue();
+        assertThat(commitGraph.isAncestor(second, third)).isTrue();
+        assertThat(commitGraph.isAncestor(side, third)).isFalse();
+        assertThat(commitGraph.isAncestor(third, first)).isFalse();
+        assertThat(commitGraph.parents(second)).containsExactly(first);
+    }
+
+    @Test
+    @DisplayName("두 커밋의 merge base는 갈라진 지점의 가장 가까운 공통 조상이다")
+    void mergeBases_withDivergedBranches_returnsNearestCommonAncestor() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String tree = writer.write("blob 0123456789012345678901234567890123456789 a.txt\n"
+                .getBytes(StandardCharsets.UTF_8));
+        String first = writeCommit(writer, tree, null, 1);
+        String fork = writeCommit(writer, tree, first, 2);
+        String ours = writeCommit(writer, tree, fork, 3);
+        String theirs = writeCommit(writer, tree, writeCommit(writer, tree, fork, 4), 5);
+        FileObjectReader reader = new FileObjectReader(root);
+        new CommitGraphWriter(root).write(List.of(ours), reader);
+
+        // when
+        CommitGraph commitGraph = new CommitGraph(reader, root);
+
+        // then
+        assertThat(commitGraph.mergeBases(ours, theirs)).containsExactly(fork);
+        assertThat(commitGraph.mergeBases(theirs, fork)).containsExactly(fork);
+        assertThat(commitGraph.mergeBases(ours, writeCommit(writer, tree, null, 6))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("교차 병합된 두 브랜치는 서로의 조상이 아닌 merge base 를 모두 돌려준다")
+    void mergeBases_withCrissCrossMerges_returnsBothBases() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String tree = writer.write("blob 0123456789012345678901234567890123456789 a.txt\n"
+                .getBytes(StandardCharsets.UTF_8));
+        String base = writeCommit(writer, tree, null, 1);
+        String left = writeCommit(writer, tree, base, 2);
+        String right = writeCommit(writer, tree, base, 3);
+        String ours = writeCommit(writer, tree, writeMerge(writer, tree, left, right, 4), 6);
+        String theirs = writeCommit(writer, tree, writeMerge(writer, tree, right, left, 5), 7);
+
+        // when
+        CommitGraph commitGraph = new CommitGraph(new FileObjectReader(root), root);
+
+        // then
+        assertThat(commitGraph.mergeBases(ours, theirs)).containsExactlyInAnyOrder(left, right);
+    }
+
+    private String writeMerge(FileObjectWriter writer, String tree, String first, String second, long date) {
+        String content = "tree " + tree + "\nparent " + first + "\nparent " + second + "\nauthor me\ndate " + date
+                + "\n\nmerge\n";
+        return writer.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String writeCommit(FileObjectWriter writer, String tree, String parent, long date) {
+        StringBuilder content = new StringBuilder("tree ").append(tree).append('\n');
+        if (parent != null) {
+            content.append("parent ").append(parent).append('\n');
+        }
+        content.append("author me\ndate ").append(date).append("\n\nmessage\n");
+        return writer.write(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package app.repository.graph;
+
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObjectWalkTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("have 커밋 이후에 새로 생긴 객체만 의존 순서대로 반환한다")
+    void missingObjects_withHave_returnsOnlyNewObjectsInWriteOrder() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String keep = writer.write("keep".getBytes(StandardCharsets.UTF_8));
+        String oldBlob = writer.write("old".getBytes(StandardCharsets.UTF_8));
+        String newBlob = writer.write("new".getBytes(StandardCharsets.UTF_8));
+        String libTree = writer.write(("blob " + keep + " keep.txt\n").getBytes(StandardCharsets.UTF_8));
+        String firstTree = writer.write(("blob " + oldBlob + " a.txt\ntree " + libTree + " lib\n")
+                .getBytes(StandardCharsets.UTF_8));
+        String secondTree = writer.write(("blob " + newBlob + " a.txt\ntree " + libTree + " lib\n")
+                .getBytes(StandardCharsets.UTF_8));
+        String first = writeCommit(writer, firstTree, null);
+        String second = writeCommit(writer, secondTree, first);
+        FileObjectReader reader = new FileObjectReader(root);
+
+        // when
+        List<String> missing = new ObjectWalk(reader, new CommitGraph(reader, root))
+                .missingObjects(List.of(second), List.of(first));
+
+        // then
+        assertThat(missing).containsExactly(newBlob, secondTree, second);
+    }
+
+    @Test
+    @DisplayName("have 가 병합된 다른 갈래에 있으면 그 갈래의 커밋은 다시 보내지 않는다")
+    void missingObjects_whenHaveIsMergedBranch_skipsItsCommits() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String baseTree = writer.write(bytes("blob " + writer.write(bytes("base")) + " a.txt\n"));
+        String sideTree = writer.write(bytes("blob " + writer.write(bytes("side")) + " a.txt\n"));
+        String mainBlob = writer.write(bytes("main"));
+        String mainTree = writer.write(bytes("blob " + mainBlob + " a.txt\n"));
+        String base = writeCommit(writer, baseTree, null);
+        String side = writeCommit(writer, sideTree, base);
+        String main = writeCommit(writer, mainTree, base);
+        String merge = writer.write(bytes("tree " + mainTree + "\nparent " + main + "\nparent " + side
+                + "\nauthor me\ndate 2\n\nmerge\n"));
+        FileObjectReader reader = new FileObjectReader(root);
+
+        // when
+        List<String> missing = new ObjectWalk(reader, new CommitGraph(reader, root))
+                .missingObjects(List.of(merge), List.of(side));
+
+        // then
+        assertThat(missing).containsExactly(mainBlob, mainTree, main, merge);
+    }
+
+    private String writeCommit(FileObjectWriter writer, String tree, String parent) {
+        StringBuilder content = new StringBuilder("tree ").append(tree).append('\n');
+        if (parent != null) {
+            content.append("parent ").append(parent).append('\n');
+        }
+        content.append("author me\ndate 1\n\nmessage\n");
+        return writer.write(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
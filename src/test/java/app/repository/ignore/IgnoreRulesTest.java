@@ -0,0 +1,40 @@
+package app.repository.ignore;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IgnoreRulesTest {
+
+    @Test
+    @DisplayName("이름 패턴은 모든 깊이에서, 슬래시가 들어간 패턴은 루트 기준으로 매칭된다")
+    void isIgnored_withNameAndAnchoredPatterns_matchesByScope() {
+        // given
+        IgnoreRules rules = IgnoreRules.compile(List.of("# comment", "node_modules", "/docs/*.tmp", "src/**/gen"));
+
+        // when & then
+        assertThat(rules.isIgnored("node_modules", true)).isTrue();
+        assertThat(rules.isIgnored("web/node_modules", true)).isTrue();
+        assertThat(rules.isIgnored("docs/a.tmp", false)).isTrue();
+        assertThat(rules.isIgnored("web/docs/a.tmp", false)).isFalse();
+        assertThat(rules.isIgnored("src/gen", true)).isTrue();
+        assertThat(rules.isIgnored("src/main/java/gen", true)).isTrue();
+    }
+
+    @Test
+    @DisplayName("디렉터리 전용 패턴과 부정 패턴은 나중에 나온 규칙이 이긴다")
+    void isIgnored_withDirectoryOnlyAndNegation_appliesLastMatch() {
+        // given
+        IgnoreRules rules = IgnoreRules.compile(List.of("build/", "*.log", "!keep.log"));
+
+        // when & then
+        assertThat(rules.isIgnored("build", true)).isTrue();
+        assertThat(rules.isIgnored("build", false)).isFalse();
+        assertThat(rules.isIgnored("server.log", false)).isTrue();
+        assertThat(rules.isIgnored("logs/keep.log", false)).isFalse();
+        assertThat(rules.isPathIgnored("build/classes/Main.class")).isTrue();
+    }
+}
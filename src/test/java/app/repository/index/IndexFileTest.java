@@ -0,0 +1,108 @@
+package app.repository.index;
+
+import app.domain.CachedDirectory;
+import app.domain.FileStat;
+import app.domain.Index;
+import app.exception.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexFileTest {
+
+    private static final String OID_A = "f572d396fae9206628714fb2ce00f72e94f2258f";
+    private static final String OID_B = "9591818c07e900db7e1e0bc4b884c945e6a61b24";
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("바이너리 Index로 쓴 항목과 stat은 다시 읽어도 그대로 조회된다")
+    void write_thenRead_returnsSameEntries() throws Exception {
+        // given
+        Path indexFilePath = root.resolve("index");
+        FileStat stat = new FileStat(1_000L, 2_000L, 6L, 42L);
+        Index index = new Index(Map.of("b/file.txt", OID_B, "a.txt", OID_A), Map.of("a.txt", stat));
+
+        // when
+        IndexFile.write(indexFilePath, index);
+        Index read = IndexFile.read(indexFilePath);
+
+        // then
+        assertThat(IndexFile.isIndexFile(indexFilePath)).isTrue();
+        assertThat(read.stagedFiles())
+                .hasSize(2)
+                .containsEntry("a.txt", OID_A)
+                .containsEntry("b/file.txt", OID_B);
+        assertThat(read.stagedFiles().get("missing.txt")).isNull();
+        assertThat(read.fileStat("a.txt").matches(stat)).isTrue();
+        assertThat(read.fileStat("b/file.txt")).isNull();
+        assertThat(read.fileStats()).containsOnlyKeys("a.txt");
+    }
+
+    @Test
+    @DisplayName("untracked 캐시 확장에 저장한 디렉터리 stat과 목록은 cache-tree와 함께 다시 읽힌다")
+    void write_withUntrackedCache_roundTripsExtension() {
+        // given
+        Path indexFilePath = root.resolve("index");
+        FileStat directoryStat = new FileStat(3_000L, 4_000L, 96L, 7L);
+        Map<String, CachedDirectory> untrackedCache = Map.of(
+                "", new CachedDirectory(directoryStat, List.of("a.txt", "notes.md"), List.of("b", "vendor")),
+                "vendor", new CachedDirectory(directoryStat, List.of(), List.of()));
+        Index index = new Index(Map.of("a.txt", OID_A), Map.of(), Map.of("", OID_A), untrackedCache);
+
+        // when
+        IndexFile.write(indexFilePath, index);
+        Index read = IndexFile.read(indexFilePath);
+
+        // then
+        assertThat(read.cachedTrees()).containsEntry("", OID_A);
+        assertThat(read.untrackedCache()).containsOnlyKeys("", "vendor");
+        CachedDirectory topLevel = read.untrackedCache().get("");
+        assertThat(topLevel.isFresh(directoryStat)).isTrue();
+        assertThat(topLevel.files()).containsExactly("a.txt", "notes.md");
+        assertThat(topLevel.directories()).containsExactly("b", "vendor");
+        assertThat(read.untrackedCache().get("vendor").files()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("cache-tree 확장에 저장한 디렉터리별 Tree OID는 다시 읽어도 유지된다")
+    void write_withCachedTrees_roundTripsExtension() {
+        // given
+        Path indexFilePath = root.resolve("index");
+        Map<String, String> cachedTrees = Map.of("", OID_A, "b", OID_B);
+        Index index = new Index(Map.of("b/file.txt", OID_B, "a.txt", OID_A), Map.of(), cachedTrees);
+
+        // when
+        IndexFile.write(indexFilePath, index);
+        Index read = IndexFile.read(indexFilePath);
+
+        // then
+        assertThat(read.cachedTrees()).isEqualTo(cachedTrees);
+        assertThat(read.stagedFiles()).containsEntry("b/file.txt", OID_B);
+    }
+
+    @Test
+    @DisplayName("체크섬이 맞지 않는 Index 파일을 읽으면 예외가 발생한다")
+    void read_whenChecksumMismatch_throwsException() throws Exception {
+        // given
+        Path indexFilePath = root.resolve("index");
+        IndexFile.write(indexFilePath, new Index(Map.of("a.txt", OID_A)));
+        byte[] bytes = Files.readAllBytes(indexFilePath);
+        bytes[IndexFile.HEADER_LENGTH] ^= 0x01;
+        Files.write(indexFilePath, bytes);
+
+        // when & then
+        assertThatThrownBy(() -> IndexFile.read(indexFilePath))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(ErrorCode.MALFORMED_INDEX_FILE.message());
+    }
+}
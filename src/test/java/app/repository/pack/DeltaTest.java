@@ -0,0 +1,51 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeltaTest {
+
+    @Test
+    @DisplayName("일부만 바뀐 대상은 base 대비 delta로 인코딩되고 원본으로 복원된다")
+    void encode_thenApply_restoresTarget() {
+        // given
+        byte[] base = "line\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        byte[] target = ("header\n" + "line\n".repeat(500) + "changed\n" + "line\n".repeat(499))
+                .getBytes(StandardCharsets.UTF_8);
+
+        // when
+        byte[] delta = Delta.encode(base, target);
+
+        // then
+        assertThat(delta).isNotNull();
+        assertThat(delta.length).isLessThan(target.length / 10);
+        assertThat(Delta.apply(base, delta)).isEqualTo(target);
+    }
+
+    @Test
+    @DisplayName("공통 부분이 없으면 delta를 만들지 않는다")
+    void encode_whenNothingShared_returnsNull() {
+        byte[] base = "a".repeat(100).getBytes(StandardCharsets.UTF_8);
+        byte[] target = "b".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(Delta.encode(base, target)).isNull();
+    }
+
+    @Test
+    @DisplayName("base 크기가 delta 헤더와 다르면 예외가 발생한다")
+    void apply_whenBaseLengthMismatches_throwsException() {
+        byte[] base = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+        byte[] target = "0123456789abcdef0123456789abcdefXYZ".getBytes(StandardCharsets.UTF_8);
+        byte[] delta = Delta.encode(base, target);
+
+        assertThatThrownBy(() -> Delta.apply(new byte[3], delta))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(ErrorCode.MALFORMED_PACK_DELTA.message());
+    }
+}
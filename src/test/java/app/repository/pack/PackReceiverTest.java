@@ -0,0 +1,116 @@
+package app.repository.pack;
+
+import app.exception.ErrorCode;
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PackReceiverTest {
+
+    @TempDir
+    Path source;
+
+    @TempDir
+    Path target;
+
+    @Test
+    @DisplayName("스트림으로 받은 delta pack을 검증하고 인덱싱해 원본 그대로 읽힌다")
+    void receive_withStreamedPack_indexesObjects() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(source);
+        String base = "line\n".repeat(200);
+        String first = writer.write(base.getBytes(StandardCharsets.UTF_8));
+        String second = writer.write((base + "tail\n").getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new PackWriter(source).writeStream(List.of(first, second), new FileObjectReader(source), stream);
+        PackDirectory packDirectory = new PackDirectory(target);
+
+        // when
+        int received = new PackReceiver(packDirectory.packDirectoryPath())
+                .receive(new ByteArrayInputStream(stream.toByteArray()));
+
+        // then
+        assertThat(received).isEqualTo(2);
+        assertThat(packDirectory.read(second)).isEqualTo((base + "tail\n").getBytes(StandardCharsets.UTF_8));
+        assertThat(packDirectory.listObjectIds()).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    @DisplayName("체크섬이 맞지 않는 pack은 거부하고 아무 파일도 남기지 않는다")
+    void receive_whenChecksumMismatch_throwsException() throws Exception {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(source);
+        String oid = writer.write("content".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new PackWriter(source).writeStream(List.of(oid), new FileObjectReader(source), stream);
+        byte[] corrupted = stream.toByteArray();
+        corrupted[corrupted.length - 1] ^= 1;
+        Path packDirectoryPath = new PackDirectory(target).packDirectoryPath();
+
+        // when & then
+        assertThatThrownBy(() -> new PackReceiver(packDirectoryPath).receive(new ByteArrayInputStream(corrupted)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(ErrorCode.MALFORMED_PACK_FILE.message());
+        try (var files = Files.list(packDirectoryPath)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("엔트리 헤더의 크기가 허용 한도를 넘으면 본문을 읽기 전에 거부한다")
+    void receive_whenDeclaredSizeExceedsLimit_rejectsBeforeAllocating() throws Exception {
+        // given
+        ByteArrayOutputStream stream = packHeader(1);
+        stream.write(PackFile.OBJ_FULL);
+        VarInt.write(stream, Integer.MAX_VALUE);
+        VarInt.write(stream, Integer.MAX_VALUE);
+        Path packDirectoryPath = new PackDirectory(target).packDirectoryPath();
+        PackReceiver receiver = new PackReceiver(packDirectoryPath, 1024);
+
+        // when & then
+        assertThatThrownBy(() -> receiver.receive(new ByteArrayInputStream(stream.toByteArray())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(ErrorCode.PACK_OBJECT_TOO_LARGE.message());
+        try (var files = Files.list(packDirectoryPath)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("압축 크기가 요청 본문 길이를 넘으면 손상된 pack 으로 거부한다")
+    void receive_whenCompressedSizeExceedsStreamLength_throwsException() {
+        // given
+        ByteArrayOutputStream stream = packHeader(1);
+        stream.write(PackFile.OBJ_FULL);
+        VarInt.write(stream, 100);
+        VarInt.write(stream, 90);
+        byte[] pack = stream.toByteArray();
+        Path packDirectoryPath = new PackDirectory(target).packDirectoryPath();
+
+        // when & then
+        assertThatThrownBy(() -> new PackReceiver(packDirectoryPath)
+                .receive(new ByteArrayInputStream(pack), pack.length))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(ErrorCode.MALFORMED_PACK_FILE.message());
+    }
+
+    private ByteArrayOutputStream packHeader(int objectCount) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.writeBytes(PackFile.MAGIC);
+        stream.writeBytes(ByteBuffer.allocate(8).putInt(PackFile.VERSION).putInt(objectCount).array());
+        return stream;
+    }
+}
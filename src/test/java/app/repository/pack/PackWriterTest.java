@@ -0,0 +1,103 @@
+package app.repository.pack;
+
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import app.repository.ObjectStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackWriterTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("pack으로 묶은 객체는 인덱스 이진 탐색으로 원본 그대로 읽힌다")
+    void write_thenRead_returnsOriginalContent() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String first = writer.write("first".getBytes(StandardCharsets.UTF_8));
+        String second = writer.write("second".getBytes(StandardCharsets.UTF_8));
+        PackDirectory packDirectory = new PackDirectory(root);
+
+        // when
+        new PackWriter(packDirectory.packDirectoryPath()).write(List.of(first, second), new FileObjectReader(root));
+
+        // then
+        assertThat(packDirectory.read(first)).isEqualTo("first".getBytes(StandardCharsets.UTF_8));
+        assertThat(packDirectory.read(second)).isEqualTo("second".getBytes(StandardCharsets.UTF_8));
+        assertThat(packDirectory.listObjectIds()).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    @DisplayName("pack에 없는 객체는 null을 반환하고 loose 객체로 폴백된다")
+    void read_whenObjectNotPacked_fallsBackToLooseObject() throws Exception {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String packed = writer.write("packed".getBytes(StandardCharsets.UTF_8));
+        PackDirectory packDirectory = new PackDirectory(root);
+        new PackWriter(packDirectory.packDirectoryPath()).write(List.of(packed), new FileObjectReader(root));
+        Files.delete(root.resolve(".javaGit/objects").resolve(packed.substring(0, 2)).resolve(packed.substring(2)));
+        String loose = writer.write("loose".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        FileObjectReader reader = new FileObjectReader(root);
+
+        // then
+        assertThat(packDirectory.read(loose)).isNull();
+        assertThat(reader.readRaw(packed)).isEqualTo("packed".getBytes(StandardCharsets.UTF_8));
+        assertThat(reader.readRaw(loose)).isEqualTo("loose".getBytes(StandardCharsets.UTF_8));
+        assertThat(reader.contains(packed)).isTrue();
+    }
+
+    @Test
+    @DisplayName("pack 객체를 스트림으로 열면 크기와 내용이 원본과 같다")
+    void openStream_whenObjectPacked_streamsOriginalContent() throws Exception {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        byte[] content = "streamed".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        String oid = writer.write(content);
+        PackDirectory packDirectory = new PackDirectory(root);
+        new PackWriter(packDirectory.packDirectoryPath()).write(List.of(oid), new FileObjectReader(root));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        try (ObjectStream stream = packDirectory.openStream(oid)) {
+            stream.transferTo(out);
+
+            // then
+            assertThat(stream.size()).isEqualTo(content.length);
+        }
+        assertThat(out.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("객체 크기는 pack의 full·delta 항목과 loose 객체 모두 원본 길이와 같다")
+    void size_whenObjectPackedAsDeltaOrLoose_returnsOriginalLength() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        byte[] base = "line\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        byte[] target = ("line\n".repeat(1000) + "tail\n").getBytes(StandardCharsets.UTF_8);
+        byte[] loose = "loose".getBytes(StandardCharsets.UTF_8);
+        String baseOid = writer.write(base);
+        String targetOid = writer.write(target);
+        String looseOid = writer.write(loose);
+        PackDirectory packDirectory = new PackDirectory(root);
+        new PackWriter(packDirectory.packDirectoryPath()).write(List.of(baseOid, targetOid), new FileObjectReader(root));
+        FileObjectReader reader = new FileObjectReader(root);
+
+        // when & then
+        assertThat(reader.size(baseOid)).isEqualTo(base.length);
+        assertThat(reader.size(targetOid)).isEqualTo(target.length);
+        assertThat(reader.size(looseOid)).isEqualTo(loose.length);
+    }
+}
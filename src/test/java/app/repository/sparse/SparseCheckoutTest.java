@@ -0,0 +1,53 @@
+package app.repository.sparse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SparseCheckoutTest {
+
+    @Test
+    @DisplayName("cone 디렉터리는 하위 전체를, 상위 디렉터리는 바로 아래 파일만 포함한다")
+    void includes_withConeDirectories_matchesRecursiveAndParentLevels() {
+        // given
+        SparseCheckout sparseCheckout = SparseCheckout.cone(List.of("# comment", "/services/api/", "docs"));
+
+        // when & then
+        assertThat(sparseCheckout.includesFile("README.md")).isTrue();
+        assertThat(sparseCheckout.includesFile("services/pom.xml")).isTrue();
+        assertThat(sparseCheckout.includesFile("services/api/src/Main.java")).isTrue();
+        assertThat(sparseCheckout.includesFile("services/web/index.html")).isFalse();
+        assertThat(sparseCheckout.includesFile("docs/guide/intro.md")).isTrue();
+        assertThat(sparseCheckout.includesFile("tools/build.sh")).isFalse();
+        assertThat(sparseCheckout.includesDirectory("services")).isTrue();
+        assertThat(sparseCheckout.includesDirectory("services/web")).isFalse();
+        assertThat(sparseCheckout.includesDirectory("tools")).isFalse();
+        assertThat(sparseCheckout.directories()).containsExactly("docs", "services/api");
+    }
+
+    @Test
+    @DisplayName("설정 파일이 없으면 모든 경로를 포함하고, 저장한 cone 은 다시 읽을 수 있다")
+    void load_withoutAndWithSavedFile_roundTrips(@TempDir Path root) {
+        // given
+        SparseCheckout disabled = SparseCheckout.load(root);
+
+        // when
+        SparseCheckout.cone(List.of("lib/core")).save(root);
+        SparseCheckout loaded = SparseCheckout.load(root);
+
+        // then
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.includesFile("anything/deep/file.txt")).isTrue();
+        assertThat(loaded.isEnabled()).isTrue();
+        assertThat(loaded.directories()).containsExactly("lib/core");
+        assertThat(loaded.includesFile("lib/other/file.txt")).isFalse();
+
+        SparseCheckout.ALL.save(root);
+        assertThat(SparseCheckout.load(root).isEnabled()).isFalse();
+    }
+}
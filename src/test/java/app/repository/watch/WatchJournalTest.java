@@ -0,0 +1,73 @@
+package app.repository.watch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WatchJournalTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("watcher 가 없으면 변경 목록 대신 null 을 돌려 전체 탐색으로 돌아간다")
+    void changesSince_withoutWatcher_returnsNull() {
+        // when
+        WatchJournal.WatchChanges changes = WatchJournal.changesSince(root, null, 100);
+
+        // then
+        assertThat(changes).isNull();
+    }
+
+    @Test
+    @DisplayName("쿠키가 기록될 때까지 기다린 뒤 토큰 이후에 바뀐 경로만 돌려준다")
+    void changesSince_withToken_returnsPathsWrittenAfterToken() throws Exception {
+        // given
+        try (WatchJournal journal = WatchJournal.start(root)) {
+            Thread watcher = Thread.ofVirtual().start(() -> echoCookies(journal, List.of("a.txt")));
+            WatchJournal.WatchChanges first = WatchJournal.changesSince(root, null, 5_000);
+            Thread watcherAgain = Thread.ofVirtual().start(() -> echoCookies(journal, List.of("dir/b.txt")));
+
+            // when
+            WatchJournal.WatchChanges second = WatchJournal.changesSince(root, first.token(), 5_000);
+
+            // then
+            watcher.join();
+            watcherAgain.join();
+            assertThat(first.complete()).isFalse();
+            assertThat(second.complete()).isTrue();
+            assertThat(second.paths()).containsExactly("dir/b.txt");
+            assertThatThrownBy(() -> WatchJournal.start(root)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private void echoCookies(WatchJournal journal, List<String> changedPaths) {
+        Path cookieDirectoryPath = WatchJournal.cookieDirectoryPath(root);
+        boolean echoed = false;
+        while (!echoed) {
+            try (Stream<Path> cookies = Files.list(cookieDirectoryPath)) {
+                List<String> batch = new ArrayList<>(changedPaths);
+                for (Path cookie : cookies.toList()) {
+                    batch.add(".javaGit/watch/cookies/" + cookie.getFileName());
+                    echoed = true;
+                }
+                if (batch.size() > changedPaths.size()) {
+                    journal.append(batch);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
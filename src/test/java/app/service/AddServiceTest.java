@@ -0,0 +1,61 @@
+package app.service;
+
+import app.domain.Index;
+import app.repository.ConfigRepository;
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import app.repository.IndexRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AddServiceTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("여러 스레드로 add 해도 경로마다 자기 내용의 blob 이 기록되고 Index 는 한 번만 쓴다")
+    void add_inParallel_stagesEachPathAndWritesIndexOnce() throws Exception {
+        // given
+        Files.createDirectories(root.resolve("dir"));
+        List<String> filePaths = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String filePath = "dir/file" + (199 - i) + ".txt";
+            Files.writeString(root.resolve(filePath), "content " + i);
+            filePaths.add(filePath);
+        }
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        when(indexRepository.read()).thenReturn(new Index(Map.of()));
+        ConfigRepository configRepository = mock(ConfigRepository.class);
+        when(configRepository.getInt(eq("add.threads"), anyInt())).thenReturn(8);
+        AddService addService = new AddService(new FileObjectWriter(root), indexRepository, configRepository, root);
+        List<String> arguments = new ArrayList<>(filePaths);
+        arguments.add("missing.txt");
+
+        // when
+        addService.add(arguments);
+
+        // then
+        ArgumentCaptor<Index> captor = ArgumentCaptor.forClass(Index.class);
+        verify(indexRepository, times(1)).write(captor.capture());
+        Map<String, String> stagedFiles = captor.getValue().stagedFiles();
+        assertThat(stagedFiles.keySet()).containsExactlyInAnyOrderElementsOf(filePaths);
+        FileObjectReader objectReader = new FileObjectReader(root);
+        for (int i = 0; i < filePaths.size(); i++) {
+            assertThat(objectReader.readRaw(stagedFiles.get(filePaths.get(i))))
+                    .isEqualTo(("content " + i).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
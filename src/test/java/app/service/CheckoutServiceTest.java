@@ -0,0 +1,202 @@
+package app.service;
+
+import app.domain.Index;
+import app.repository.ConfigRepository;
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import app.repository.IndexRepository;
+import app.repository.RefRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CheckoutServiceTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("두 브랜치 Tree 의 차이만 워킹 트리와 Index 에 반영한다")
+    void switchBranch_writesOnlyChangedFiles() throws Exception {
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String same = writer.write(bytes("same\n"));
+        String before = writer.write(bytes("before\n"));
+        String after = writer.write(bytes("after\n"));
+        String gone = writer.write(bytes("gone\n"));
+        String added = writer.write(bytes("added\n"));
+        String mainTree = writer.write(bytes("blob " + before + " a.txt\ntree "
+                + writer.write(bytes("blob " + gone + " gone.txt\n")) + " old\nblob " + same + " same.txt\n"));
+        String featureTree = writer.write(bytes("blob " + after + " a.txt\ntree "
+                + writer.write(bytes("blob " + added + " added.txt\n")) + " new\nblob " + same + " same.txt\n"));
+        String mainCommit = writer.write(bytes("tree " + mainTree + "\nauthor me\ndate 1\n\nmain\n"));
+        String featureCommit = writer.write(bytes("tree " + featureTree + "\nauthor me\ndate 2\n\nfeature\n"));
+
+        Files.writeString(root.resolve("a.txt"), "before\n");
+        Files.writeString(root.resolve("same.txt"), "same\n");
+        Files.createDirectories(root.resolve("old"));
+        Files.writeString(root.resolve("old/gone.txt"), "gone\n");
+        FileTime untouched = FileTime.fromMillis(1_000_000L);
+        Files.setLastModifiedTime(root.resolve("same.txt"), untouched);
+
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.listBranches()).thenReturn(List.of("main", "feature"));
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(mainCommit);
+        when(refRepository.readBranchHead("feature")).thenReturn(featureCommit);
+        StatusService statusService = mock(StatusService.class);
+        when(statusService.status()).thenReturn(new StatusService.StatusResult(Map.of(), Map.of(), Set.of(),
+                Set.of(), Set.of(), Set.of()));
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        when(indexRepository.read()).thenReturn(new Index(Map.of("a.txt", before, "old/gone.txt", gone,
+                "same.txt", same)));
+        ConfigRepository configRepository = mock(ConfigRepository.class);
+        when(configRepository.getInt(eq("checkout.threads"), anyInt())).thenReturn(4);
+        CheckoutService checkoutService = new CheckoutService(refRepository, statusService,
+                new FileObjectReader(root), indexRepository, configRepository, root);
+
+        CheckoutService.CheckoutResult result = checkoutService.switchBranch("feature");
+
+        assertThat(result).isEqualTo(CheckoutService.CheckoutResult.SUCCESS);
+        assertThat(Files.readString(root.resolve("a.txt"))).isEqualTo("after\n");
+        assertThat(Files.readString(root.resolve("new/added.txt"))).isEqualTo("added\n");
+        assertThat(root.resolve("old")).doesNotExist();
+        assertThat(Files.getLastModifiedTime(root.resolve("same.txt"))).isEqualTo(untouched);
+        ArgumentCaptor<Index> written = ArgumentCaptor.forClass(Index.class);
+        verify(indexRepository).write(written.capture());
+        assertThat(written.getValue().stagedFiles())
+                .containsExactlyInAnyOrderEntriesOf(Map.of("a.txt", after, "new/added.txt", added, "same.txt", same));
+        assertThat(written.getValue().cachedTrees()).containsEntry("", featureTree);
+        verify(refRepository).updateCurrentBranch("feature");
+    }
+
+    @Test
+    @DisplayName("추가될 경로에 추적하지 않는 파일이 있으면 아무것도 바꾸지 않는다")
+    void switchBranch_whenUntrackedFileWouldBeOverwritten_keepsWorkingTree() throws Exception {
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String added = writer.write(bytes("added\n"));
+        String featureTree = writer.write(bytes("blob " + added + " added.txt\n"));
+        String featureCommit = writer.write(bytes("tree " + featureTree + "\nauthor me\ndate 2\n\nfeature\n"));
+        Files.writeString(root.resolve("added.txt"), "mine\n");
+
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.listBranches()).thenReturn(List.of("main", "feature"));
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(null);
+        when(refRepository.readBranchHead("feature")).thenReturn(featureCommit);
+        StatusService statusService = mock(StatusService.class);
+        when(statusService.status()).thenReturn(new StatusService.StatusResult(Map.of(), Map.of(), Set.of(),
+                Set.of(), Set.of(), Set.of("added.txt")));
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        CheckoutService checkoutService = new CheckoutService(refRepository, statusService,
+                new FileObjectReader(root), indexRepository, mock(ConfigRepository.class), root);
+
+        CheckoutService.CheckoutResult result = checkoutService.switchBranch("feature");
+
+        assertThat(result).isEqualTo(CheckoutService.CheckoutResult.UNTRACKED_WOULD_BE_OVERWRITTEN);
+        assertThat(Files.readString(root.resolve("added.txt"))).isEqualTo("mine\n");
+        verify(indexRepository, never()).write(any());
+        verify(refRepository, never()).updateCurrentBranch(any());
+    }
+
+    @Test
+    @DisplayName("경로가 이름에 들어간 예전 평면 Tree 와 디렉터리별 Tree 사이를 오가며 바뀐 파일만 쓴다")
+    void switchBranch_betweenFlatAndNestedTrees_writesChangedFilesOnly() throws Exception {
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String x = writer.write(bytes("x\n"));
+        String y = writer.write(bytes("y\n"));
+        String z = writer.write(bytes("z\n"));
+        String flatTree = writer.write(bytes("blob " + x + " dir/a\nblob " + y + " dir/b\n"));
+        String nestedTree = writer.write(bytes("tree " + writer.write(bytes("blob " + x + " a\nblob " + z + " b\n"))
+                + " dir\n"));
+        String flatCommit = writer.write(bytes("tree " + flatTree + "\nauthor me\ndate 1\n\nflat\n"));
+        String nestedCommit = writer.write(bytes("tree " + nestedTree + "\nauthor me\ndate 2\n\nnested\n"));
+        Files.createDirectories(root.resolve("dir"));
+        Files.writeString(root.resolve("dir/a"), "x\n");
+        Files.writeString(root.resolve("dir/b"), "y\n");
+
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.listBranches()).thenReturn(List.of("flat", "nested"));
+        when(refRepository.readBranchHead("flat")).thenReturn(flatCommit);
+        when(refRepository.readBranchHead("nested")).thenReturn(nestedCommit);
+        StatusService statusService = mock(StatusService.class);
+        when(statusService.status()).thenReturn(new StatusService.StatusResult(Map.of(), Map.of(), Set.of(),
+                Set.of(), Set.of(), Set.of()));
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        when(indexRepository.read()).thenReturn(new Index(Map.of("dir/a", x, "dir/b", y)));
+        CheckoutService checkoutService = new CheckoutService(refRepository, statusService,
+                new FileObjectReader(root), indexRepository, mock(ConfigRepository.class), root);
+
+        when(refRepository.readCurrentBranch()).thenReturn("flat");
+        CheckoutService.CheckoutResult toNested = checkoutService.switchBranch("nested");
+        String afterNested = Files.readString(root.resolve("dir/b"));
+        when(refRepository.readCurrentBranch()).thenReturn("nested");
+        CheckoutService.CheckoutResult toFlat = checkoutService.switchBranch("flat");
+
+        assertThat(toNested).isEqualTo(CheckoutService.CheckoutResult.SUCCESS);
+        assertThat(afterNested).isEqualTo("z\n");
+        assertThat(toFlat).isEqualTo(CheckoutService.CheckoutResult.SUCCESS);
+        assertThat(Files.readString(root.resolve("dir/a"))).isEqualTo("x\n");
+        assertThat(Files.readString(root.resolve("dir/b"))).isEqualTo("y\n");
+        ArgumentCaptor<Index> written = ArgumentCaptor.forClass(Index.class);
+        verify(indexRepository, times(2)).write(written.capture());
+        assertThat(written.getAllValues().get(0).stagedFiles()).containsEntry("dir/a", x).containsEntry("dir/b", z);
+    }
+
+    @Test
+    @DisplayName("대상 blob 을 읽지 못하면 워킹 트리를 건드리지 않고 실패한다")
+    void switchBranch_whenBlobIsMissing_leavesWorkingTreeUntouched() throws Exception {
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String gone = writer.write(bytes("gone\n"));
+        String missing = "0123456789012345678901234567890123456789";
+        String mainTree = writer.write(bytes("blob " + gone + " gone.txt\n"));
+        String featureTree = writer.write(bytes("blob " + writer.write(bytes("ok\n")) + " a.txt\nblob " + missing
+                + " b.txt\n"));
+        String mainCommit = writer.write(bytes("tree " + mainTree + "\nauthor me\ndate 1\n\nmain\n"));
+        String featureCommit = writer.write(bytes("tree " + featureTree + "\nauthor me\ndate 2\n\nfeature\n"));
+        Files.writeString(root.resolve("gone.txt"), "gone\n");
+
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.listBranches()).thenReturn(List.of("main", "feature"));
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(mainCommit);
+        when(refRepository.readBranchHead("feature")).thenReturn(featureCommit);
+        StatusService statusService = mock(StatusService.class);
+        when(statusService.status()).thenReturn(new StatusService.StatusResult(Map.of(), Map.of(), Set.of(),
+                Set.of(), Set.of(), Set.of()));
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        when(indexRepository.read()).thenReturn(new Index(Map.of("gone.txt", gone)));
+        CheckoutService checkoutService = new CheckoutService(refRepository, statusService,
+                new FileObjectReader(root), indexRepository, mock(ConfigRepository.class), root);
+
+        assertThatThrownBy(() -> checkoutService.switchBranch("feature"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(Files.readString(root.resolve("gone.txt"))).isEqualTo("gone\n");
+        assertThat(root.resolve("a.txt")).doesNotExist();
+        try (Stream<Path> files = Files.list(root.resolve(".javaGit"))) {
+            assertThat(files.map(path -> path.getFileName().toString())).noneMatch(name -> name.startsWith("checkout_"));
+        }
+        verify(indexRepository, never()).write(any());
+        verify(refRepository, never()).updateCurrentBranch(any());
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
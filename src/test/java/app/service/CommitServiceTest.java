@@ -0,0 +1,130 @@
+package app.service;
+
+import app.domain.Index;
+import app.domain.Tree;
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import app.repository.IndexRepository;
+import app.repository.RefRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CommitServiceTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("디렉터리마다 하위 Tree 를 만들어 중첩된 Tree 로 저장한다")
+    void commit_writesNestedTreePerDirectory() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String a = writer.write(bytes("a\n"));
+        String b = writer.write(bytes("b\n"));
+        String c = writer.write(bytes("c\n"));
+        Index index = new Index(Map.of("a.txt", a, "dir/b.txt", b, "dir/sub/c.txt", c));
+
+        // when
+        String commitHash = commit(index, null);
+
+        // then
+        FileObjectReader reader = new FileObjectReader(root);
+        Tree rootTree = reader.readTree(reader.readCommit(commitHash).treeOid());
+        assertThat(rootTree.entries()).isEqualTo(Map.of("a.txt", a));
+        assertThat(rootTree.subtrees()).containsOnlyKeys("dir");
+        Tree dirTree = reader.readTree(rootTree.subtrees().get("dir"));
+        assertThat(dirTree.entries()).isEqualTo(Map.of("b.txt", b));
+        assertThat(dirTree.subtrees()).containsOnlyKeys("sub");
+        Tree subTree = reader.readTree(dirTree.subtrees().get("sub"));
+        assertThat(subTree.entries()).isEqualTo(Map.of("c.txt", c));
+        assertThat(subTree.subtrees()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("하위 Tree 는 이름 뒤에 '/' 를 붙인 순서로 정렬해 저장한다")
+    void commit_sortsSubtreesAsNameWithSlash() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String blob = writer.write(bytes("x\n"));
+        Index index = new Index(Map.of("a-c", blob, "a.b", blob, "a/x", blob, "a0", blob));
+
+        // when
+        String commitHash = commit(index, null);
+
+        // then
+        FileObjectReader reader = new FileObjectReader(root);
+        String treeHash = reader.readCommit(commitHash).treeOid();
+        String subtreeHash = reader.readTree(treeHash).subtrees().get("a");
+        assertThat(new String(reader.readRaw(treeHash), StandardCharsets.UTF_8)).isEqualTo(
+                "blob " + blob + " a-c\n"
+                        + "blob " + blob + " a.b\n"
+                        + "tree " + subtreeHash + " a\n"
+                        + "blob " + blob + " a0\n");
+    }
+
+    @Test
+    @DisplayName("바뀌지 않은 디렉터리는 다음 커밋에서도 같은 Tree 객체를 가리킨다")
+    void commit_reusesUnchangedSubtreeObjectId() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String before = writer.write(bytes("before\n"));
+        String after = writer.write(bytes("after\n"));
+        String lib = writer.write(bytes("lib\n"));
+        String firstCommit = commit(new Index(Map.of("a.txt", before, "lib/util.txt", lib)), null);
+
+        // when
+        String secondCommit = commit(new Index(Map.of("a.txt", after, "lib/util.txt", lib)), firstCommit);
+
+        // then
+        FileObjectReader reader = new FileObjectReader(root);
+        String firstTree = reader.readCommit(firstCommit).treeOid();
+        String secondTree = reader.readCommit(secondCommit).treeOid();
+        assertThat(secondTree).isNotEqualTo(firstTree);
+        assertThat(reader.readTree(secondTree).subtrees().get("lib"))
+                .isEqualTo(reader.readTree(firstTree).subtrees().get("lib"));
+    }
+
+    @Test
+    @DisplayName("경로를 통째로 담은 예전 평면 Tree 도 중첩 Tree 와 같은 파일 목록으로 읽는다")
+    void readTreeRecursively_whenFlatPreNestingTree_matchesNestedTree() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String a = writer.write(bytes("a\n"));
+        String b = writer.write(bytes("b\n"));
+        String flatTree = writer.write(bytes("blob " + a + " a.txt\nblob " + b + " dir/b.txt\n"));
+        String nestedCommit = commit(new Index(Map.of("a.txt", a, "dir/b.txt", b)), null);
+
+        // when
+        FileObjectReader reader = new FileObjectReader(root);
+        Map<String, String> flatFiles = reader.readTreeRecursively(flatTree);
+
+        // then
+        assertThat(flatFiles).isEqualTo(Map.of("a.txt", a, "dir/b.txt", b));
+        assertThat(reader.readTreeRecursively(reader.readCommit(nestedCommit).treeOid())).isEqualTo(flatFiles);
+    }
+
+    private String commit(Index index, String parentCommitHash) {
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        when(indexRepository.read()).thenReturn(index);
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(parentCommitHash);
+        new CommitService(indexRepository, new FileObjectWriter(root), refRepository, root).commit("message", "me");
+        ArgumentCaptor<String> commitHash = ArgumentCaptor.forClass(String.class);
+        verify(refRepository).updateBranchHead(eq("main"), commitHash.capture());
+        return commitHash.getValue();
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
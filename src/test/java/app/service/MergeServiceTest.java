@@ -1,9 +1,24 @@
 package app.service;
 
+import app.domain.Commit;
+import app.domain.Index;
+import app.repository.ConfigRepository;
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import app.repository.IndexRepository;
 import app.repository.ObjectReader;
+import app.repository.ObjectWriter;
 import app.repository.RefRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
 
 import static app.service.MergeService.MergeResult.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -16,7 +31,8 @@ class MergeServiceTest {
     void merge_whenTargetBranchIsNullOrBlank_returnsBranchNotFound() {
         RefRepository refRepository = mock(RefRepository.class);
         ObjectReader objectReader = mock(ObjectReader.class);
-        MergeService mergeService = new MergeService(refRepository, objectReader);
+        MergeService mergeService = new MergeService(refRepository, objectReader, mock(ObjectWriter.class),
+                mock(CheckoutService.class));
 
         assertThat(mergeService.merge(null)).isEqualTo(BRANCH_NOT_FOUND);
         assertThat(mergeService.merge("  ")).isEqualTo(BRANCH_NOT_FOUND);
@@ -29,7 +45,8 @@ class MergeServiceTest {
     void merge_whenTargetHeadIsEmpty_returnsBranchNotFound() {
         RefRepository refRepository = mock(RefRepository.class);
         ObjectReader objectReader = mock(ObjectReader.class);
-        MergeService mergeService = new MergeService(refRepository, objectReader);
+        MergeService mergeService = new MergeService(refRepository, objectReader, mock(ObjectWriter.class),
+                mock(CheckoutService.class));
 
         when(refRepository.readCurrentBranch()).thenReturn("main");
         when(refRepository.readBranchHead("main")).thenReturn("c1");
@@ -47,7 +64,8 @@ class MergeServiceTest {
     void merge_whenCurrentHeadIsEmpty_performsFastForward() {
         RefRepository refRepository = mock(RefRepository.class);
         ObjectReader objectReader = mock(ObjectReader.class);
-        MergeService mergeService = new MergeService(refRepository, objectReader);
+        MergeService mergeService = new MergeService(refRepository, objectReader, mock(ObjectWriter.class),
+                mock(CheckoutService.class));
 
         when(refRepository.readCurrentBranch()).thenReturn("main");
         when(refRepository.readBranchHead("main")).thenReturn(null);
@@ -65,7 +83,8 @@ class MergeServiceTest {
     void merge_whenHeadsAreEqual_returnsAlreadyUpToDate() {
         RefRepository refRepository = mock(RefRepository.class);
         ObjectReader objectReader = mock(ObjectReader.class);
-        MergeService mergeService = new MergeService(refRepository, objectReader);
+        MergeService mergeService = new MergeService(refRepository, objectReader, mock(ObjectWriter.class),
+                mock(CheckoutService.class));
 
         when(refRepository.readCurrentBranch()).thenReturn("main");
         when(refRepository.readBranchHead("main")).thenReturn("c1");
@@ -83,7 +102,8 @@ class MergeServiceTest {
     void merge_whenCurrentIsAncestorOfTarget_performsFastForward() {
         RefRepository refRepository = mock(RefRepository.class);
         ObjectReader objectReader = mock(ObjectReader.class);
-        MergeService mergeService = new MergeService(refRepository, objectReader);
+        MergeService mergeService = new MergeService(refRepository, objectReader, mock(ObjectWriter.class),
+                mock(CheckoutService.class));
 
         // main: c1, feature: c3 (c3 -> c2 -> c1)
         when(refRepository.readCurrentBranch()).thenReturn("main");
@@ -122,7 +142,8 @@ class MergeServiceTest {
     void merge_whenCurrentIsNotAncestorOfTarget_returnsNotFastForward() {
         RefRepository refRepository = mock(RefRepository.class);
         ObjectReader objectReader = mock(ObjectReader.class);
-        MergeService mergeService = new MergeService(refRepository, objectReader);
+        MergeService mergeService = new MergeService(refRepository, objectReader, mock(ObjectWriter.class),
+                mock(CheckoutService.class));
 
         // main: base, feature: other (other -> a -> b)
         when(refRepository.readCurrentBranch()).thenReturn("main");
@@ -146,10 +167,219 @@ class MergeServiceTest {
                         "\n" +
                         "msg").getBytes(java.nio.charset.StandardCharsets.UTF_8)
         );
+        when(objectReader.readRaw("base")).thenReturn(
+                ("tree tree-sha\n" +
+                        "\n" +
+                        "msg").getBytes(java.nio.charset.StandardCharsets.UTF_8)
+        );
 
         MergeService.MergeResult result = mergeService.merge("feature");
 
         assertThat(result).isEqualTo(NOT_FAST_FORWARD);
         verify(refRepository, never()).updateBranchHead(anyString(), anyString());
     }
+
+    @Test
+    @DisplayName("대상 커밋이 현재 커밋의 조상이면 Already up to date를 반환한다")
+    void merge_whenTargetIsAncestorOfCurrent_returnsAlreadyUpToDate(@TempDir Path root) {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String old = writeCommit(writer, writeFile(writer, "a\n"), null, 1);
+        String current = writeCommit(writer, writeFile(writer, "b\n"), old, 2);
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(current);
+        when(refRepository.readBranchHead("feature")).thenReturn(old);
+        MergeService mergeService = new MergeService(refRepository, new FileObjectReader(root), writer,
+                mock(CheckoutService.class));
+
+        // when
+        MergeService.MergeResult result = mergeService.merge("feature");
+
+        // then
+        assertThat(result).isEqualTo(ALREADY_UP_TO_DATE);
+        verify(refRepository, never()).updateBranchHead(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("갈라진 브랜치는 merge base 기준으로 3-way 병합해 부모가 둘인 병합 커밋을 만든다")
+    void merge_withDivergedBranchesAndAuthor_createsTwoParentMergeCommit(@TempDir Path root) {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        FileObjectReader reader = new FileObjectReader(root);
+        String base = writeCommit(writer, writeFile(writer, "a\nb\nc\nd\n"), null, 1);
+        String ours = writeCommit(writer, writeFile(writer, "a\nB\nc\nd\n"), base, 2);
+        String theirs = writeCommit(writer, writeFile(writer, "a\nb\nc\nD\n"), base, 3);
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(ours);
+        when(refRepository.readBranchHead("feature")).thenReturn(theirs);
+        MergeService mergeService = new MergeService(refRepository, reader, writer, cleanCheckout());
+
+        // when
+        MergeService.MergeOutcome outcome = mergeService.merge("feature", "me");
+
+        // then
+        assertThat(outcome.result()).isEqualTo(MERGED);
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(refRepository).updateBranchHead(eq("main"), captor.capture());
+        Commit mergeCommit = reader.readCommit(captor.getValue());
+        assertThat(mergeCommit.parentOids()).containsExactly(ours, theirs);
+        String mergedBlob = reader.readTree(mergeCommit.treeOid()).entries().get("f.txt");
+        assertThat(new String(reader.readRaw(mergedBlob), StandardCharsets.UTF_8)).isEqualTo("a\nB\nc\nD\n");
+    }
+
+    @Test
+    @DisplayName("양쪽이 같은 줄을 다르게 바꾸면 CONFLICT를 반환하고 브랜치를 옮기지 않는다")
+    void merge_withConflictingChanges_returnsConflictWithoutUpdatingBranch(@TempDir Path root) {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        String base = writeCommit(writer, writeFile(writer, "a\nb\n"), null, 1);
+        String ours = writeCommit(writer, writeFile(writer, "a\nours\n"), base, 2);
+        String theirs = writeCommit(writer, writeFile(writer, "a\ntheirs\n"), base, 3);
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(ours);
+        when(refRepository.readBranchHead("feature")).thenReturn(theirs);
+        MergeService mergeService = new MergeService(refRepository, new FileObjectReader(root), writer,
+                mock(CheckoutService.class));
+
+        // when
+        MergeService.MergeOutcome outcome = mergeService.merge("feature", "me");
+
+        // then
+        assertThat(outcome.result()).isEqualTo(CONFLICT);
+        assertThat(outcome.conflicts()).containsExactly("f.txt");
+        verify(refRepository, never()).updateBranchHead(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("merge base 가 예전 평면 Tree 여도 전체 경로 기준으로 병합한다")
+    void merge_whenMergeBaseHasFlatTree_mergesByFullPath(@TempDir Path root) {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        FileObjectReader reader = new FileObjectReader(root);
+        String before = writer.write("before\n".getBytes(StandardCharsets.UTF_8));
+        String after = writer.write("after\n".getBytes(StandardCharsets.UTF_8));
+        String top = writer.write("top\n".getBytes(StandardCharsets.UTF_8));
+        String newTop = writer.write("new top\n".getBytes(StandardCharsets.UTF_8));
+        String base = writeCommit(writer, writer.write(("blob " + before + " dir/a.txt\nblob " + top + " top.txt\n")
+                .getBytes(StandardCharsets.UTF_8)), null, 1);
+        String nestedDir = writer.write(("blob " + after + " a.txt\n").getBytes(StandardCharsets.UTF_8));
+        String ours = writeCommit(writer, writer.write(("tree " + nestedDir + " dir\nblob " + top + " top.txt\n")
+                .getBytes(StandardCharsets.UTF_8)), base, 2);
+        String theirDir = writer.write(("blob " + before + " a.txt\n").getBytes(StandardCharsets.UTF_8));
+        String theirs = writeCommit(writer, writer.write(("tree " + theirDir + " dir\nblob " + newTop + " top.txt\n")
+                .getBytes(StandardCharsets.UTF_8)), base, 3);
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(ours);
+        when(refRepository.readBranchHead("feature")).thenReturn(theirs);
+        MergeService mergeService = new MergeService(refRepository, reader, writer, cleanCheckout());
+
+        // when
+        MergeService.MergeOutcome outcome = mergeService.merge("feature", "me");
+
+        // then
+        assertThat(outcome.result()).isEqualTo(MERGED);
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(refRepository).updateBranchHead(eq("main"), captor.capture());
+        String mergedTree = reader.readCommit(captor.getValue()).treeOid();
+        assertThat(reader.readTree(mergedTree).subtrees()).containsEntry("dir", nestedDir);
+        assertThat(reader.readTreeRecursively(mergedTree))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("dir/a.txt", after, "top.txt", newTop));
+    }
+
+    @Test
+    @DisplayName("병합 커밋을 만들면 병합된 Tree 를 워킹 트리와 Index 에 반영한다")
+    void merge_whenMerged_updatesWorkingTreeAndIndex(@TempDir Path root) throws Exception {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        FileObjectReader reader = new FileObjectReader(root);
+        String base = writeCommit(writer, writeFile(writer, "a\nb\nc\nd\n"), null, 1);
+        String oursTree = writeFile(writer, "a\nB\nc\nd\n");
+        String ours = writeCommit(writer, oursTree, base, 2);
+        String theirs = writeCommit(writer, writeFile(writer, "a\nb\nc\nD\n"), base, 3);
+        Files.writeString(root.resolve("f.txt"), "a\nB\nc\nd\n");
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(ours);
+        when(refRepository.readBranchHead("feature")).thenReturn(theirs);
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        when(indexRepository.read()).thenReturn(new Index(Map.of("f.txt", reader.readTree(oursTree).entries()
+                .get("f.txt"))));
+        CheckoutService checkoutService = new CheckoutService(refRepository, statusWithModified(Set.of()), reader,
+                indexRepository, mock(ConfigRepository.class), root);
+        MergeService mergeService = new MergeService(refRepository, reader, writer, checkoutService);
+
+        // when
+        MergeService.MergeOutcome outcome = mergeService.merge("feature", "me");
+
+        // then
+        assertThat(outcome.result()).isEqualTo(MERGED);
+        assertThat(Files.readString(root.resolve("f.txt"))).isEqualTo("a\nB\nc\nD\n");
+        ArgumentCaptor<String> commit = ArgumentCaptor.forClass(String.class);
+        verify(refRepository).updateBranchHead(eq("main"), commit.capture());
+        String mergedTree = reader.readCommit(commit.getValue()).treeOid();
+        ArgumentCaptor<Index> written = ArgumentCaptor.forClass(Index.class);
+        verify(indexRepository).write(written.capture());
+        assertThat(written.getValue().stagedFiles()).containsExactlyEntriesOf(reader.readTree(mergedTree).entries());
+        assertThat(written.getValue().cachedTrees()).containsEntry("", mergedTree);
+    }
+
+    @Test
+    @DisplayName("워킹 트리에 커밋하지 않은 수정이 있으면 병합 결과를 반영하지 않고 브랜치도 옮기지 않는다")
+    void merge_whenWorkingTreeIsDirty_keepsBranchAndFiles(@TempDir Path root) throws Exception {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        FileObjectReader reader = new FileObjectReader(root);
+        String base = writeCommit(writer, writeFile(writer, "a\nb\n"), null, 1);
+        String ours = writeCommit(writer, writeFile(writer, "A\nb\n"), base, 2);
+        String theirs = writeCommit(writer, writeFile(writer, "a\nB\n"), base, 3);
+        Files.writeString(root.resolve("f.txt"), "edited\n");
+        RefRepository refRepository = mock(RefRepository.class);
+        when(refRepository.readCurrentBranch()).thenReturn("main");
+        when(refRepository.readBranchHead("main")).thenReturn(ours);
+        when(refRepository.readBranchHead("feature")).thenReturn(theirs);
+        IndexRepository indexRepository = mock(IndexRepository.class);
+        CheckoutService checkoutService = new CheckoutService(refRepository, statusWithModified(Set.of("f.txt")),
+                reader, indexRepository, mock(ConfigRepository.class), root);
+        MergeService mergeService = new MergeService(refRepository, reader, writer, checkoutService);
+
+        // when
+        MergeService.MergeOutcome outcome = mergeService.merge("feature", "me");
+
+        // then
+        assertThat(outcome.result()).isEqualTo(WORKING_TREE_NOT_CLEAN);
+        assertThat(Files.readString(root.resolve("f.txt"))).isEqualTo("edited\n");
+        verify(refRepository, never()).updateBranchHead(anyString(), anyString());
+        verify(indexRepository, never()).write(any());
+    }
+
+    private StatusService statusWithModified(Set<String> modifiedNotStaged) {
+        StatusService statusService = mock(StatusService.class);
+        when(statusService.status()).thenReturn(new StatusService.StatusResult(Map.of(), Map.of(), Set.of(),
+                modifiedNotStaged, Set.of(), Set.of()));
+        return statusService;
+    }
+
+    private CheckoutService cleanCheckout() {
+        CheckoutService checkoutService = mock(CheckoutService.class);
+        when(checkoutService.checkoutTree(any(), any())).thenReturn(CheckoutService.CheckoutResult.SUCCESS);
+        return checkoutService;
+    }
+
+    private String writeFile(FileObjectWriter writer, String content) {
+        String blob = writer.write(content.getBytes(StandardCharsets.UTF_8));
+        return writer.write(("blob " + blob + " f.txt\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String writeCommit(FileObjectWriter writer, String tree, String parent, long date) {
+        StringBuilder content = new StringBuilder("tree ").append(tree).append('\n');
+        if (parent != null) {
+            content.append("parent ").append(parent).append('\n');
+        }
+        content.append("author me\ndate ").append(date).append("\n\nmessage\n");
+        return writer.write(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,49 @@
+package app.service.diff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineDiffTest {
+
+    @Test
+    @DisplayName("바뀐 줄, 지운 줄, 추가한 줄만 편집으로 돌려준다")
+    void diff_returnsOnlyChangedLines() {
+        // given
+        RawText a = text("a\nb\nc\nd\ne\n");
+        RawText b = text("a\nB\nc\ne\nf\n");
+
+        for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+            // when
+            List<Edit> edits = LineDiff.diff(a, b, algorithm);
+
+            // then
+            assertThat(edits).containsExactly(
+                    new Edit(1, 2, 1, 2),
+                    new Edit(3, 4, 3, 3),
+                    new Edit(5, 5, 4, 5));
+        }
+    }
+
+    @Test
+    @DisplayName("같은 내용이면 편집이 없고, 빈 내용과 비교하면 전체가 하나의 편집이 된다")
+    void diff_withIdenticalOrEmptyText() {
+        // given
+        RawText text = text("x\ny\nz");
+
+        // when & then
+        for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+            assertThat(LineDiff.diff(text, text("x\ny\nz"), algorithm)).isEmpty();
+            assertThat(LineDiff.diff(RawText.EMPTY, text, algorithm)).containsExactly(new Edit(0, 0, 0, 3));
+            assertThat(LineDiff.diff(text, RawText.EMPTY, algorithm)).containsExactly(new Edit(0, 3, 0, 0));
+        }
+    }
+
+    private RawText text(String content) {
+        return RawText.of(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package app.service.diff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextMergeTest {
+
+    @Test
+    @DisplayName("서로 다른 줄을 바꾼 변경은 양쪽 모두 반영된다")
+    void merge_withChangesOnDifferentLines_appliesBoth() {
+        // given
+        byte[] base = bytes("a\nb\nc\nd\ne\n");
+        byte[] ours = bytes("a\nB\nc\nd\ne\n");
+        byte[] theirs = bytes("a\nb\nc\ne\nf");
+
+        // when
+        byte[] merged = TextMerge.merge(base, ours, theirs);
+
+        // then
+        assertThat(new String(merged, StandardCharsets.UTF_8)).isEqualTo("a\nB\nc\ne\nf");
+    }
+
+    @Test
+    @DisplayName("같은 줄을 다르게 바꾸거나 바이너리 내용이면 null을 반환한다")
+    void merge_withOverlappingChangesOrBinary_returnsNull() {
+        // given
+        byte[] base = bytes("a\nb\n");
+
+        // when & then
+        assertThat(TextMerge.merge(base, bytes("a\nours\n"), bytes("a\ntheirs\n"))).isNull();
+        assertThat(TextMerge.merge(base, bytes("a\n\0\n"), base)).isNull();
+        assertThat(TextMerge.merge(base, bytes("a\nsame\n"), bytes("a\nsame\n"))).isEqualTo(bytes("a\nsame\n"));
+    }
+
+    private byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
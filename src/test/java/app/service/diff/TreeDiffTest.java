@@ -0,0 +1,99 @@
+package app.service.diff;
+
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+class TreeDiffTest {
+
+    @Test
+    @DisplayName("OID가 같은 하위 Tree는 읽지 않고 바뀐 경로만 돌려준다")
+    void diff_skipsIdenticalSubtrees(@TempDir Path root) {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        FileObjectReader reader = spy(new FileObjectReader(root));
+        String same = write(writer, "blob " + write(writer, "keep\n") + " keep.txt\n");
+        String oldDir = write(writer, "blob " + write(writer, "old\n") + " f.txt\n");
+        String newDir = write(writer, "blob " + write(writer, "new\n") + " f.txt\nblob "
+                + write(writer, "add\n") + " g.txt\n");
+        String oldTree = write(writer, "tree " + oldDir + " dir\nblob " + write(writer, "x\n") + " gone.txt\ntree "
+                + same + " same\n");
+        String newTree = write(writer, "tree " + newDir + " dir\ntree " + same + " same\n");
+
+        // when
+        List<DiffEntry> changes = new TreeDiff(reader).diff(oldTree, newTree);
+
+        // then
+        assertThat(changes).extracting(DiffEntry::changeType, DiffEntry::path).containsExactly(
+                tuple(DiffEntry.ChangeType.MODIFY, "dir/f.txt"),
+                tuple(DiffEntry.ChangeType.ADD, "dir/g.txt"),
+                tuple(DiffEntry.ChangeType.DELETE, "gone.txt"));
+        verify(reader, never()).readTreeEntries(same);
+    }
+
+    @Test
+    @DisplayName("같은 내용은 정확히, 비슷한 내용은 유사도로 삭제와 추가를 이름 변경으로 묶는다")
+    void detect_pairsExactAndSimilarRenames(@TempDir Path root) {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        FileObjectReader reader = new FileObjectReader(root);
+        String exact = write(writer, "same content\n");
+        String before = write(writer, "1\n2\n3\n4\n5\n6\n7\n8\n9\n10\n");
+        String after = write(writer, "1\n2\n3\n4\n5\n6\n7\n8\n9\nten\n");
+        List<DiffEntry> changes = List.of(
+                DiffEntry.delete("a.txt", exact),
+                DiffEntry.delete("b.txt", before),
+                DiffEntry.add("moved/a.txt", exact),
+                DiffEntry.add("moved/b.txt", after),
+                DiffEntry.add("other.txt", write(writer, "unrelated\n")));
+
+        // when
+        List<DiffEntry> detected = new RenameDetector(reader).detect(changes);
+
+        // then
+        assertThat(detected).extracting(DiffEntry::changeType, DiffEntry::oldPath, DiffEntry::newPath)
+                .containsExactly(
+                        tuple(DiffEntry.ChangeType.RENAME, "a.txt", "moved/a.txt"),
+                        tuple(DiffEntry.ChangeType.RENAME, "b.txt", "moved/b.txt"),
+                        tuple(DiffEntry.ChangeType.ADD, null, "other.txt"));
+        assertThat(detected.get(0).score()).isEqualTo(100);
+        assertThat(detected.get(1).score()).isBetween(50, 99);
+    }
+
+    @Test
+    @DisplayName("경로가 이름에 들어간 예전 평면 Tree 와 디렉터리별 Tree 를 양방향으로 비교한다")
+    void diff_betweenFlatAndNestedTrees_comparesByFullPath(@TempDir Path root) {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(root);
+        FileObjectReader reader = new FileObjectReader(root);
+        String x = write(writer, "x\n");
+        String y = write(writer, "y\n");
+        String z = write(writer, "z\n");
+        String flatTree = write(writer, "blob " + x + " dir/a\nblob " + y + " dir/b\n");
+        String nestedTree = write(writer, "tree " + write(writer, "blob " + x + " a\nblob " + z + " b\n") + " dir\n");
+
+        // when
+        List<DiffEntry> forward = new TreeDiff(reader).diff(flatTree, nestedTree);
+        List<DiffEntry> backward = new TreeDiff(reader).diff(nestedTree, flatTree);
+
+        // then
+        assertThat(forward).extracting(DiffEntry::changeType, DiffEntry::path, DiffEntry::newObjectId)
+                .containsExactly(tuple(DiffEntry.ChangeType.MODIFY, "dir/b", z));
+        assertThat(backward).extracting(DiffEntry::changeType, DiffEntry::path, DiffEntry::newObjectId)
+                .containsExactly(tuple(DiffEntry.ChangeType.MODIFY, "dir/b", y));
+    }
+
+    private String write(FileObjectWriter writer, String content) {
+        return writer.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
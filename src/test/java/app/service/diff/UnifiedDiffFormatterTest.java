@@ -0,0 +1,47 @@
+package app.service.diff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnifiedDiffFormatterTest {
+
+    @Test
+    @DisplayName("변경 주변 3줄을 문맥으로 포함한 unified diff를 출력한다")
+    void format_writesHunksWithContext() throws IOException {
+        // given
+        FileDiff diff = FileDiff.of("f.txt", "f.txt", bytes("1\n2\n3\n4\n5\n6\n7\n8\n"),
+                bytes("1\n2\n3\n4\nfive\n6\n7\n8"), DiffAlgorithm.MYERS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        UnifiedDiffFormatter.format(diff, out);
+
+        // then
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                diff --git a/f.txt b/f.txt
+                --- a/f.txt
+                +++ b/f.txt
+                @@ -2,7 +2,7 @@
+                 2
+                 3
+                 4
+                -5
+                +five
+                 6
+                 7
+                -8
+                +8
+                \\ No newline at end of file
+                """);
+    }
+
+    private byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
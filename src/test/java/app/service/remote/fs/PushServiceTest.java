@@ -0,0 +1,72 @@
+package app.service.remote.fs;
+
+import app.repository.FileObjectReader;
+import app.repository.FileObjectWriter;
+import app.repository.FileRefRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PushServiceTest {
+
+    @TempDir
+    Path local;
+
+    @TempDir
+    Path remote;
+
+    @Test
+    @DisplayName("원격보다 커밋 두 개 앞선 push 는 히스토리 길이와 무관하게 커밋 몇 개만 읽는다")
+    void push_whenTwoCommitsAhead_readsCommitsBoundedByNewCommits() {
+        // given
+        FileObjectWriter writer = new FileObjectWriter(local);
+        FileRefRepository refRepository = new FileRefRepository(local);
+        Set<String> commits = new HashSet<>();
+        String head = null;
+        for (int i = 0; i < 200; i++) {
+            head = writeCommit(writer, head, i);
+            commits.add(head);
+        }
+        refRepository.updateBranchHead("master", head);
+        FileObjectReader reader = spy(new FileObjectReader(local));
+        PushService pushService = new PushService(refRepository, reader, local);
+        pushService.push(remote, "master");
+        for (int i = 200; i < 202; i++) {
+            head = writeCommit(writer, head, i);
+            commits.add(head);
+        }
+        refRepository.updateBranchHead("master", head);
+        clearInvocations(reader);
+
+        // when
+        PushService.PushResult result = pushService.push(remote, "master");
+
+        // then
+        assertThat(result).isEqualTo(PushService.PushResult.SUCCESS);
+        assertThat(mockingDetails(reader).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("readRaw"))
+                .filter(invocation -> commits.contains(invocation.<String>getArgument(0)))
+                .count()).isLessThanOrEqualTo(30);
+        assertThat(new FileObjectReader(remote).readCommit(head).message()).isEqualTo("commit 201");
+    }
+
+    private String writeCommit(FileObjectWriter writer, String parent, int index) {
+        String blob = writer.write(bytes("content " + index + "\n"));
+        String tree = writer.write(bytes("blob " + blob + " file.txt\n"));
+        String parentLine = parent == null ? "" : "parent " + parent + "\n";
+        return writer.write(bytes("tree " + tree + "\n" + parentLine + "author me\ndate " + (1000L + index)
+                + "\n\ncommit " + index + "\n"));
+    }
+
+    private byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}